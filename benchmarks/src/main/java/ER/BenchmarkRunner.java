@@ -0,0 +1,41 @@
+package ER;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner is the entry point of the benchmark jar.
+ *
+ * <p>It accepts the standard JMH command-line options and, unless a result
+ * format is given explicitly, writes results as JSON to
+ * {@code jmh-result.json} so runs from different versions can be compared
+ * mechanically.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args standard JMH command-line arguments
+     * @throws RunnerException if a benchmark fails
+     * @throws CommandLineOptionException if the arguments are invalid
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cmd);
+
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
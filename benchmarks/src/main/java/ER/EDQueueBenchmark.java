@@ -0,0 +1,68 @@
+package ER;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EDQueueBenchmark measures steady-state {@link EDQueue} throughput.
+ *
+ * <p>The queue is pre-filled to a fixed depth; each operation adds one
+ * patient and polls one, so the depth stays constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EDQueueBenchmark {
+
+    /** Number of patients in the table (a power of two) */
+    private static final int PATIENTS = 4096;
+
+    /** Number of patients kept waiting in the queue */
+    @Param({"16", "1024"})
+    public int depth;
+
+    /** Pre-built patients cycled through the queue */
+    private PatientTable patients;
+
+    /** Queue under test */
+    private EDQueue queue;
+
+    /** Index of the next patient to add */
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        patients = new PatientTable(PATIENTS);
+        java.util.Random rand = new java.util.Random(42);
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(i + 1, rand.nextInt(Patient.SEVERITY_LEVELS) + 1, i);
+        }
+
+        queue = new EDQueue();
+        for (next = 0; next < depth; next++) {
+            queue.add(next, patients.severity(next));
+        }
+    }
+
+    @Benchmark
+    public int addPoll() {
+        int p = next++ & (PATIENTS - 1);
+        queue.add(p, patients.severity(p));
+        return queue.poll();
+    }
+}
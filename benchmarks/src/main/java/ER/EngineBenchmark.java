@@ -0,0 +1,91 @@
+package ER;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EngineBenchmark measures end-to-end throughput of
+ * {@link SimulationEngine#run()}.
+ *
+ * <p>Each invocation performs one complete run with output files turned
+ * off ({@link Config#outputFiles}), so file I/O is not timed. Besides runs
+ * per second, the {@link EventCounter} auxiliary counter reports
+ * simulation events executed per second, which is comparable across
+ * arrival rates and staffing levels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    /** Patient arrival rate (patients per hour) */
+    @Param({"20", "60", "120"})
+    public double arrivalRatePerHour;
+
+    /** Number of doctors */
+    @Param({"2", "8"})
+    public int numDoctors;
+
+    /** Simulated horizon (hours) */
+    @Param({"168"})
+    public double simHours;
+
+    /** Configuration shared by every invocation */
+    private Config config;
+
+    /**
+     * Counts events executed, reported by JMH as events per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounter {
+
+        /** Events executed during the current iteration */
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            events = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        config = new Config();
+        config.arrivalRatePerHour = arrivalRatePerHour;
+        config.numDoctors = numDoctors;
+        config.serviceMeanMinutes = 60.0 * numDoctors / arrivalRatePerHour * 0.9;
+        config.simHours = simHours;
+        config.randomSeed = 42L;
+        config.timeseriesIntervalMinutes = 0;
+        config.traceLevel = TraceLevel.OFF;
+        config.outputFiles = false;
+        config.outputDir = Files.createTempDirectory("er-bench").toString();
+    }
+
+    @Benchmark
+    public RunResult run(EventCounter counter) {
+        SimulationEngine engine = new SimulationEngine(config);
+        RunResult result = engine.run();
+        counter.events += engine.getEventsProcessed();
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+package ER;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EventListBenchmark measures {@link FutureEventList} implementations with
+ * the classic "hold" model.
+ *
+ * <p>The list holds a fixed number of pending events; each operation polls
+ * the earliest event and reschedules it at an exponentially distributed
+ * later time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventListBenchmark {
+
+    /** Future event list implementation */
+    @Param({"heap", "calendar"})
+    public String kind;
+
+    /** Number of pending events */
+    @Param({"100", "10000", "1000000"})
+    public int pending;
+
+    /** List under test */
+    private FutureEventList list;
+
+    /** Pre-drawn exponential increments */
+    private double[] increments;
+
+    /** Index of the next increment */
+    private int next;
+
+    /** Sequence number for the next scheduled event */
+    private long seq;
+
+    /**
+     * Minimal event with no behaviour.
+     */
+    private static final class HoldEvent extends Event {
+        HoldEvent(double time) {
+            super(time);
+        }
+
+        @Override
+        public void execute(SimulationEngine engine) {
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        java.util.Random rand = new java.util.Random(42);
+        increments = new double[1 << 16];
+        for (int i = 0; i < increments.length; i++) {
+            increments[i] = -Math.log(1 - rand.nextDouble());
+        }
+
+        list = FutureEventList.create(kind);
+        seq = 0;
+        for (next = 0; next < pending; next++) {
+            HoldEvent e = new HoldEvent(increments[next & (increments.length - 1)] * pending);
+            e.seq = seq++;
+            list.add(e);
+        }
+    }
+
+    @Benchmark
+    public Event hold() {
+        Event e = list.poll();
+        e.time += increments[next++ & (increments.length - 1)] * pending;
+        e.seq = seq++;
+        list.add(e);
+        return e;
+    }
+}
@@ -0,0 +1,59 @@
+package ER;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * StatsBenchmark measures the cost of recording one served patient in
+ * {@link StatsCollector} (service start plus service end).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsBenchmark {
+
+    /** Number of patients in the table (a power of two) */
+    private static final int PATIENTS = 4096;
+
+    /** Collector under test */
+    private StatsCollector stats;
+
+    /** Pre-built patients cycled through the collector */
+    private PatientTable patients;
+
+    /** Index of the next patient */
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        stats = new StatsCollector();
+        patients = new PatientTable(PATIENTS);
+        java.util.Random rand = new java.util.Random(42);
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(i + 1, rand.nextInt(Patient.SEVERITY_LEVELS) + 1, i);
+        }
+    }
+
+    @Benchmark
+    public void recordServed() {
+        int p = next++ & (PATIENTS - 1);
+        int severity = patients.severity(p);
+        double start = patients.arrival(p) + (next & 63);
+        stats.recordServiceStart(severity, patients.arrival(p), start);
+        stats.recordServiceEnd(severity, start, start + 15.0);
+    }
+}
@@ -0,0 +1,101 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Discrete distribution over weighted values, sampled in constant time with
+ * Walker's alias method (Vose's construction).
+ *
+ * <p>Each draw uses one uniform variate: its integer part selects a column
+ * and its fractional part decides between the column's value and its alias.
+ */
+public class AliasDistribution implements Distribution {
+
+    /** Value of each column */
+    private final double[] values;
+
+    /** Value of each column's alias */
+    private final double[] aliasValues;
+
+    /** Probability of keeping the column's own value */
+    private final double[] keep;
+
+    /** Weighted mean */
+    private final double mean;
+
+    /**
+     * @param values  possible values
+     * @param weights non-negative weights (need not sum to 1)
+     */
+    public AliasDistribution(double[] values, double[] weights) {
+        int n = values.length;
+        if (n == 0 || weights.length != n) {
+            throw new IllegalArgumentException("Discrete distribution needs one weight per value");
+        }
+
+        double total = 0.0;
+        double weighted = 0.0;
+        for (int i = 0; i < n; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Discrete weights must be non-negative");
+            }
+            total += weights[i];
+            weighted += weights[i] * values[i];
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("Discrete weights must not all be zero");
+        }
+
+        this.values = values.clone();
+        this.aliasValues = values.clone();
+        this.keep = new double[n];
+        this.mean = weighted / total;
+
+        // Scaled probabilities, split into under- and over-full columns
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int ns = 0;
+        int nl = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[ns++] = i;
+            } else {
+                large[nl++] = i;
+            }
+        }
+
+        while (ns > 0 && nl > 0) {
+            int s = small[--ns];
+            int l = large[--nl];
+            keep[s] = scaled[s];
+            aliasValues[s] = values[l];
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) {
+                small[ns++] = l;
+            } else {
+                large[nl++] = l;
+            }
+        }
+        // Remaining columns are full (up to rounding)
+        while (nl > 0) {
+            keep[large[--nl]] = 1.0;
+        }
+        while (ns > 0) {
+            keep[small[--ns]] = 1.0;
+        }
+    }
+
+    @Override
+    public double sample(RandomGenerator rng) {
+        double u = rng.nextDouble() * values.length;
+        int i = (int) u;
+        return (u - i) < keep[i] ? values[i] : aliasValues[i];
+    }
+
+    @Override
+    public double mean() {
+        return mean;
+    }
+}
@@ -1,16 +1,18 @@
 package ER;
 
-import java.util.Random;
-
 /**
  * ArrivalEvent represents the arrival of a new patient into the Emergency Room.
  *
  * <p>This event is responsible for:
  * <ul>
- *   <li>Creating a new patient with a randomly assigned severity level</li>
- *   <li>Adding the patient to the waiting queue</li>
+ *   <li>Adding a new patient with its pregenerated severity level to the
+ *       engine's {@link PatientTable}</li>
  *   <li>Recording arrival statistics</li>
- *   <li>Immediately assigning the patient to a free doctor if available</li>
+ *   <li>Immediately assigning the patient to a free doctor if available,
+ *       otherwise adding the patient to the waiting queue</li>
+ *   <li>With a {@link Pathway}, sending the patient to its entry station instead</li>
+ *   <li>In a {@link HospitalNetwork}, diverting the arrival to another
+ *       site when this one is on diversion</li>
  *   <li>Scheduling the next patient arrival event</li>
  * </ul>
  *
@@ -19,16 +21,36 @@ import java.util.Random;
  */
 public class ArrivalEvent extends Event {
 
-    /** Random number generator used to assign patient severity levels */
-    private static final Random rand = new Random();
+    /** Severity of the arriving patient (1–5) */
+    private int severity;
 
     /**
      * Constructs a new ArrivalEvent at the specified simulation time.
      *
-     * @param time the simulation time at which the patient arrives
+     * @param time     the simulation time at which the patient arrives
+     * @param severity severity level drawn by the {@link ArrivalGenerator}
      */
-    public ArrivalEvent(double time) {
+    public ArrivalEvent(double time, int severity) {
         super(time);
+        this.severity = severity;
+    }
+
+    /**
+     * Reinitialises a recycled event (see {@link EventPool}).
+     *
+     * @param time     the simulation time at which the patient arrives
+     * @param severity severity level drawn by the {@link ArrivalGenerator}
+     * @return this event
+     */
+    ArrivalEvent reset(double time, int severity) {
+        this.time = time;
+        this.severity = severity;
+        return this;
+    }
+
+    /** @return severity of the arriving patient */
+    public int getSeverity() {
+        return severity;
     }
 
     /**
@@ -36,10 +58,10 @@ public class ArrivalEvent extends Event {
      *
      * <p>Execution steps include:
      * <ol>
-     *   <li>Generate a new patient with random severity</li>
-     *   <li>Add the patient to the queue</li>
+     *   <li>Create the patient with its pregenerated severity</li>
      *   <li>Record arrival statistics</li>
-     *   <li>Assign the patient to a free doctor if one is available</li>
+     *   <li>Admit the patient to a doctor (or the pathway entry station),
+     *       queueing if no server is free</li>
      *   <li>Schedule the next arrival event</li>
      * </ol>
      *
@@ -48,41 +70,26 @@ public class ArrivalEvent extends Event {
     @Override
     public void execute(SimulationEngine engine) {
 
-        // Generate patient severity level (1 = least severe, 5 = most severe)
-        int severity = rand.nextInt(5) + 1;
-
-        // Create a new patient arriving at the current simulation time
-        Patient p = new Patient(severity, time);
+        // An ambulance diverted to another site never enters this ED
+        if (engine.site != null && engine.site.divert(severity, time)) {
+            engine.scheduleNextArrival();
+            return;
+        }
 
-        // Add patient to the waiting queue
-        engine.queue.add(p);
+        // Add a new patient arriving at the current simulation time
+        int id = engine.nextPatientId();
+        int p = engine.patients.add(id, severity, time);
 
         // Record arrival statistics
-        engine.stats.recordArrival(p);
-
-        // Log arrival event for debugging and traceability
-        System.out.println("Time " + time + ": Arrival of " + p);
+        engine.stats.recordArrival(severity);
 
-        // Check if a doctor is immediately available
-        Doctor freeDoc = engine.getFreeDoctor();
-        if (freeDoc != null) {
+        // Trace arrival event for debugging and traceability
+        engine.trace.arrival(time, id, severity);
 
-            // Assign patient to the available doctor
-            freeDoc.setBusy(true, time);
-            p.setAssignedDoctor(freeDoc);
-            p.setServiceStart(time);
-
-            // Record service start statistics
-            engine.stats.recordServiceStart(p, time);
-
-            // Schedule service completion event
-            double end = time + engine.generateServiceTime();
-            engine.scheduleEvent(new ServiceEndEvent(end, p));
-        }
+        // Send the patient to a doctor, or to the first pathway station
+        engine.admit(p, time);
 
-        // Schedule the next patient arrival based on interarrival distribution
-        engine.scheduleEvent(
-                new ArrivalEvent(time + engine.generateInterarrivalTime())
-        );
+        // Only the next arrival of the stream is held in the event list
+        engine.scheduleNextArrival();
     }
 }
@@ -0,0 +1,296 @@
+package ER;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.random.RandomGenerator;
+
+/**
+ * ArrivalGenerator produces the patient arrival stream of a run: arrival
+ * times and severities.
+ *
+ * <p>Arrivals follow a Poisson process whose rate may vary with time:
+ * <ul>
+ *   <li>A base rate (patients per minute)</li>
+ *   <li>An optional hour-of-day profile (24 multipliers)</li>
+ *   <li>An optional day-of-week profile (7 multipliers)</li>
+ * </ul>
+ * Time-varying rates are generated by thinning (Lewis–Shedler): candidates
+ * are drawn at the peak rate and accepted with probability
+ * {@code rate(t) / peak}. Simulation time 0 is hour 0 of day 0.
+ *
+ * <p>Arrivals are generated in batches into primitive buffers, so the
+ * engine only schedules the next arrival and no per-arrival objects are
+ * created in advance. Callers can either fill their own buffers with
+ * {@link #fill(double[], int[], int, int)} or consume arrivals lazily with
+ * {@link #next()}.
+ */
+public class ArrivalGenerator {
+
+    /** Default number of arrivals generated per refill */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /** Minutes per hour-of-day profile slot */
+    private static final double MINUTES_PER_HOUR = 60.0;
+
+    /** Minutes per day-of-week profile slot */
+    private static final double MINUTES_PER_DAY = 1440.0;
+
+    /** Base arrival rate (patients per minute) */
+    private final double baseRate;
+
+    /** Hour-of-day rate multipliers (null = flat) */
+    private final double[] hourly;
+
+    /** Day-of-week rate multipliers (null = flat) */
+    private final double[] daily;
+
+    /** Peak rate over the profile, used as the thinning envelope */
+    private final double peakRate;
+
+    /** Random number stream for interarrival times and thinning */
+    private final RandomGenerator arrivalRng;
+
+    /** Random number stream for severities */
+    private final RandomGenerator severityRng;
+
+    /** Buffered arrival times */
+    private final double[] times;
+
+    /** Buffered arrival severities */
+    private final int[] severities;
+
+    /** Index of the current arrival in the buffers */
+    private int pos;
+
+    /** Number of valid buffered arrivals */
+    private int count;
+
+    /** Time of the last generated candidate (minutes) */
+    private double clock;
+
+    /**
+     * Creates an arrival generator.
+     *
+     * @param ratePerMinute base arrival rate (patients per minute)
+     * @param hourly        24 hour-of-day multipliers, or null
+     * @param daily         7 day-of-week multipliers, or null
+     * @param batchSize     arrivals generated per refill
+     * @param arrivalRng    random number stream for interarrival times
+     * @param severityRng   random number stream for severities
+     */
+    public ArrivalGenerator(
+            double ratePerMinute,
+            double[] hourly,
+            double[] daily,
+            int batchSize,
+            RandomGenerator arrivalRng,
+            RandomGenerator severityRng
+    ) {
+        if (hourly != null && hourly.length != 24) {
+            throw new IllegalArgumentException("Hourly arrival profile needs 24 values");
+        }
+        if (daily != null && daily.length != 7) {
+            throw new IllegalArgumentException("Daily arrival profile needs 7 values");
+        }
+
+        this.baseRate = ratePerMinute;
+        this.hourly = hourly;
+        this.daily = daily;
+        this.peakRate = ratePerMinute * max(hourly) * max(daily);
+        this.arrivalRng = arrivalRng;
+        this.severityRng = severityRng;
+        this.times = new double[Math.max(1, batchSize)];
+        this.severities = new int[times.length];
+        reset();
+    }
+
+    /**
+     * Restarts the stream at time 0.
+     *
+     * <p>The random number streams are not reseeded.
+     */
+    public void reset() {
+        pos = 0;
+        count = 0;
+        clock = 0.0;
+    }
+
+    /**
+     * Discards pregenerated arrivals and continues the stream from a given
+     * time, e.g. after the rate of a what-if branch has changed.
+     *
+     * <p>Poisson arrivals are memoryless, so the restarted stream has the
+     * same distribution as one generated from time 0.
+     *
+     * @param t time from which the next arrivals are generated (minutes)
+     */
+    public void restartAt(double t) {
+        pos = 0;
+        count = 0;
+        clock = t;
+    }
+
+    /**
+     * Advances to the next arrival, refilling the buffer when exhausted.
+     *
+     * @return arrival time (minutes), or positive infinity if the rate is zero
+     */
+    public double next() {
+        if (++pos >= count) {
+            count = fill(times, severities, 0, times.length);
+            pos = 0;
+            if (count == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        return times[pos];
+    }
+
+    /**
+     * Returns the severity of the arrival last returned by {@link #next()}.
+     *
+     * @return severity level (1–5)
+     */
+    public int severity() {
+        return severities[pos];
+    }
+
+    /**
+     * Generates the next {@code len} arrivals of the stream.
+     *
+     * @param outTimes      destination for arrival times (minutes, increasing)
+     * @param outSeverities destination for severities (1–5)
+     * @param off           first index to write
+     * @param len           number of arrivals to generate
+     * @return number of arrivals written ({@code len}, or 0 if the rate is zero)
+     */
+    public int fill(double[] outTimes, int[] outSeverities, int off, int len) {
+        if (peakRate <= 0) {
+            return 0;
+        }
+
+        boolean flat = hourly == null && daily == null;
+        for (int i = off; i < off + len; i++) {
+            double t = clock;
+            do {
+                t += arrivalRng.nextExponential() / peakRate;
+            } while (!flat && arrivalRng.nextDouble() * peakRate >= rateAt(t));
+
+            clock = t;
+            outTimes[i] = t;
+            outSeverities[i] = severityRng.nextInt(Patient.SEVERITY_LEVELS) + 1;
+        }
+        return len;
+    }
+
+    /**
+     * Writes the stream position, including pregenerated arrivals not yet
+     * consumed.
+     *
+     * <p>The random number streams are saved separately.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeDouble(clock);
+        out.writeInt(pos);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeDouble(times[i]);
+            out.writeByte(severities[i]);
+        }
+    }
+
+    /**
+     * Restores a stream position written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails or the batch size differs
+     */
+    public void readFrom(DataInput in) throws IOException {
+        clock = in.readDouble();
+        pos = in.readInt();
+        count = in.readInt();
+        if (count > times.length) {
+            throw new IOException("Checkpoint arrival batch size differs");
+        }
+        for (int i = 0; i < count; i++) {
+            times[i] = in.readDouble();
+            severities[i] = in.readByte();
+        }
+    }
+
+    /**
+     * Returns the arrival rate in effect at a simulation time.
+     *
+     * @param t simulation time (minutes)
+     * @return arrival rate (patients per minute)
+     */
+    public double rateAt(double t) {
+        double r = baseRate;
+        if (hourly != null) {
+            r *= hourly[(int) ((long) (t / MINUTES_PER_HOUR) % 24)];
+        }
+        if (daily != null) {
+            r *= daily[(int) ((long) (t / MINUTES_PER_DAY) % 7)];
+        }
+        return r;
+    }
+
+    /**
+     * Returns the expected number of arrivals before a given time.
+     *
+     * <p>The rate is constant within each hour, so the integral is summed
+     * exactly slot by slot.
+     *
+     * @param endTime end of the horizon (minutes)
+     * @return expected arrival count
+     */
+    public double expectedArrivals(double endTime) {
+        if (hourly == null && daily == null) {
+            return baseRate * endTime;
+        }
+        double sum = 0.0;
+        for (double t = 0.0; t < endTime; t += MINUTES_PER_HOUR) {
+            sum += rateAt(t) * Math.min(MINUTES_PER_HOUR, endTime - t);
+        }
+        return sum;
+    }
+
+    /**
+     * Parses a comma-separated list of rate multipliers.
+     *
+     * @param spec multipliers (e.g. {@code "0.5,0.5,1.0,..."}), or null/blank
+     * @return multipliers, or null if {@code spec} is null or blank
+     */
+    public static double[] parseProfile(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return null;
+        }
+        String[] parts = spec.split(",");
+        double[] m = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            m[i] = Double.parseDouble(parts[i].trim());
+        }
+        return m;
+    }
+
+    /**
+     * Returns the largest multiplier of a profile (1 for a flat profile).
+     */
+    private static double max(double[] profile) {
+        if (profile == null) {
+            return 1.0;
+        }
+        double m = 0.0;
+        for (double v : profile) {
+            if (v < 0) {
+                throw new IllegalArgumentException("Arrival rate multipliers must be non-negative");
+            }
+            m = Math.max(m, v);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,33 @@
+package ER;
+
+/**
+ * AssignmentPolicy selects which idle doctor receives the next patient.
+ *
+ * <ul>
+ *   <li>{@link #FIRST_FREE} – the idle doctor with the lowest index</li>
+ *   <li>{@link #ROUND_ROBIN} – the next idle doctor after the one last assigned</li>
+ *   <li>{@link #LEAST_UTILIZED} – the idle doctor with the least accumulated busy time</li>
+ * </ul>
+ */
+public enum AssignmentPolicy {
+
+    /** Lowest-index idle doctor (the original behaviour) */
+    FIRST_FREE,
+
+    /** Cycle through doctors, starting after the last assignment */
+    ROUND_ROBIN,
+
+    /** Idle doctor with the smallest accumulated busy time */
+    LEAST_UTILIZED;
+
+    /**
+     * Parses a policy name, ignoring case and accepting dashes.
+     *
+     * @param name policy name (e.g., "first_free", "round-robin")
+     * @return the matching policy
+     * @throws IllegalArgumentException if the name is not a known policy
+     */
+    public static AssignmentPolicy parse(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
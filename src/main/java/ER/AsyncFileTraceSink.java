@@ -0,0 +1,224 @@
+package ER;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AsyncFileTraceSink writes trace records as CSV lines on a background thread.
+ *
+ * <p>The engine thread appends records to an in-memory chunk. Full chunks are
+ * handed to a dedicated writer thread and recycled once written, so:
+ * <ul>
+ *   <li>The engine never performs file I/O directly</li>
+ *   <li>Memory use is bounded by a fixed number of chunks</li>
+ *   <li>No per-record strings are allocated</li>
+ * </ul>
+ *
+ * <p>If the writer falls behind by more than the available chunks, the engine
+ * waits for a chunk to be recycled rather than growing without bound. The
+ * wait checks periodically that the writer is still running: once it has
+ * failed or stopped, the sink discards every further record instead of
+ * blocking the engine, and {@link #close()} reports the failure.
+ */
+public class AsyncFileTraceSink implements TraceSink {
+
+    /** Characters buffered per chunk before hand-off to the writer */
+    private static final int CHUNK_CHARS = 64 * 1024;
+
+    /** Number of chunks that may be in flight at once */
+    private static final int CHUNKS = 4;
+
+    /** Milliseconds between writer liveness checks while waiting for a chunk */
+    private static final long WAIT_SLICE_MS = 100;
+
+    /** Empty chunk used to signal the writer thread to stop */
+    private static final StringBuilder END = new StringBuilder(0);
+
+    /** Chunks waiting to be written */
+    private final BlockingQueue<StringBuilder> pending = new ArrayBlockingQueue<>(CHUNKS + 1);
+
+    /** Written chunks available for reuse */
+    private final BlockingQueue<StringBuilder> free = new ArrayBlockingQueue<>(CHUNKS);
+
+    /** Background writer thread */
+    private final Thread writer;
+
+    /** Chunk currently being filled by the engine thread */
+    private StringBuilder current;
+
+    /** First I/O failure seen by the writer thread */
+    private volatile IOException failure;
+
+    /** Whether records are being discarded because the writer failed or stopped */
+    private boolean dropping = false;
+
+    /**
+     * Opens a trace file and starts its writer thread.
+     *
+     * @param file trace file to create (overwritten if it exists)
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncFileTraceSink(Path file) throws IOException {
+        BufferedWriter out = Files.newBufferedWriter(file);
+        out.write("time,event,patient,severity,doctor\n");
+
+        for (int i = 1; i < CHUNKS; i++) {
+            free.add(new StringBuilder(CHUNK_CHARS + 128));
+        }
+        current = new StringBuilder(CHUNK_CHARS + 128);
+
+        writer = Thread.ofPlatform()
+                .name("trace-writer")
+                .daemon(true)
+                .start(() -> drain(out));
+    }
+
+    @Override
+    public void arrival(double time, int patientId, int severity) {
+        append(time, "arrival", patientId, severity, null);
+    }
+
+    @Override
+    public void serviceEnd(double time, int patientId, int severity, Doctor doctor) {
+        append(time, "service_end", patientId, severity, doctor);
+    }
+
+    @Override
+    public void departure(double time, int patientId, int severity) {
+        append(time, "departure", patientId, severity, null);
+    }
+
+    /**
+     * Appends one CSV record to the current chunk.
+     */
+    private void append(double time, String event, int patientId, int severity, Doctor d) {
+        if (dropping) {
+            return;
+        }
+        current.append(time).append(',')
+                .append(event).append(',')
+                .append(patientId).append(',')
+                .append(severity).append(',')
+                .append(d == null ? "" : d.getId()).append('\n');
+
+        if (current.length() >= CHUNK_CHARS) {
+            handOff();
+        }
+    }
+
+    /**
+     * Passes the current chunk to the writer and takes a recycled one,
+     * switching to dropping records if the writer can no longer accept it.
+     */
+    private void handOff() {
+        try {
+            if (writerStopped()) {
+                startDropping();
+                return;
+            }
+            while (!pending.offer(current, WAIT_SLICE_MS, TimeUnit.MILLISECONDS)) {
+                if (writerStopped()) {
+                    startDropping();
+                    return;
+                }
+            }
+            StringBuilder next;
+            while ((next = free.poll(WAIT_SLICE_MS, TimeUnit.MILLISECONDS)) == null) {
+                if (writerStopped()) {
+                    current = new StringBuilder(0);
+                    startDropping();
+                    return;
+                }
+            }
+            current = next;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing trace", ex);
+        }
+    }
+
+    /**
+     * Tells whether the writer has failed or is no longer running.
+     */
+    private boolean writerStopped() {
+        return failure != null || !writer.isAlive();
+    }
+
+    /**
+     * Stops tracing: the current chunk and every later record are discarded.
+     */
+    private void startDropping() {
+        dropping = true;
+        current.setLength(0);
+    }
+
+    /**
+     * Writer thread body: writes chunks until the end marker is received.
+     */
+    private void drain(BufferedWriter out) {
+        try (out) {
+            while (true) {
+                StringBuilder chunk = pending.take();
+                if (chunk == END) {
+                    break;
+                }
+
+                // Keep recycling chunks after a failure so the engine never stalls
+                if (failure == null) {
+                    try {
+                        out.append(chunk);
+                    } catch (IOException ex) {
+                        failure = ex;
+                    }
+                }
+                chunk.setLength(0);
+                free.put(chunk);
+            }
+        } catch (IOException ex) {
+            if (failure == null) {
+                failure = ex;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            if (failure == null) {
+                failure = new IOException("Trace writer failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining records and stops the writer thread.
+     *
+     * @throws IOException if the writer failed or stopped, in which case
+     *                     records after the failure were discarded
+     */
+    @Override
+    public void close() throws IOException {
+        if (current.length() > 0) {
+            handOff();
+        }
+        try {
+            // A writer that failed keeps draining and still needs the end marker
+            boolean sent = false;
+            while (!sent && writer.isAlive()) {
+                sent = pending.offer(END, WAIT_SLICE_MS, TimeUnit.MILLISECONDS);
+            }
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing trace", ex);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (dropping) {
+            throw new IOException("Trace writer stopped; later trace records were discarded");
+        }
+    }
+}
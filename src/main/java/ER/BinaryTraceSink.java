@@ -0,0 +1,82 @@
+package ER;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * BinaryTraceSink writes trace records as fixed-width big-endian binary.
+ *
+ * <p>The file starts with the magic bytes {@code ERTR} and a format version,
+ * followed by one 16-byte record per event:
+ * <ul>
+ *   <li>{@code byte} record type ({@link TraceSink#ARRIVAL}, etc.)</li>
+ *   <li>{@code double} simulation time</li>
+ *   <li>{@code int} patient identifier</li>
+ *   <li>{@code byte} patient severity</li>
+ *   <li>{@code short} doctor index, or -1 if none</li>
+ * </ul>
+ *
+ * <p>Records are encoded without any text formatting, which makes this the
+ * cheapest way to capture a full trace of a long run.
+ */
+public class BinaryTraceSink implements TraceSink {
+
+    /** File format version written after the magic bytes */
+    public static final int VERSION = 1;
+
+    /** Buffered binary output stream */
+    private final DataOutputStream out;
+
+    /**
+     * Opens a binary trace file and writes its header.
+     *
+     * @param file trace file to create (overwritten if it exists)
+     * @throws IOException if the file cannot be opened
+     */
+    public BinaryTraceSink(Path file) throws IOException {
+        out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)
+        );
+        out.writeBytes("ERTR");
+        out.writeInt(VERSION);
+    }
+
+    @Override
+    public void arrival(double time, int patientId, int severity) {
+        write(ARRIVAL, time, patientId, severity, null);
+    }
+
+    @Override
+    public void serviceEnd(double time, int patientId, int severity, Doctor doctor) {
+        write(SERVICE_END, time, patientId, severity, doctor);
+    }
+
+    @Override
+    public void departure(double time, int patientId, int severity) {
+        write(DEPARTURE, time, patientId, severity, null);
+    }
+
+    /**
+     * Encodes a single fixed-width record.
+     */
+    private void write(int type, double time, int patientId, int severity, Doctor d) {
+        try {
+            out.writeByte(type);
+            out.writeDouble(time);
+            out.writeInt(patientId);
+            out.writeByte(severity);
+            out.writeShort(d == null ? -1 : d.getIndex());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write binary trace", ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -14,7 +14,8 @@ import java.util.Map;
  *
  * <p>This class supports:
  * <ul>
- *   <li>Writing time-series data with optional headers</li>
+ *   <li>Writing tabular data with optional headers</li>
+ *   <li>Writing time-series data from primitive column buffers</li>
  *   <li>Writing summary statistics as key–value pairs</li>
  *   <li>Automatic creation of output directories</li>
  * </ul>
@@ -62,16 +63,77 @@ public class CSVExporter {
 
             // Write header row if provided
             if (header != null) {
-                w.write(String.join(",", header));
-                w.write("\n");
+                writeRow(w, header);
             }
 
             // Write each data row
             for (String[] r : rows) {
-                w.write(String.join(",", r));
-                w.write("\n");
+                writeRow(w, r);
+            }
+        }
+    }
+
+    /**
+     * Writes one row cell by cell, without building a joined string.
+     */
+    private static void writeRow(BufferedWriter w, String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                w.write(',');
+            }
+            w.write(cells[i]);
+        }
+        w.write('\n');
+    }
+
+    /**
+     * Streams a time-series CSV file from a sampler's column buffers.
+     *
+     * <p>Rows are written directly from the primitive columns without
+     * building intermediate string arrays. Columns are: sample time, queue
+     * length per severity level, total queue length, busy doctors and
+     * cumulative throughput.
+     *
+     * @param filename name of the CSV file to create
+     * @param ts       sampler holding the recorded time series
+     * @return path of the written file
+     * @throws IOException if an error occurs while writing the file
+     */
+    public Path writeTimeSeries(String filename, TimeSeriesSampler ts)
+            throws IOException {
+
+        Path out = baseDir.resolve(filename);
+
+        try (BufferedWriter w = Files.newBufferedWriter(out)) {
+
+            // Header row
+            w.write("time");
+            for (int sev = 1; sev <= Patient.SEVERITY_LEVELS; sev++) {
+                w.write(",queue_sev" + sev);
+            }
+            w.write(",queue_total,busy_doctors,throughput\n");
+
+            // One row per sample
+            StringBuilder row = new StringBuilder(128);
+            for (int i = 0; i < ts.size(); i++) {
+                row.setLength(0);
+                row.append(ts.timeAt(i));
+
+                int total = 0;
+                for (int sev = 1; sev <= Patient.SEVERITY_LEVELS; sev++) {
+                    int q = ts.queueAt(i, sev);
+                    total += q;
+                    row.append(',').append(q);
+                }
+
+                row.append(',').append(total)
+                        .append(',').append(ts.busyDoctorsAt(i))
+                        .append(',').append(ts.throughputAt(i))
+                        .append('\n');
+                w.append(row);
             }
         }
+        return out;
     }
 
     /**
@@ -0,0 +1,277 @@
+package ER;
+
+import java.util.function.Consumer;
+
+/**
+ * CalendarEventList is a calendar-queue future event list (R. Brown, 1988).
+ *
+ * <p>Time is divided into fixed-width "days" that map onto a circular array
+ * of buckets (a "year"). Each bucket holds a short time-sorted linked list of
+ * events, linked intrusively through {@link Event#next} so that no list nodes
+ * are allocated. This gives:
+ * <ul>
+ *   <li>Amortized O(1) insertion and removal</li>
+ *   <li>Automatic resizing (bucket count doubles or halves with the
+ *       population, and the day width is re-estimated from the spacing of
+ *       the earliest events)</li>
+ *   <li>Deterministic FIFO ordering of equal-time events by sequence number</li>
+ * </ul>
+ *
+ * <p>Bucket membership is always derived from the same
+ * {@code floor(time / width)} computation, so the scan never depends on
+ * accumulated floating-point bucket boundaries.
+ */
+public class CalendarEventList implements FutureEventList {
+
+    /** Smallest number of buckets kept */
+    private static final int MIN_BUCKETS = 2;
+
+    /** Number of leading events sampled when re-estimating the bucket width */
+    private static final int WIDTH_SAMPLE = 25;
+
+    /** Bucket heads (length is always a power of two) */
+    private Event[] buckets;
+
+    /** Bucket tails, so in-order and equal-time insertions append in O(1) */
+    private Event[] tails;
+
+    /** Bucket index mask ({@code buckets.length - 1}) */
+    private int mask;
+
+    /** Width of one bucket (minutes) */
+    private double width;
+
+    /** Number of pending events */
+    private int size;
+
+    /** Virtual bucket being scanned; no pending event lies in an earlier one */
+    private long current;
+
+    /** Set while a resize is in progress to suppress nested resizing */
+    private boolean resizing;
+
+    /**
+     * Creates an empty calendar queue.
+     */
+    public CalendarEventList() {
+        clear();
+    }
+
+    @Override
+    public void add(Event e) {
+        insert(e);
+        size++;
+        if (!resizing && size > 2 * buckets.length) {
+            resize(buckets.length << 1);
+        }
+    }
+
+    @Override
+    public Event poll() {
+        int b = locateEarliest();
+        if (b < 0) {
+            return null;
+        }
+
+        Event e = buckets[b];
+        buckets[b] = e.next;
+        if (e.next == null) {
+            tails[b] = null;
+        }
+        e.next = null;
+        size--;
+
+        if (!resizing && buckets.length > MIN_BUCKETS && size < buckets.length / 2) {
+            resize(buckets.length >> 1);
+        }
+        return e;
+    }
+
+    @Override
+    public Event peek() {
+        int b = locateEarliest();
+        return b < 0 ? null : buckets[b];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Event> action) {
+        for (Event head : buckets) {
+            for (Event e = head; e != null; e = e.next) {
+                action.accept(e);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        buckets = new Event[MIN_BUCKETS];
+        tails = new Event[MIN_BUCKETS];
+        mask = MIN_BUCKETS - 1;
+        width = 1.0;
+        size = 0;
+        current = 0;
+    }
+
+    /**
+     * Returns the virtual (unwrapped) bucket number for a time.
+     */
+    private long virtualBucket(double t) {
+        return (long) Math.floor(t / width);
+    }
+
+    /**
+     * Returns {@code true} if event {@code a} must be processed before {@code b}.
+     */
+    private static boolean before(Event a, Event b) {
+        return a.time < b.time || (a.time == b.time && a.seq < b.seq);
+    }
+
+    /**
+     * Inserts an event into its bucket, keeping the bucket sorted.
+     */
+    private void insert(Event e) {
+        long vb = virtualBucket(e.time);
+        if (vb < current) {
+            current = vb;
+        }
+
+        int b = (int) (vb & mask);
+        Event tail = tails[b];
+
+        // Fast path: empty bucket, or the event belongs after the current tail
+        if (tail == null || before(tail, e)) {
+            e.next = null;
+            if (tail == null) {
+                buckets[b] = e;
+            } else {
+                tail.next = e;
+            }
+            tails[b] = e;
+            return;
+        }
+
+        Event prev = null;
+        Event cur = buckets[b];
+        while (before(cur, e)) {
+            prev = cur;
+            cur = cur.next;
+        }
+
+        e.next = cur;
+        if (prev == null) {
+            buckets[b] = e;
+        } else {
+            prev.next = e;
+        }
+    }
+
+    /**
+     * Finds the bucket whose head is the earliest pending event.
+     *
+     * <p>Scans forward one bucket per day for at most one year; if the
+     * calendar is sparse and nothing is due within that year, falls back to
+     * a direct search of all bucket heads.
+     *
+     * @return bucket index, or -1 if the list is empty
+     */
+    private int locateEarliest() {
+        if (size == 0) {
+            return -1;
+        }
+
+        for (int i = 0; i < buckets.length; i++) {
+            int b = (int) (current & mask);
+            Event head = buckets[b];
+            if (head != null && virtualBucket(head.time) <= current) {
+                return b;
+            }
+            current++;
+        }
+
+        // Direct search: nothing due within one year of the current day
+        int best = -1;
+        for (int b = 0; b < buckets.length; b++) {
+            Event head = buckets[b];
+            if (head != null && (best < 0 || before(head, buckets[best]))) {
+                best = b;
+            }
+        }
+        current = virtualBucket(buckets[best].time);
+        return best;
+    }
+
+    /**
+     * Rebuilds the calendar with a new bucket count and re-estimated width.
+     */
+    private void resize(int newCount) {
+        resizing = true;
+
+        double newWidth = estimateWidth();
+        Event[] old = buckets;
+
+        buckets = new Event[newCount];
+        tails = new Event[newCount];
+        mask = newCount - 1;
+        width = newWidth;
+        current = Long.MAX_VALUE;
+
+        for (Event head : old) {
+            Event e = head;
+            while (e != null) {
+                Event following = e.next;
+                insert(e);
+                e = following;
+            }
+        }
+        if (size == 0) {
+            current = 0;
+        }
+
+        resizing = false;
+    }
+
+    /**
+     * Estimates a bucket width from the spacing of the earliest events.
+     *
+     * <p>Following Brown, the earliest events are removed and re-inserted,
+     * separations larger than twice the average are discarded as outliers,
+     * and the width is set to three times the remaining average separation.
+     *
+     * @return new bucket width, or the current width if no estimate is possible
+     */
+    private double estimateWidth() {
+        int k = Math.min(WIDTH_SAMPLE, size);
+        if (k < 2) {
+            return width;
+        }
+
+        Event[] sample = new Event[k];
+        for (int i = 0; i < k; i++) {
+            sample[i] = poll();
+        }
+
+        double avg = (sample[k - 1].time - sample[0].time) / (k - 1);
+        double sum = 0.0;
+        int n = 0;
+        for (int i = 1; i < k; i++) {
+            double gap = sample[i].time - sample[i - 1].time;
+            if (gap <= 2.0 * avg) {
+                sum += gap;
+                n++;
+            }
+        }
+
+        for (Event e : sample) {
+            insert(e);
+            size++;
+        }
+
+        double estimate = n > 0 ? 3.0 * sum / n : 0.0;
+        return estimate > 0.0 ? estimate : width;
+    }
+}
@@ -0,0 +1,84 @@
+package ER;
+
+/**
+ * CapacityPlan is an estimate, made before a run starts, of how large the
+ * engine's internal structures will need to be.
+ *
+ * <p>The number of arrivals over the horizon is Poisson with mean
+ * {@code λT} (the integral of the arrival rate, including any hourly or
+ * daily profile). The plan uses the normal approximation of its upper tail,
+ * {@code λT + z·√(λT)}, as the bound on:
+ * <ul>
+ *   <li>Patients held at once in the {@link PatientTable}</li>
+ *   <li>Patients of one severity waiting in one {@link EDQueue}, using
+ *       the severity's share of the arrival rate</li>
+ *   <li>Retained wait and service samples, and steady-state groups</li>
+ * </ul>
+ * These are the only bounds that follow from the configuration alone: a
+ * stable system holds far fewer patients at once, so presizing trades
+ * memory for a footprint that does not change during the run. With
+ * {@code z = 4} the bound is exceeded in fewer than one run in 30,000.
+ */
+public final class CapacityPlan {
+
+    /** Default number of standard deviations above the expected arrivals */
+    public static final double DEFAULT_Z = 4.0;
+
+    /** Largest array length requested from the JVM */
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    /** Expected number of arrivals over the horizon */
+    private final double expectedArrivals;
+
+    /** Upper bound on arrivals over the horizon */
+    private final int arrivals;
+
+    /** Upper bound on arrivals of one severity level */
+    private final int arrivalsPerSeverity;
+
+    private CapacityPlan(double expectedArrivals, int arrivals, int arrivalsPerSeverity) {
+        this.expectedArrivals = expectedArrivals;
+        this.arrivals = arrivals;
+        this.arrivalsPerSeverity = arrivalsPerSeverity;
+    }
+
+    /**
+     * Builds a plan from the expected number of arrivals.
+     *
+     * @param expectedArrivals expected arrivals over the horizon ({@code λT})
+     * @param z                standard deviations of safety margin
+     * @return the plan
+     */
+    public static CapacityPlan estimate(double expectedArrivals, double z) {
+        double perSeverity = expectedArrivals / Patient.SEVERITY_LEVELS;
+        return new CapacityPlan(
+                expectedArrivals,
+                bound(expectedArrivals, z),
+                bound(perSeverity, z)
+        );
+    }
+
+    /**
+     * Returns the Poisson upper bound {@code mean + z·√mean}, rounded up
+     * and limited to the largest array length.
+     */
+    private static int bound(double mean, double z) {
+        double n = Math.ceil(mean + Math.max(0.0, z) * Math.sqrt(Math.max(0.0, mean)));
+        return (int) Math.max(1, Math.min(MAX_ARRAY, n));
+    }
+
+    /** @return expected number of arrivals over the horizon */
+    public double expectedArrivals() {
+        return expectedArrivals;
+    }
+
+    /** @return upper bound on arrivals over the horizon */
+    public int arrivals() {
+        return arrivals;
+    }
+
+    /** @return upper bound on arrivals of one severity level */
+    public int arrivalsPerSeverity() {
+        return arrivalsPerSeverity;
+    }
+}
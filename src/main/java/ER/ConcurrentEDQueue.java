@@ -0,0 +1,106 @@
+package ER;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * ConcurrentEDQueue is a lock-free {@link PatientQueue} for engines in
+ * which several threads add or remove waiting patients.
+ *
+ * <p>Ordering matches {@link EDQueue}: lower severity values first, FIFO
+ * within a level. Each severity level is a non-blocking
+ * {@link ConcurrentLinkedQueue}, and per-level sizes are kept in an atomic
+ * array. Under concurrent updates, {@link #poll()} returns a patient from
+ * the highest-priority level that was non-empty when scanned, and sizes are
+ * momentary snapshots. Handles are boxed as {@link Integer}s, since the
+ * lock-free queues hold objects; the single-threaded {@link EDQueue} keeps
+ * them unboxed.
+ */
+public class ConcurrentEDQueue implements PatientQueue {
+
+    /** FIFO queues, one per severity level (index = severity - 1) */
+    private final ConcurrentLinkedQueue<Integer>[] levels = newLevels(Patient.SEVERITY_LEVELS);
+
+    /** Number of waiting patients per severity level */
+    private final AtomicIntegerArray sizes = new AtomicIntegerArray(Patient.SEVERITY_LEVELS);
+
+    /**
+     * Creates an empty concurrent queue.
+     */
+    public ConcurrentEDQueue() {
+    }
+
+    /**
+     * Creates one empty queue per severity level. The array is allocated
+     * with a wildcard element type, since generic arrays cannot be created
+     * directly; every element is an {@code Integer} queue.
+     */
+    @SuppressWarnings("unchecked")
+    private static ConcurrentLinkedQueue<Integer>[] newLevels(int n) {
+        ConcurrentLinkedQueue<Integer>[] levels = (ConcurrentLinkedQueue<Integer>[]) new ConcurrentLinkedQueue<?>[n];
+        for (int i = 0; i < n; i++) {
+            levels[i] = new ConcurrentLinkedQueue<>();
+        }
+        return levels;
+    }
+
+    @Override
+    public void add(int patient, int severity) {
+        int level = severity - 1;
+        levels[level].add(patient);
+        sizes.incrementAndGet(level);
+    }
+
+    @Override
+    public int poll() {
+        for (int level = 0; level < levels.length; level++) {
+            Integer p = levels[level].poll();
+            if (p != null) {
+                sizes.decrementAndGet(level);
+                return p;
+            }
+        }
+        return PatientTable.NONE;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (ConcurrentLinkedQueue<Integer> level : levels) {
+            if (!level.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        int total = 0;
+        for (int level = 0; level < levels.length; level++) {
+            total += sizes.get(level);
+        }
+        return total;
+    }
+
+    @Override
+    public int size(int severity) {
+        return sizes.get(severity - 1);
+    }
+
+    @Override
+    public int[] toArray() {
+        return Arrays.stream(levels)
+                .flatMap(ConcurrentLinkedQueue::stream)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        for (ConcurrentLinkedQueue<Integer> level : levels) {
+            level.forEach(action::accept);
+        }
+    }
+}
@@ -18,7 +18,7 @@ import java.util.Properties;
  * <p>If a configuration file is not found or cannot be read, the simulation
  * safely falls back to default values.
  */
-public class Config {
+public class Config implements Cloneable {
 
     /** Patient arrival rate (patients per hour) */
     public double arrivalRatePerHour = 20.0;
@@ -26,6 +26,19 @@ public class Config {
     /** Mean service time per patient (minutes) */
     public double serviceMeanMinutes = 15.0;
 
+    /** Doctor service-time distribution (null = exponential with {@link #serviceMeanMinutes}) */
+    public Distribution serviceDistribution = null;
+
+    /** Per-severity overrides of {@link #serviceDistribution} (index = severity - 1) */
+    public Distribution[] serviceDistributionBySeverity = new Distribution[Patient.SEVERITY_LEVELS];
+
+    /**
+     * Service mean the configured distributions were loaded with. A scenario
+     * that changes {@link #serviceMeanMinutes} rescales every configured
+     * service distribution by the ratio of the two.
+     */
+    public double serviceDistributionMean = 15.0;
+
     /** Number of doctors available in the ER */
     public int numDoctors = 3;
 
@@ -35,12 +48,123 @@ public class Config {
     /** Random seed for reproducibility */
     public long randomSeed = 42L;
 
+    /** Replication index selecting independent random number substreams (0-based) */
+    public int replication = 0;
+
     /** Output directory for simulation results */
     public String outputDir = "runs";
 
+    /** Whether each run writes summary.csv and timeseries.csv to its output directory */
+    public boolean outputFiles = true;
+
     /** Time interval for recording time-series statistics (minutes) */
     public double timeseriesIntervalMinutes = 5.0;
 
+    /** Worker threads used for batch runs (0 = available processors) */
+    public int batchWorkers = 0;
+
+    /** Whether batch workers run on virtual threads instead of platform threads */
+    public boolean batchVirtualThreads = false;
+
+    /** Amount of console and trace output produced by each run */
+    public TraceLevel traceLevel = TraceLevel.OFF;
+
+    /** Trace sink used at {@link TraceLevel#EVENTS} (none, console, file, binary) */
+    public String traceSink = "file";
+
+    /** Whether every wait and service time is retained in addition to streaming stats */
+    public boolean statsKeepSamples = false;
+
+    /** Future event list implementation (heap or calendar) */
+    public String eventList = "calendar";
+
+    /** Whether the waiting queue uses the lock-free concurrent variant */
+    public boolean queueConcurrent = false;
+
+    /** Policy used to choose among idle doctors */
+    public AssignmentPolicy doctorPolicy = AssignmentPolicy.FIRST_FREE;
+
+    /** Hour-of-day arrival rate multipliers (24 values, null = flat) */
+    public double[] arrivalHourlyProfile = null;
+
+    /** Day-of-week arrival rate multipliers (7 values, null = flat) */
+    public double[] arrivalDailyProfile = null;
+
+    /** Arrivals pregenerated per batch */
+    public int arrivalBatchSize = ArrivalGenerator.DEFAULT_BATCH_SIZE;
+
+    /** Warm-up truncation mode */
+    public WarmupMode warmupMode = WarmupMode.NONE;
+
+    /** Warm-up period for {@link WarmupMode#FIXED} (minutes) */
+    public double warmupMinutes = 0.0;
+
+    /** Number of batch means for the single-run steady-state interval (0 = off) */
+    public int batchMeansCount = 0;
+
+    /** Minimum replications per scenario before precision is checked */
+    public int replicationMin = 1;
+
+    /** Maximum replications per scenario (1 = single run) */
+    public int replicationMax = 1;
+
+    /** Target relative CI half-width of the replication metric */
+    public double replicationPrecision = 0.05;
+
+    /** Two-sided confidence level for replication intervals */
+    public double replicationConfidence = 0.95;
+
+    /** Summary key whose precision controls early stopping */
+    public String replicationMetric = "avg_wait";
+
+    /** Multi-stage patient pathway (null = single doctor visit per patient) */
+    public Pathway pathway = null;
+
+    /** Simulated minutes between engine checkpoints (0 = no checkpoints) */
+    public double checkpointIntervalMinutes = 0.0;
+
+    /** Checkpoint file, relative to the run's output directory (empty = {@code checkpoint.bin}) */
+    public String checkpointFile = "";
+
+    /** Whether a run resumes from its checkpoint file when one exists */
+    public boolean checkpointResume = false;
+
+    /** Whether per-patient records and the sweep results index are written */
+    public boolean resultsColumnar = false;
+
+    /** Maximum rows per block of the per-patient column file */
+    public int resultsBlockRows = PatientColumnWriter.DEFAULT_BLOCK_ROWS;
+
+    /** Per-patient event log format (none, csv, binary) */
+    public String eventLog = "none";
+
+    /** Records per event log batch handed to the writer thread */
+    public int eventLogBatchSize = 4096;
+
+    /** Event log batches available before the overflow policy applies */
+    public int eventLogBatches = 4;
+
+    /** What the event log does when its writer falls behind (GROW is unbounded) */
+    public OverflowPolicy eventLogOverflow = OverflowPolicy.DROP;
+
+    /** Sweep definition run by {@link Main} instead of its built-in scenarios (empty = none) */
+    public String sweepFile = "";
+
+    /** Hospital network run by {@link Main} instead of its built-in scenarios (empty = none) */
+    public String networkFile = "";
+
+    /** What-if plan run by {@link Main} instead of its built-in scenarios (empty = none) */
+    public String whatIfFile = "";
+
+    /** Whether internal structures are presized from the expected arrivals ({@link CapacityPlan}) */
+    public boolean capacityPresize = false;
+
+    /** Safety margin of the presized capacity, in standard deviations of the arrival count */
+    public double capacityZ = CapacityPlan.DEFAULT_Z;
+
+    /** Whether structures enlarged during a run are reported */
+    public boolean capacityStrict = false;
+
     /**
      * Loads simulation parameters from a properties file.
      *
@@ -51,11 +175,42 @@ public class Config {
      * <ul>
      *   <li>{@code arrival.rate.per.hour}</li>
      *   <li>{@code service.mean.minutes}</li>
+     *   <li>{@code service.distribution} and {@code service.distribution.sev1}..{@code sev5}
+     *       (see {@link Distribution#parse(String)}); {@code service.mean.minutes}
+     *       then becomes the mean of {@code service.distribution}</li>
      *   <li>{@code num.doctors}</li>
      *   <li>{@code sim.hours}</li>
      *   <li>{@code random.seed}</li>
+     *   <li>{@code random.replication}</li>
      *   <li>{@code output.dir}</li>
+     *   <li>{@code output.files}</li>
      *   <li>{@code timeseries.interval.minutes}</li>
+     *   <li>{@code batch.workers}</li>
+     *   <li>{@code batch.virtual.threads}</li>
+     *   <li>{@code trace.level}</li>
+     *   <li>{@code trace.sink}</li>
+     *   <li>{@code stats.keep.samples}</li>
+     *   <li>{@code event.list}</li>
+     *   <li>{@code queue.concurrent}</li>
+     *   <li>{@code doctor.policy}</li>
+     *   <li>{@code arrival.profile.hourly} (24 comma-separated multipliers)</li>
+     *   <li>{@code arrival.profile.daily} (7 comma-separated multipliers)</li>
+     *   <li>{@code arrival.batch.size}</li>
+     *   <li>{@code warmup.mode} (none, fixed, mser5), {@code warmup.minutes}</li>
+     *   <li>{@code batch.means.count}</li>
+     *   <li>{@code replication.min}, {@code replication.max}</li>
+     *   <li>{@code replication.precision}, {@code replication.confidence}</li>
+     *   <li>{@code replication.metric}</li>
+     *   <li>{@code pathway.file} (path to a {@link Pathway} definition)</li>
+     *   <li>{@code checkpoint.interval.minutes}, {@code checkpoint.file}</li>
+     *   <li>{@code checkpoint.resume}</li>
+     *   <li>{@code results.columnar}, {@code results.block.rows}</li>
+     *   <li>{@code event.log} (none, csv, binary), {@code event.log.batch.size}</li>
+     *   <li>{@code event.log.batches}, {@code event.log.overflow} (drop, grow; default drop)</li>
+     *   <li>{@code sweep.file} (path to a {@link SweepDesign} definition)</li>
+     *   <li>{@code network.file} (path to a {@link HospitalNetwork} definition)</li>
+     *   <li>{@code whatif.file} (path to a {@link WhatIfPlan} definition)</li>
+     *   <li>{@code capacity.presize}, {@code capacity.z}, {@code capacity.strict}</li>
      * </ul>
      *
      * @param path path to the {@code config.properties} file
@@ -93,6 +248,29 @@ public class Config {
                     )
             );
 
+            String serviceSpec = p.getProperty("service.distribution", "").trim();
+            if (!serviceSpec.isEmpty()) {
+                c.serviceDistribution = Distribution.parse(serviceSpec);
+
+                // The distribution defines the mean that scenarios later vary
+                double mean = c.serviceDistribution.mean();
+                if (p.getProperty("service.mean.minutes") != null
+                        && Math.abs(mean - c.serviceMeanMinutes) > 1e-9 * mean) {
+                    System.err.println(
+                            "Warning: service.mean.minutes=" + c.serviceMeanMinutes
+                                    + " replaced by the mean of service.distribution (" + mean + ")"
+                    );
+                }
+                c.serviceMeanMinutes = mean;
+            }
+            for (int sev = 1; sev <= Patient.SEVERITY_LEVELS; sev++) {
+                String spec = p.getProperty("service.distribution.sev" + sev, "").trim();
+                if (!spec.isEmpty()) {
+                    c.serviceDistributionBySeverity[sev - 1] = Distribution.parse(spec);
+                }
+            }
+            c.serviceDistributionMean = c.serviceMeanMinutes;
+
             c.numDoctors = Integer.parseInt(
                     p.getProperty(
                             "num.doctors",
@@ -114,8 +292,22 @@ public class Config {
                     )
             );
 
+            c.replication = Integer.parseInt(
+                    p.getProperty(
+                            "random.replication",
+                            Integer.toString(c.replication)
+                    )
+            );
+
             c.outputDir = p.getProperty("output.dir", c.outputDir);
 
+            c.outputFiles = Boolean.parseBoolean(
+                    p.getProperty(
+                            "output.files",
+                            Boolean.toString(c.outputFiles)
+                    )
+            );
+
             c.timeseriesIntervalMinutes = Double.parseDouble(
                     p.getProperty(
                             "timeseries.interval.minutes",
@@ -123,6 +315,203 @@ public class Config {
                     )
             );
 
+            c.batchWorkers = Integer.parseInt(
+                    p.getProperty(
+                            "batch.workers",
+                            Integer.toString(c.batchWorkers)
+                    )
+            );
+
+            c.batchVirtualThreads = Boolean.parseBoolean(
+                    p.getProperty(
+                            "batch.virtual.threads",
+                            Boolean.toString(c.batchVirtualThreads)
+                    )
+            );
+
+            c.traceLevel = TraceLevel.parse(
+                    p.getProperty(
+                            "trace.level",
+                            c.traceLevel.name()
+                    )
+            );
+
+            c.traceSink = p.getProperty("trace.sink", c.traceSink);
+
+            c.statsKeepSamples = Boolean.parseBoolean(
+                    p.getProperty(
+                            "stats.keep.samples",
+                            Boolean.toString(c.statsKeepSamples)
+                    )
+            );
+
+            c.eventList = p.getProperty("event.list", c.eventList);
+
+            c.queueConcurrent = Boolean.parseBoolean(
+                    p.getProperty(
+                            "queue.concurrent",
+                            Boolean.toString(c.queueConcurrent)
+                    )
+            );
+
+            c.doctorPolicy = AssignmentPolicy.parse(
+                    p.getProperty(
+                            "doctor.policy",
+                            c.doctorPolicy.name()
+                    )
+            );
+
+            c.arrivalHourlyProfile = ArrivalGenerator.parseProfile(
+                    p.getProperty("arrival.profile.hourly")
+            );
+
+            c.arrivalDailyProfile = ArrivalGenerator.parseProfile(
+                    p.getProperty("arrival.profile.daily")
+            );
+
+            c.arrivalBatchSize = Integer.parseInt(
+                    p.getProperty(
+                            "arrival.batch.size",
+                            Integer.toString(c.arrivalBatchSize)
+                    )
+            );
+
+            c.warmupMode = WarmupMode.parse(
+                    p.getProperty(
+                            "warmup.mode",
+                            c.warmupMode.name()
+                    )
+            );
+
+            c.warmupMinutes = Double.parseDouble(
+                    p.getProperty(
+                            "warmup.minutes",
+                            Double.toString(c.warmupMinutes)
+                    )
+            );
+
+            c.batchMeansCount = Integer.parseInt(
+                    p.getProperty(
+                            "batch.means.count",
+                            Integer.toString(c.batchMeansCount)
+                    )
+            );
+
+            c.replicationMin = Integer.parseInt(
+                    p.getProperty(
+                            "replication.min",
+                            Integer.toString(c.replicationMin)
+                    )
+            );
+
+            c.replicationMax = Integer.parseInt(
+                    p.getProperty(
+                            "replication.max",
+                            Integer.toString(c.replicationMax)
+                    )
+            );
+
+            c.replicationPrecision = Double.parseDouble(
+                    p.getProperty(
+                            "replication.precision",
+                            Double.toString(c.replicationPrecision)
+                    )
+            );
+
+            c.replicationConfidence = Double.parseDouble(
+                    p.getProperty(
+                            "replication.confidence",
+                            Double.toString(c.replicationConfidence)
+                    )
+            );
+
+            c.replicationMetric = p.getProperty("replication.metric", c.replicationMetric);
+
+            String pathwayFile = p.getProperty("pathway.file", "").trim();
+            if (!pathwayFile.isEmpty()) {
+                c.pathway = Pathway.load(pathwayFile);
+            }
+
+            c.checkpointIntervalMinutes = Double.parseDouble(
+                    p.getProperty(
+                            "checkpoint.interval.minutes",
+                            Double.toString(c.checkpointIntervalMinutes)
+                    )
+            );
+
+            c.checkpointFile = p.getProperty("checkpoint.file", c.checkpointFile).trim();
+
+            c.checkpointResume = Boolean.parseBoolean(
+                    p.getProperty(
+                            "checkpoint.resume",
+                            Boolean.toString(c.checkpointResume)
+                    )
+            );
+
+            c.resultsColumnar = Boolean.parseBoolean(
+                    p.getProperty(
+                            "results.columnar",
+                            Boolean.toString(c.resultsColumnar)
+                    )
+            );
+
+            c.resultsBlockRows = Integer.parseInt(
+                    p.getProperty(
+                            "results.block.rows",
+                            Integer.toString(c.resultsBlockRows)
+                    )
+            );
+
+            c.eventLog = p.getProperty("event.log", c.eventLog).trim();
+
+            c.eventLogBatchSize = Integer.parseInt(
+                    p.getProperty(
+                            "event.log.batch.size",
+                            Integer.toString(c.eventLogBatchSize)
+                    )
+            );
+
+            c.eventLogBatches = Integer.parseInt(
+                    p.getProperty(
+                            "event.log.batches",
+                            Integer.toString(c.eventLogBatches)
+                    )
+            );
+
+            c.eventLogOverflow = OverflowPolicy.parse(
+                    p.getProperty(
+                            "event.log.overflow",
+                            c.eventLogOverflow.name()
+                    )
+            );
+
+            c.sweepFile = p.getProperty("sweep.file", c.sweepFile).trim();
+
+            c.networkFile = p.getProperty("network.file", c.networkFile).trim();
+
+            c.whatIfFile = p.getProperty("whatif.file", c.whatIfFile).trim();
+
+            c.capacityPresize = Boolean.parseBoolean(
+                    p.getProperty(
+                            "capacity.presize",
+                            Boolean.toString(c.capacityPresize)
+                    )
+            );
+
+            c.capacityZ = Double.parseDouble(
+                    p.getProperty(
+                            "capacity.z",
+                            Double.toString(c.capacityZ)
+                    )
+            );
+
+            c.capacityStrict = Boolean.parseBoolean(
+                    p.getProperty(
+                            "capacity.strict",
+                            Boolean.toString(c.capacityStrict)
+                    )
+            );
+
         } catch (Exception ex) {
             // Fail gracefully and continue using default values
             System.err.println(
@@ -133,4 +522,20 @@ public class Config {
 
         return c;
     }
+
+    /**
+     * Returns a shallow copy of this configuration.
+     *
+     * <p>Distributions, profiles and pathways are immutable once loaded, so
+     * copies may share them.
+     *
+     * @return copy of this configuration
+     */
+    public Config copy() {
+        try {
+            return (Config) super.clone();
+        } catch (CloneNotSupportedException ex) {
+            throw new AssertionError(ex);
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package ER;
+
+/**
+ * ConsoleTraceSink prints human-readable trace lines to standard output.
+ *
+ * <p>The output format matches the original per-event console log and is
+ * intended for short debugging runs only.
+ */
+public class ConsoleTraceSink implements TraceSink {
+
+    @Override
+    public void arrival(double time, int patientId, int severity) {
+        System.out.println("Time " + time + ": Arrival of " + describe(patientId, severity));
+    }
+
+    @Override
+    public void serviceEnd(double time, int patientId, int severity, Doctor doctor) {
+        System.out.printf("Time %.3f: Service end %s by %s%n", time, describe(patientId, severity), doctor);
+    }
+
+    @Override
+    public void departure(double time, int patientId, int severity) {
+        System.out.printf("Time %.3f: Departure %s%n", time, describe(patientId, severity));
+    }
+
+    /**
+     * Formats a patient like {@link Patient#toString()}.
+     */
+    private static String describe(int patientId, int severity) {
+        return "Patient#" + patientId + " (sev=" + severity + ")";
+    }
+
+    @Override
+    public void close() {
+        System.out.flush();
+    }
+}
@@ -7,46 +7,50 @@ package ER;
  * <p>This event is responsible for:
  * <ul>
  *   <li>Recording patient departure statistics</li>
- *   <li>Logging the departure event for traceability</li>
+ *   <li>Adding the patient's record to the run's results</li>
+ *   <li>Tracing the departure event for traceability</li>
  * </ul>
  *
  * <p>Departure events mark the completion of a patient's lifecycle
- * within the simulation.
+ * within the simulation. The engine itself departs patients inline when
+ * their last service ends, so this event is only needed to depart a
+ * patient at a later time (and to restore such events from checkpoints).
  */
 public class DepartureEvent extends Event {
 
-    /** The patient who is leaving the system */
-    private final Patient patient;
+    /** Handle of the patient who is leaving the system */
+    private final int patient;
 
     /**
      * Constructs a DepartureEvent for the specified patient.
      *
      * @param time    the simulation time at which the patient departs
-     * @param patient the patient leaving the ER
+     * @param patient handle of the patient leaving the ER
      */
-    public DepartureEvent(double time, Patient patient) {
+    public DepartureEvent(double time, int patient) {
         super(time);
         this.patient = patient;
     }
 
+    /** @return handle of the departing patient */
+    public int getPatient() {
+        return patient;
+    }
+
     /**
      * Executes the departure event.
      *
-     * <p>Execution steps include:
+     * <p>Delegates to {@link SimulationEngine#depart(int, double)}, which:
      * <ol>
      *   <li>Record patient departure statistics</li>
-     *   <li>Output a log message indicating the departure</li>
+     *   <li>Store the patient's record, if records are enabled</li>
+     *   <li>Pass the departure to the engine's trace sink</li>
      * </ol>
      *
      * @param engine the simulation engine controlling event execution
      */
     @Override
     public void execute(SimulationEngine engine) {
-
-        // Record patient departure statistics
-        engine.stats.recordDeparture(patient, time);
-
-        // Log departure for debugging and traceability
-        System.out.printf("Time %.3f: Departure %s%n", time, patient);
+        engine.depart(patient, time);
     }
 }
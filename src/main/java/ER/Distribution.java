@@ -0,0 +1,136 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution is a continuous, non-negative random variate used for
+ * service durations (minutes).
+ *
+ * <p>Implementations precompute all derived parameters at construction so
+ * that {@link #sample(RandomGenerator)} is allocation-free and performs only
+ * a few arithmetic operations per call.
+ *
+ * <p>Distributions are immutable and may be shared between concurrently
+ * running engines; randomness comes from the caller's stream.
+ */
+public interface Distribution {
+
+    /**
+     * Draws one value.
+     *
+     * @param rng random number stream
+     * @return sampled value
+     */
+    double sample(RandomGenerator rng);
+
+    /**
+     * Returns the theoretical mean.
+     *
+     * @return mean value
+     */
+    double mean();
+
+    /**
+     * Returns this distribution stretched by a constant factor, keeping
+     * its shape.
+     *
+     * @param factor factor applied to every sample (must be positive)
+     * @return this distribution if {@code factor} is 1, otherwise a
+     *         {@link ScaledDistribution}
+     */
+    default Distribution scaledBy(double factor) {
+        return factor == 1.0 ? this : new ScaledDistribution(this, factor);
+    }
+
+    /**
+     * Returns a hash identifying this distribution, used to check that a
+     * checkpoint is resumed with the same service times.
+     *
+     * <p>Distributions keep no common parameter list, so the hash combines
+     * the mean with the first values drawn from a fixed-seed stream; equal
+     * distributions always agree, and different ones practically never do.
+     *
+     * @return distribution fingerprint
+     */
+    default long fingerprint() {
+        RandomGenerator rng = new L64X128Random(0x5EEDF00DL);
+        long h = Double.doubleToLongBits(mean());
+        for (int i = 0; i < 8; i++) {
+            h = L64X128Random.mixLea64(h ^ Double.doubleToLongBits(sample(rng)));
+        }
+        return h;
+    }
+
+    /**
+     * Parses a distribution specification.
+     *
+     * <p>Supported forms (values in minutes):
+     * <ul>
+     *   <li>{@code exponential(mean)}</li>
+     *   <li>{@code lognormal(mean, stddev)}</li>
+     *   <li>{@code gamma(shape, scale)}</li>
+     *   <li>{@code weibull(shape, scale)}</li>
+     *   <li>{@code triangular(min, mode, max)}</li>
+     *   <li>{@code empirical(x1, x2, ...)} — observed values, sampled through
+     *       a precomputed inverse-CDF lookup table</li>
+     *   <li>{@code discrete(x1:w1, x2:w2, ...)} — weighted values, sampled
+     *       through an alias table</li>
+     * </ul>
+     *
+     * @param spec distribution specification
+     * @return parsed distribution
+     * @throws IllegalArgumentException if the specification is invalid
+     */
+    static Distribution parse(String spec) {
+        String s = spec.trim();
+        int open = s.indexOf('(');
+        if (open < 0 || !s.endsWith(")")) {
+            throw new IllegalArgumentException("Invalid distribution: " + spec);
+        }
+        String name = s.substring(0, open).trim().toLowerCase();
+        String[] args = s.substring(open + 1, s.length() - 1).split(",");
+
+        switch (name) {
+            case "exponential":
+            case "exp":
+                return new ExponentialDistribution(arg(args, 0));
+            case "lognormal":
+                return new LognormalDistribution(arg(args, 0), arg(args, 1));
+            case "gamma":
+                return new GammaDistribution(arg(args, 0), arg(args, 1));
+            case "weibull":
+                return new WeibullDistribution(arg(args, 0), arg(args, 1));
+            case "triangular":
+                return new TriangularDistribution(arg(args, 0), arg(args, 1), arg(args, 2));
+            case "empirical": {
+                double[] values = new double[args.length];
+                for (int i = 0; i < args.length; i++) {
+                    values[i] = arg(args, i);
+                }
+                return new EmpiricalDistribution(values);
+            }
+            case "discrete": {
+                double[] values = new double[args.length];
+                double[] weights = new double[args.length];
+                for (int i = 0; i < args.length; i++) {
+                    String[] vw = args[i].split(":");
+                    values[i] = Double.parseDouble(vw[0].trim());
+                    weights[i] = vw.length > 1 ? Double.parseDouble(vw[1].trim()) : 1.0;
+                }
+                return new AliasDistribution(values, weights);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + name);
+        }
+    }
+
+    /**
+     * Returns a numeric argument of a specification.
+     */
+    private static double arg(String[] args, int i) {
+        if (i >= args.length || args[i].isBlank()) {
+            throw new IllegalArgumentException("Missing distribution parameter " + (i + 1));
+        }
+        return Double.parseDouble(args[i].trim());
+    }
+}
@@ -1,5 +1,9 @@
 package ER;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Doctor represents a medical resource in the Emergency Room simulation.
  *
@@ -18,6 +22,9 @@ public class Doctor {
     /** Unique identifier for the doctor */
     private final String id;
 
+    /** Zero-based position of the doctor in the engine's doctor array */
+    private final int index;
+
     /** Indicates whether the doctor is currently serving a patient */
     private boolean busy = false;
 
@@ -27,13 +34,18 @@ public class Doctor {
     /** Accumulated busy time across the simulation */
     private double busyAccum = 0.0;
 
+    /** Idle-doctor pool notified of busy/idle transitions (may be null) */
+    private DoctorPool pool;
+
     /**
      * Constructs a Doctor with the given identifier.
      *
-     * @param id unique identifier for the doctor (e.g., \"D1\", \"D2\")
+     * @param id    unique identifier for the doctor (e.g., \"D1\", \"D2\")
+     * @param index zero-based position in the engine's doctor array
      */
-    public Doctor(String id) {
+    public Doctor(String id, int index) {
         this.id = id;
+        this.index = index;
     }
 
     /**
@@ -49,7 +61,8 @@ public class Doctor {
      * Updates the busy/idle state of the doctor.
      *
      * <p>This method correctly tracks busy start and end times in order to
-     * accumulate total busy duration for utilization analysis.
+     * accumulate total busy duration for utilization analysis, and keeps the
+     * attached {@link DoctorPool} up to date.
      *
      * @param b   new busy state
      * @param now current simulation time
@@ -69,7 +82,16 @@ public class Doctor {
             busyStart = -1;
         }
 
+        boolean changed = busy != b;
         this.busy = b;
+
+        if (changed && pool != null) {
+            if (b) {
+                pool.markBusy(index);
+            } else {
+                pool.markIdle(index);
+            }
+        }
     }
 
     /**
@@ -81,11 +103,53 @@ public class Doctor {
      * @param now current simulation time
      */
     public void forceIdle(double now) {
-        if (busy && busyStart >= 0) {
-            busyAccum += (now - busyStart);
-        }
+        setBusy(false, now);
+    }
+
+    /**
+     * Returns the doctor to its initial idle state with no accumulated
+     * busy time, as at the start of a new run.
+     */
+    public void reset() {
         busy = false;
         busyStart = -1;
+        busyAccum = 0.0;
+    }
+
+    /**
+     * Writes the doctor's busy state and accumulated busy time.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeBoolean(busy);
+        out.writeDouble(busyStart);
+        out.writeDouble(busyAccum);
+    }
+
+    /**
+     * Restores a state written by {@link #writeTo(DataOutput)}.
+     *
+     * <p>The idle-doctor pool is not notified; it must be rebuilt with
+     * {@link DoctorPool#reset()} once all doctors are restored.
+     *
+     * @param in source
+     * @throws IOException if reading fails
+     */
+    public void readFrom(DataInput in) throws IOException {
+        busy = in.readBoolean();
+        busyStart = in.readDouble();
+        busyAccum = in.readDouble();
+    }
+
+    /**
+     * Attaches the idle-doctor pool to notify on state transitions.
+     *
+     * @param pool pool that tracks this doctor
+     */
+    void attach(DoctorPool pool) {
+        this.pool = pool;
     }
 
     /**
@@ -97,6 +161,17 @@ public class Doctor {
         return busyAccum;
     }
 
+    /**
+     * Returns the busy time accumulated up to a given time, including any
+     * service still in progress.
+     *
+     * @param now current simulation time
+     * @return busy time up to {@code now}
+     */
+    public double getBusyTime(double now) {
+        return busy && busyStart >= 0 ? busyAccum + (now - busyStart) : busyAccum;
+    }
+
     /**
      * Returns the doctor's identifier.
      *
@@ -106,6 +181,15 @@ public class Doctor {
         return id;
     }
 
+    /**
+     * Returns the doctor's position in the engine's doctor array.
+     *
+     * @return zero-based doctor index
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Returns a human-readable string representation of the doctor.
      *
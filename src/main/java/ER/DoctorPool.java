@@ -0,0 +1,274 @@
+package ER;
+
+import java.util.Arrays;
+
+/**
+ * DoctorPool tracks which doctors are idle so that a free doctor can be
+ * found without scanning every doctor.
+ *
+ * <p>Doctors notify their pool on every busy/idle transition through
+ * {@link Doctor#setBusy(boolean, double)}, so the pool is always current.
+ * Idle doctors are kept in:
+ * <ul>
+ *   <li>A bitset, for {@link AssignmentPolicy#FIRST_FREE} and
+ *       {@link AssignmentPolicy#ROUND_ROBIN} (one 64-doctor word per step)</li>
+ *   <li>An indexed min-heap keyed by accumulated busy time, for
+ *       {@link AssignmentPolicy#LEAST_UTILIZED} (O(log n) updates, O(1) lookup)</li>
+ * </ul>
+ *
+ * <p>A doctor's accumulated busy time only changes when it becomes idle,
+ * so heap keys never change while a doctor is in the heap.
+ */
+public class DoctorPool {
+
+    /** Doctors managed by this pool, indexed by {@link Doctor#getIndex()} */
+    private final Doctor[] doctors;
+
+    /** Policy used to choose among idle doctors */
+    private final AssignmentPolicy policy;
+
+    /** Idle bitset: bit {@code i} is set when doctor {@code i} is idle */
+    private final long[] idle;
+
+    /** Number of idle doctors */
+    private int idleCount;
+
+    /** Lowest bitset word that may contain an idle doctor */
+    private int firstWord;
+
+    /** Round-robin position: index after the last assigned doctor */
+    private int cursor;
+
+    /** Min-heap of idle doctor indices (least-utilized policy only) */
+    private final int[] heap;
+
+    /** Heap position of each doctor, or -1 if not in the heap */
+    private final int[] heapPos;
+
+    /** Number of doctors in the heap */
+    private int heapSize;
+
+    /**
+     * Creates a pool over the given doctors and attaches itself to each.
+     *
+     * @param doctors doctors, where {@code doctors[i].getIndex() == i}
+     * @param policy  assignment policy
+     */
+    public DoctorPool(Doctor[] doctors, AssignmentPolicy policy) {
+        this.doctors = doctors;
+        this.policy = policy;
+        this.idle = new long[(doctors.length + 63) >>> 6];
+
+        boolean useHeap = policy == AssignmentPolicy.LEAST_UTILIZED;
+        this.heap = useHeap ? new int[doctors.length] : null;
+        this.heapPos = useHeap ? new int[doctors.length] : null;
+
+        for (Doctor d : doctors) {
+            d.attach(this);
+        }
+        reset();
+    }
+
+    /**
+     * Rebuilds the pool from the doctors' current busy states.
+     */
+    public void reset() {
+        Arrays.fill(idle, 0L);
+        idleCount = 0;
+        firstWord = 0;
+        cursor = 0;
+        heapSize = 0;
+        if (heapPos != null) {
+            Arrays.fill(heapPos, -1);
+        }
+        for (Doctor d : doctors) {
+            if (!d.isBusy()) {
+                markIdle(d.getIndex());
+            }
+        }
+    }
+
+    /**
+     * Returns the idle doctor the policy would assign next, without
+     * claiming it. The doctor leaves the pool when it is set busy.
+     *
+     * @return an idle doctor, or {@code null} if all are busy
+     */
+    public Doctor peekIdle() {
+        if (idleCount == 0) {
+            return null;
+        }
+        switch (policy) {
+            case LEAST_UTILIZED:
+                return doctors[heap[0]];
+            case ROUND_ROBIN: {
+                int i = nextIdle(cursor);
+                return doctors[i >= 0 ? i : nextIdle(0)];
+            }
+            default:
+                return doctors[nextIdle(0)];
+        }
+    }
+
+    /** @return index where the round-robin search for the next idle doctor starts */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Restores the round-robin cursor (used when resuming a checkpoint after
+     * {@link #reset()} has rebuilt the idle set).
+     *
+     * @param cursor index where the next round-robin search starts
+     */
+    public void setCursor(int cursor) {
+        this.cursor = cursor;
+    }
+
+    /** @return number of idle doctors */
+    public int idleCount() {
+        return idleCount;
+    }
+
+    /** @return number of busy doctors */
+    public int busyCount() {
+        return doctors.length - idleCount;
+    }
+
+    /**
+     * Removes a doctor from the idle set (called by {@link Doctor}).
+     *
+     * @param i doctor index
+     */
+    void markBusy(int i) {
+        long bit = 1L << i;
+        int w = i >>> 6;
+        if ((idle[w] & bit) == 0) {
+            return;
+        }
+        idle[w] &= ~bit;
+        idleCount--;
+        cursor = (i + 1 == doctors.length) ? 0 : i + 1;
+
+        if (heap != null) {
+            heapRemove(i);
+        }
+    }
+
+    /**
+     * Adds a doctor to the idle set (called by {@link Doctor}).
+     *
+     * @param i doctor index
+     */
+    void markIdle(int i) {
+        long bit = 1L << i;
+        int w = i >>> 6;
+        if ((idle[w] & bit) != 0) {
+            return;
+        }
+        idle[w] |= bit;
+        idleCount++;
+        if (w < firstWord) {
+            firstWord = w;
+        }
+
+        if (heap != null) {
+            heapAdd(i);
+        }
+    }
+
+    /**
+     * Returns the lowest idle doctor index at or after {@code from}, or -1.
+     */
+    private int nextIdle(int from) {
+        int w = from >>> 6;
+        if (from == 0) {
+            // Skip words known to be empty
+            while (firstWord < idle.length && idle[firstWord] == 0) {
+                firstWord++;
+            }
+            w = firstWord;
+            if (w >= idle.length) {
+                return -1;
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(idle[w]);
+        }
+        if (w >= idle.length) {
+            return -1;
+        }
+
+        long bits = idle[w] & (-1L << from);
+        while (bits == 0) {
+            if (++w >= idle.length) {
+                return -1;
+            }
+            bits = idle[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Returns {@code true} if doctor {@code a} is preferred over {@code b}
+     * under the least-utilized policy.
+     */
+    private boolean less(int a, int b) {
+        double ua = doctors[a].getBusyAccum();
+        double ub = doctors[b].getBusyAccum();
+        return ua < ub || (ua == ub && a < b);
+    }
+
+    private void heapAdd(int i) {
+        heap[heapSize] = i;
+        heapPos[i] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private void heapRemove(int i) {
+        int pos = heapPos[i];
+        heapPos[i] = -1;
+        int last = heap[--heapSize];
+        if (pos == heapSize) {
+            return;
+        }
+        heap[pos] = last;
+        heapPos[last] = pos;
+        siftDown(pos);
+        siftUp(heapPos[last]);
+    }
+
+    private void siftUp(int pos) {
+        int x = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(x, heap[parent])) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            heapPos[heap[pos]] = pos;
+            pos = parent;
+        }
+        heap[pos] = x;
+        heapPos[x] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int x = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], x)) {
+                break;
+            }
+            heap[pos] = heap[child];
+            heapPos[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = x;
+        heapPos[x] = pos;
+    }
+}
@@ -1,8 +1,6 @@
 package ER;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
 
 /**
  * EDQueue represents the waiting queue for patients in the Emergency Room.
@@ -13,39 +11,66 @@ import java.util.concurrent.atomic.AtomicLong;
  *   <li>Arrival order (FIFO among patients with equal severity)</li>
  * </ol>
  *
- * <p>This implementation ensures deterministic ordering using a sequence
- * number and is thread-safe to support safe event execution.
+ * <p>Because there are only {@link Patient#SEVERITY_LEVELS} priority levels,
+ * the queue keeps one FIFO ring buffer per level instead of a sorted heap:
+ * <ul>
+ *   <li>{@link #add(int, int)} and {@link #poll()} are O(1)</li>
+ *   <li>No wrapper object or sequence number is allocated per patient</li>
+ *   <li>Patients are held as {@link PatientTable} handles in {@code int}
+ *       rings, so the queue holds no object references</li>
+ *   <li>The size of each level is available in constant time</li>
+ * </ul>
+ *
+ * <p>This implementation of {@link PatientQueue} is not thread-safe; the
+ * engine accesses it from a single thread. Use {@link ConcurrentEDQueue}
+ * when several threads share a queue.
  */
-public class EDQueue {
+public class EDQueue implements PatientQueue {
 
-    /**
-     * Internal queue entry wrapper used to preserve FIFO ordering
-     * among patients with equal severity.
-     */
-    private static class QEntry {
+    /** Default initial ring capacity per severity level */
+    private static final int DEFAULT_CAPACITY = 16;
 
-        /** Patient in the queue */
-        final Patient p;
+    /** Ring buffers of patient handles, one per severity level (index = severity - 1) */
+    private final int[][] rings = new int[Patient.SEVERITY_LEVELS][];
 
-        /** Sequence number assigned at arrival */
-        final long seq;
+    /** Index of the oldest patient in each ring */
+    private final int[] heads = new int[Patient.SEVERITY_LEVELS];
 
-        QEntry(Patient p, long seq) {
-            this.p = p;
-            this.seq = seq;
-        }
+    /** Number of waiting patients per severity level */
+    private final int[] sizes = new int[Patient.SEVERITY_LEVELS];
+
+    /** Total number of waiting patients */
+    private int total = 0;
+
+    /** Number of times a ring had to be enlarged */
+    private int growths = 0;
+
+    /**
+     * Creates an empty queue with the default capacity per level.
+     */
+    public EDQueue() {
+        this(DEFAULT_CAPACITY);
     }
 
-    /** Sequence counter used to enforce FIFO ordering */
-    private final AtomicLong seq = new AtomicLong(0);
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacityPerLevel initial ring capacity for each severity level
+     *                         (rounded up to a power of two)
+     */
+    public EDQueue(int capacityPerLevel) {
+        int capacity = ringCapacity(capacityPerLevel);
+        for (int i = 0; i < rings.length; i++) {
+            rings[i] = new int[capacity];
+        }
+    }
 
     /**
-     * Priority queue ordering patients by severity first, then arrival order.
+     * Rounds a requested capacity up to a power of two of at least 2.
      */
-    private final PriorityQueue<QEntry> pq = new PriorityQueue<>(
-            Comparator.<QEntry>comparingInt(e -> e.p.getSeverity())
-                    .thenComparingLong(e -> e.seq)
-    );
+    private static int ringCapacity(int requested) {
+        return requested >= (1 << 30) ? 1 << 30 : Integer.highestOneBit(Math.max(2, requested) - 1) << 1;
+    }
 
     /**
      * Adds a patient to the waiting queue.
@@ -53,20 +78,48 @@ public class EDQueue {
      * <p>Patients with higher severity are prioritized, while patients
      * with equal severity are served in FIFO order.
      *
-     * @param p patient to add to the queue
+     * @param patient  handle of the patient to add
+     * @param severity severity of the patient (1–5)
      */
-    public synchronized void add(Patient p) {
-        pq.add(new QEntry(p, seq.getAndIncrement()));
+    @Override
+    public void add(int patient, int severity) {
+        int level = severity - 1;
+        int[] ring = rings[level];
+
+        if (sizes[level] == ring.length) {
+            ring = grow(level);
+        }
+
+        ring[(heads[level] + sizes[level]) & (ring.length - 1)] = patient;
+        sizes[level]++;
+        total++;
     }
 
     /**
      * Removes and returns the next patient from the queue.
      *
-     * @return the next patient, or {@code null} if the queue is empty
+     * @return handle of the next patient, or {@link PatientTable#NONE} if
+     *         the queue is empty
      */
-    public synchronized Patient poll() {
-        QEntry e = pq.poll();
-        return e == null ? null : e.p;
+    @Override
+    public int poll() {
+        if (total == 0) {
+            return PatientTable.NONE;
+        }
+
+        for (int level = 0; level < rings.length; level++) {
+            if (sizes[level] > 0) {
+                int[] ring = rings[level];
+                int head = heads[level];
+
+                int p = ring[head];
+                heads[level] = (head + 1) & (ring.length - 1);
+                sizes[level]--;
+                total--;
+                return p;
+            }
+        }
+        return PatientTable.NONE;
     }
 
     /**
@@ -74,8 +127,9 @@ public class EDQueue {
      *
      * @return {@code true} if no patients are waiting
      */
-    public synchronized boolean isEmpty() {
-        return pq.isEmpty();
+    @Override
+    public boolean isEmpty() {
+        return total == 0;
     }
 
     /**
@@ -83,7 +137,82 @@ public class EDQueue {
      *
      * @return queue size
      */
-    public synchronized int size() {
-        return pq.size();
+    @Override
+    public int size() {
+        return total;
+    }
+
+    /**
+     * Returns the number of waiting patients with a given severity.
+     *
+     * @param severity severity level (1–5)
+     * @return queue size for that severity
+     */
+    @Override
+    public int size(int severity) {
+        return sizes[severity - 1];
+    }
+
+    /**
+     * Visits waiting patients in service order (severity, then FIFO)
+     * without removing them.
+     *
+     * @param action action applied to each patient handle
+     */
+    @Override
+    public void forEach(IntConsumer action) {
+        for (int level = 0; level < rings.length; level++) {
+            int[] ring = rings[level];
+            for (int i = 0; i < sizes[level]; i++) {
+                action.accept(ring[(heads[level] + i) & (ring.length - 1)]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of times a ring has been enlarged because more
+     * patients of one severity were waiting than its capacity allowed.
+     *
+     * @return ring growth count
+     */
+    @Override
+    public int growths() {
+        return growths;
+    }
+
+    /**
+     * Copies the waiting patient handles in service order.
+     *
+     * @return handles of all waiting patients
+     */
+    @Override
+    public int[] toArray() {
+        int[] out = new int[total];
+        int n = 0;
+        for (int level = 0; level < rings.length; level++) {
+            int[] ring = rings[level];
+            for (int i = 0; i < sizes[level]; i++) {
+                out[n++] = ring[(heads[level] + i) & (ring.length - 1)];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Doubles the ring for a severity level, unwrapping it so the oldest
+     * patient moves to index 0.
+     */
+    private int[] grow(int level) {
+        int[] old = rings[level];
+        int head = heads[level];
+
+        int[] ring = new int[old.length << 1];
+        System.arraycopy(old, head, ring, 0, old.length - head);
+        System.arraycopy(old, 0, ring, old.length - head, head);
+
+        rings[level] = ring;
+        heads[level] = 0;
+        growths++;
+        return ring;
     }
 }
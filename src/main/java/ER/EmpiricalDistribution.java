@@ -0,0 +1,62 @@
+package ER;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Empirical distribution built from observed values.
+ *
+ * <p>The piecewise-linear empirical CDF through the sorted observations is
+ * inverted once into a lookup table of {@link #TABLE_SIZE} equally spaced
+ * quantiles. Sampling is then a table lookup plus a linear interpolation,
+ * independent of the number of observations.
+ */
+public class EmpiricalDistribution implements Distribution {
+
+    /** Number of intervals in the inverse-CDF lookup table */
+    public static final int TABLE_SIZE = 1024;
+
+    /** Quantiles at {@code i / TABLE_SIZE}, {@code i = 0..TABLE_SIZE} */
+    private final double[] quantiles = new double[TABLE_SIZE + 1];
+
+    /** Mean of the interpolated distribution */
+    private final double mean;
+
+    /**
+     * @param observations observed values (at least one)
+     */
+    public EmpiricalDistribution(double[] observations) {
+        if (observations.length == 0) {
+            throw new IllegalArgumentException("Empirical distribution needs observations");
+        }
+        double[] x = observations.clone();
+        Arrays.sort(x);
+
+        int n = x.length;
+        double sum = 0.0;
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            // Observation k sits at CDF position k / (n - 1)
+            double pos = (double) i / TABLE_SIZE * (n - 1);
+            int k = Math.min((int) pos, n - 1);
+            double frac = pos - k;
+            quantiles[i] = k + 1 < n ? x[k] + frac * (x[k + 1] - x[k]) : x[k];
+        }
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            sum += (quantiles[i] + quantiles[i + 1]) / 2;
+        }
+        this.mean = sum / TABLE_SIZE;
+    }
+
+    @Override
+    public double sample(RandomGenerator rng) {
+        double pos = rng.nextDouble() * TABLE_SIZE;
+        int i = (int) pos;
+        double lo = quantiles[i];
+        return lo + (pos - i) * (quantiles[i + 1] - lo);
+    }
+
+    @Override
+    public double mean() {
+        return mean;
+    }
+}
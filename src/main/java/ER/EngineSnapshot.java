@@ -0,0 +1,48 @@
+package ER;
+
+/**
+ * EngineSnapshot is the complete state of a {@link SimulationEngine} at one
+ * simulation time, held in memory.
+ *
+ * <p>A snapshot is taken once with {@link SimulationEngine#snapshot(double)}
+ * and never modified afterwards, so any number of engines may restore it
+ * concurrently with {@link SimulationEngine#runBranch(EngineSnapshot)}.
+ * Each branch copies the state into its own structures, so the run up to
+ * the snapshot is simulated only once however many branches follow it.
+ *
+ * <p>The state uses the checkpoint encoding.
+ */
+public class EngineSnapshot {
+
+    /** Simulation time at which branches continue (minutes) */
+    private final double time;
+
+    /** Encoded engine state */
+    private final byte[] state;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param time  simulation time of the snapshot
+     * @param state encoded engine state (not copied; must not be modified)
+     */
+    EngineSnapshot(double time, byte[] state) {
+        this.time = time;
+        this.state = state;
+    }
+
+    /** @return simulation time at which branches continue (minutes) */
+    public double time() {
+        return time;
+    }
+
+    /** @return size of the encoded state in bytes */
+    public int size() {
+        return state.length;
+    }
+
+    /** @return encoded state, shared by every reader */
+    byte[] state() {
+        return state;
+    }
+}
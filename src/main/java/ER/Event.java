@@ -19,6 +19,12 @@ public abstract class Event implements Comparable<Event> {
     /** Simulation time at which the event occurs */
     protected double time;
 
+    /** Scheduling sequence number, used to break ties between equal times */
+    long seq;
+
+    /** Next event in the same bucket (used by {@link CalendarEventList}) */
+    Event next;
+
     /**
      * Constructs an event scheduled at the specified simulation time.
      *
@@ -37,18 +43,29 @@ public abstract class Event implements Comparable<Event> {
         return time;
     }
 
+    /**
+     * Returns the sequence number assigned when the event was scheduled.
+     *
+     * @return scheduling sequence number
+     */
+    public long getSequence() {
+        return seq;
+    }
+
     /**
      * Compares events based on their scheduled simulation time.
      *
      * <p>This ordering ensures that events are processed in chronological order
-     * by the simulation engine.
+     * by the simulation engine. Events with equal times are processed in the
+     * order they were scheduled (FIFO on the sequence number).
      *
      * @param other another event to compare against
      * @return negative if this event occurs earlier, positive if later
      */
     @Override
     public int compareTo(Event other) {
-        return Double.compare(this.time, other.time);
+        int c = Double.compare(this.time, other.time);
+        return c != 0 ? c : Long.compare(this.seq, other.seq);
     }
 
     /**
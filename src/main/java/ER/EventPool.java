@@ -0,0 +1,113 @@
+package ER;
+
+import java.util.ArrayDeque;
+
+/**
+ * EventPool recycles event instances so that a running engine allocates
+ * no events in steady state.
+ *
+ * <p>The engine obtains arrival, service-end and station events from the
+ * pool and returns each one after executing it. Free events are kept on
+ * per-type stacks, so the pool grows only to the largest number of
+ * pending events of each type and then stops allocating:
+ * <ul>
+ *   <li>Arrival events: at most one pending, since arrivals are scheduled
+ *       one at a time</li>
+ *   <li>Service-end events: at most one per doctor</li>
+ *   <li>Station events: at most one per busy pathway server</li>
+ * </ul>
+ *
+ * <p>Events carry {@link PatientTable} handles rather than patient
+ * objects, so pooled events keep nothing alive. A pool belongs to one
+ * engine and is not thread-safe.
+ */
+public class EventPool {
+
+    /** Free arrival events */
+    private final ArrayDeque<ArrivalEvent> arrivals = new ArrayDeque<>();
+
+    /** Free service-end events */
+    private final ArrayDeque<ServiceEndEvent> serviceEnds = new ArrayDeque<>();
+
+    /** Free station events */
+    private final ArrayDeque<StationEvent> stationEnds = new ArrayDeque<>();
+
+    /** Events created because the matching stack was empty */
+    private long allocated = 0;
+
+    /**
+     * Returns an arrival event, reusing a released one if possible.
+     *
+     * @param time     arrival time
+     * @param severity severity of the arriving patient
+     * @return initialised event
+     */
+    public ArrivalEvent arrival(double time, int severity) {
+        ArrivalEvent e = arrivals.poll();
+        if (e == null) {
+            allocated++;
+            return new ArrivalEvent(time, severity);
+        }
+        return e.reset(time, severity);
+    }
+
+    /**
+     * Returns a service-end event, reusing a released one if possible.
+     *
+     * @param time    service end time
+     * @param patient handle of the patient completing service
+     * @return initialised event
+     */
+    public ServiceEndEvent serviceEnd(double time, int patient) {
+        ServiceEndEvent e = serviceEnds.poll();
+        if (e == null) {
+            allocated++;
+            return new ServiceEndEvent(time, patient);
+        }
+        return e.reset(time, patient);
+    }
+
+    /**
+     * Returns a station completion event, reusing a released one if possible.
+     *
+     * @param time    service end time
+     * @param patient handle of the patient completing service
+     * @param station station index
+     * @return initialised event
+     */
+    public StationEvent station(double time, int patient, int station) {
+        StationEvent e = stationEnds.poll();
+        if (e == null) {
+            allocated++;
+            return new StationEvent(time, patient, station);
+        }
+        return e.reset(time, patient, station);
+    }
+
+    /**
+     * Returns an executed event to the pool.
+     *
+     * <p>Events of other types are left to the garbage collector. The
+     * caller must not use the event afterwards.
+     *
+     * @param e executed event
+     */
+    public void release(Event e) {
+        if (e instanceof ServiceEndEvent s) {
+            serviceEnds.push(s);
+        } else if (e instanceof ArrivalEvent a) {
+            arrivals.push(a);
+        } else if (e instanceof StationEvent s) {
+            stationEnds.push(s);
+        }
+    }
+
+    /**
+     * Returns the number of events the pool has had to create.
+     *
+     * @return allocated event count
+     */
+    public long allocated() {
+        return allocated;
+    }
+}
@@ -0,0 +1,33 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Exponential distribution, sampled with the generator's ziggurat
+ * {@link RandomGenerator#nextExponential()}.
+ */
+public class ExponentialDistribution implements Distribution {
+
+    /** Mean value */
+    private final double mean;
+
+    /**
+     * @param mean mean value (must be positive)
+     */
+    public ExponentialDistribution(double mean) {
+        if (!(mean > 0)) {
+            throw new IllegalArgumentException("Exponential mean must be positive");
+        }
+        this.mean = mean;
+    }
+
+    @Override
+    public double sample(RandomGenerator rng) {
+        return mean * rng.nextExponential();
+    }
+
+    @Override
+    public double mean() {
+        return mean;
+    }
+}
@@ -0,0 +1,87 @@
+package ER;
+
+import java.util.function.Consumer;
+
+/**
+ * FutureEventList is the pending-event set of the discrete-event engine.
+ *
+ * <p>Implementations must return events in non-decreasing time order and
+ * break ties between equal times by ascending {@link Event#getSequence()},
+ * so that simultaneous events are processed in the order they were
+ * scheduled. Available implementations:
+ * <ul>
+ *   <li>{@link HeapEventList} – binary heap, O(log n) per operation</li>
+ *   <li>{@link CalendarEventList} – calendar queue, amortized O(1) per operation</li>
+ * </ul>
+ */
+public interface FutureEventList {
+
+    /**
+     * Adds an event. Its sequence number must already be assigned.
+     *
+     * @param e event to add
+     */
+    void add(Event e);
+
+    /**
+     * Removes and returns the earliest event.
+     *
+     * @return the earliest event, or {@code null} if the list is empty
+     */
+    Event poll();
+
+    /**
+     * Returns the earliest event without removing it.
+     *
+     * @return the earliest event, or {@code null} if the list is empty
+     */
+    Event peek();
+
+    /** @return number of pending events */
+    int size();
+
+    /** @return {@code true} if no events are pending */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all pending events.
+     */
+    void clear();
+
+    /**
+     * Prepares the list for up to {@code events} pending events, so that
+     * scheduling them does not reallocate. The default does nothing;
+     * implementations whose storage grows in steps override it.
+     *
+     * @param events expected maximum number of pending events
+     */
+    default void ensureCapacity(int events) {
+    }
+
+    /**
+     * Visits every pending event without removing it, in no particular order.
+     *
+     * @param action action applied to each event
+     */
+    void forEach(Consumer<? super Event> action);
+
+    /**
+     * Creates a future event list of the requested kind.
+     *
+     * @param kind {@code heap} or {@code calendar}
+     * @return an empty future event list
+     * @throws IllegalArgumentException if the kind is not recognised
+     */
+    static FutureEventList create(String kind) {
+        switch (kind.trim().toLowerCase()) {
+            case "heap":
+                return new HeapEventList();
+            case "calendar":
+                return new CalendarEventList();
+            default:
+                throw new IllegalArgumentException("Unknown event list: " + kind);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Gamma distribution with shape {@code k} and scale {@code theta}.
+ *
+ * <p>Sampled with the Marsaglia–Tsang squeeze method. Shapes below 1 use
+ * the boost {@code Gamma(k) = Gamma(k + 1) * U^(1/k)}.
+ */
+public class GammaDistribution implements Distribution {
+
+    /** Scale parameter */
+    private final double scale;
+
+    /** Marsaglia–Tsang {@code d = k' - 1/3} (k' = k, or k + 1 when boosted) */
+    private final double d;
+
+    /** Marsaglia–Tsang {@code c = 1 / sqrt(9d)} */
+    private final double c;
+
+    /** {@code 1/k} when boosting shapes below 1, otherwise 0 */
+    private final double boost;
+
+    /** Mean value */
+    private final double mean;
+
+    /**
+     * @param shape shape parameter k (must be positive)
+     * @param scale scale parameter theta (must be positive)
+     */
+    public GammaDistribution(double shape, double scale) {
+        if (!(shape > 0) || !(scale > 0)) {
+            throw new IllegalArgumentException("Gamma shape and scale must be positive");
+        }
+        this.scale = scale;
+        this.boost = shape < 1 ? 1.0 / shape : 0.0;
+        this.d = (shape < 1 ? shape + 1 : shape) - 1.0 / 3.0;
+        this.c = 1.0 / Math.sqrt(9 * d);
+        this.mean = shape * scale;
+    }
+
+    @Override
+    public double sample(RandomGenerator rng) {
+        double v;
+        while (true) {
+            double x = rng.nextGaussian();
+            v = 1 + c * x;
+            if (v <= 0) {
+                continue;
+            }
+            v = v * v * v;
+            double u = rng.nextDouble();
+            double x2 = x * x;
+            if (u < 1 - 0.0331 * x2 * x2
+                    || Math.log(u) < 0.5 * x2 + d * (1 - v + Math.log(v))) {
+                break;
+            }
+        }
+
+        double g = d * v * scale;
+        return boost == 0.0 ? g : g * Math.pow(rng.nextDouble(), boost);
+    }
+
+    @Override
+    public double mean() {
+        return mean;
+    }
+}
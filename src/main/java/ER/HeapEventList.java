@@ -0,0 +1,58 @@
+package ER;
+
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * HeapEventList is a binary-heap future event list.
+ *
+ * <p>Ordering uses {@link Event#compareTo(Event)}, i.e. time first and
+ * scheduling sequence second. Each operation costs O(log n).
+ */
+public class HeapEventList implements FutureEventList {
+
+    /** Underlying binary heap */
+    private PriorityQueue<Event> heap = new PriorityQueue<>();
+
+    @Override
+    public void add(Event e) {
+        heap.add(e);
+    }
+
+    @Override
+    public Event poll() {
+        return heap.poll();
+    }
+
+    @Override
+    public Event peek() {
+        return heap.peek();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Event> action) {
+        heap.forEach(action);
+    }
+
+    /**
+     * Replaces the heap with one of the requested initial capacity when the
+     * list is empty; {@link PriorityQueue} offers no way to enlarge a heap
+     * in place.
+     */
+    @Override
+    public void ensureCapacity(int events) {
+        if (heap.isEmpty()) {
+            heap = new PriorityQueue<>(Math.max(1, events));
+        }
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+    }
+}
@@ -0,0 +1,376 @@
+package ER;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * HospitalNetwork is an immutable description of several Emergency Rooms
+ * that exchange patients, simulated together by a {@link NetworkEngine}.
+ *
+ * <p>Each site is a full ED with its own configuration. Sites interact in
+ * two ways:
+ * <ul>
+ *   <li>Transfers: a departing patient is sent to another site with a
+ *       given probability, and arrives there after the transfer delay</li>
+ *   <li>Diversion: while a site's doctor queue is at or above a threshold,
+ *       a fraction of its arrivals are redirected to another site, again
+ *       arriving after the transfer delay</li>
+ * </ul>
+ *
+ * <p>Example definition:
+ * <pre>
+ * sites=north,central,south
+ * output.dir=runs/network
+ * transfer.delay.minutes=30
+ * transfer.delay.north.central=20
+ * site.central.config=central.properties
+ * site.north.arrival.rate.per.hour=15
+ * site.north.num.doctors=2
+ * transfer.north=central:0.05
+ * transfer.south=central:0.03,north:0.01
+ * divert.north=central
+ * divert.north.queue=8
+ * divert.north.fraction=0.5
+ * </pre>
+ * Per-site keys {@code arrival.rate.per.hour}, {@code num.doctors},
+ * {@code service.mean.minutes} and {@code random.seed} override the
+ * site's configuration file, or the base configuration when the site has
+ * none. Every transfer delay must be positive: the smallest delay between
+ * connected sites is the lookahead that lets sites run in parallel.
+ */
+public class HospitalNetwork {
+
+    /** Per-site configuration keys accepted in a definition */
+    private static final String[] SITE_KEYS = {
+            "config",
+            "arrival.rate.per.hour",
+            "num.doctors",
+            "service.mean.minutes",
+            "random.seed"
+    };
+
+    /** Site names, in index order */
+    private final String[] names;
+
+    /** Directory receiving per-site runs and the network summary */
+    private final String outputDir;
+
+    /** Transfer delay in minutes, indexed {@code [from][to]} */
+    private final double[][] delay;
+
+    /** Transfer targets per site */
+    private final int[][] transferTargets;
+
+    /** Cumulative transfer probabilities per site */
+    private final double[][] transferCumulative;
+
+    /** Diversion target per site (-1 = never diverts) */
+    private final int[] divertTarget;
+
+    /** Doctor queue size at which a site diverts arrivals */
+    private final int[] divertQueue;
+
+    /** Fraction of arrivals diverted while on diversion */
+    private final double[] divertFraction;
+
+    /** Per-site configuration overrides, indexed {@code [site][key]} (null = unset) */
+    private final String[][] overrides;
+
+    private HospitalNetwork(
+            String[] names,
+            String outputDir,
+            double[][] delay,
+            int[][] transferTargets,
+            double[][] transferCumulative,
+            int[] divertTarget,
+            int[] divertQueue,
+            double[] divertFraction,
+            String[][] overrides
+    ) {
+        this.names = names;
+        this.outputDir = outputDir;
+        this.delay = delay;
+        this.transferTargets = transferTargets;
+        this.transferCumulative = transferCumulative;
+        this.divertTarget = divertTarget;
+        this.divertQueue = divertQueue;
+        this.divertFraction = divertFraction;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Loads a network definition from a properties file.
+     *
+     * @param path path to the network definition
+     * @return the loaded network
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static HospitalNetwork load(String path) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = new FileInputStream(path)) {
+            p.load(in);
+        }
+        return fromProperties(p);
+    }
+
+    /**
+     * Builds a network from definition properties.
+     *
+     * @param p network properties (see class documentation)
+     * @return the network
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static HospitalNetwork fromProperties(Properties p) {
+        String list = p.getProperty("sites", "").trim();
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("Network defines no sites");
+        }
+        String[] names = Arrays.stream(list.split(",")).map(String::trim).toArray(String[]::new);
+        List<String> index = List.of(names);
+        if (index.stream().distinct().count() != names.length) {
+            throw new IllegalArgumentException("Duplicate site name in " + list);
+        }
+        int n = names.length;
+
+        double defaultDelay = Double.parseDouble(p.getProperty("transfer.delay.minutes", "30").trim());
+        double[][] delay = new double[n][n];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                String d = p.getProperty("transfer.delay." + names[a] + "." + names[b]);
+                delay[a][b] = d != null ? Double.parseDouble(d.trim()) : defaultDelay;
+            }
+        }
+
+        int[][] targets = new int[n][];
+        double[][] cumulative = new double[n][];
+        int[] divertTarget = new int[n];
+        int[] divertQueue = new int[n];
+        double[] divertFraction = new double[n];
+        String[][] overrides = new String[n][SITE_KEYS.length];
+
+        for (int s = 0; s < n; s++) {
+            parseTransfers(names[s], p.getProperty("transfer." + names[s], ""), index, targets, cumulative, s);
+
+            String divert = p.getProperty("divert." + names[s], "").trim();
+            divertTarget[s] = divert.isEmpty() ? -1 : siteIndex(index, divert, names[s]);
+            divertQueue[s] = Integer.parseInt(p.getProperty("divert." + names[s] + ".queue", "10").trim());
+            divertFraction[s] = Double.parseDouble(p.getProperty("divert." + names[s] + ".fraction", "1.0").trim());
+            if (divertFraction[s] < 0 || divertFraction[s] > 1) {
+                throw new IllegalArgumentException("Diversion fraction of " + names[s] + " must be in [0, 1]");
+            }
+
+            for (int k = 0; k < SITE_KEYS.length; k++) {
+                String v = p.getProperty("site." + names[s] + "." + SITE_KEYS[k]);
+                overrides[s][k] = v != null ? v.trim() : null;
+            }
+        }
+
+        // Every link in use must take time, or sites could not run ahead of each other
+        for (int s = 0; s < n; s++) {
+            for (int t : targets[s]) {
+                checkDelay(names, delay, s, t);
+            }
+            if (divertTarget[s] >= 0) {
+                checkDelay(names, delay, s, divertTarget[s]);
+            }
+        }
+
+        return new HospitalNetwork(
+                names,
+                p.getProperty("output.dir", "runs/network").trim(),
+                delay,
+                targets,
+                cumulative,
+                divertTarget,
+                divertQueue,
+                divertFraction,
+                overrides
+        );
+    }
+
+    /**
+     * Parses the transfer list of one site into targets and cumulative
+     * probabilities.
+     */
+    private static void parseTransfers(
+            String from,
+            String spec,
+            List<String> index,
+            int[][] targets,
+            double[][] cumulative,
+            int row
+    ) {
+        String[] parts = spec.isBlank() ? new String[0] : spec.split(",");
+        targets[row] = new int[parts.length];
+        cumulative[row] = new double[parts.length];
+
+        double total = 0.0;
+        for (int i = 0; i < parts.length; i++) {
+            String[] kv = parts[i].trim().split(":");
+            targets[row][i] = siteIndex(index, kv[0].trim(), from);
+            total += Double.parseDouble(kv[1].trim());
+            cumulative[row][i] = total;
+        }
+        if (total > 1.0 + 1e-9) {
+            throw new IllegalArgumentException("Transfer probabilities from " + from + " exceed 1");
+        }
+    }
+
+    /**
+     * Resolves a site referenced from another site.
+     */
+    private static int siteIndex(List<String> index, String name, String from) {
+        int s = index.indexOf(name);
+        if (s < 0) {
+            throw new IllegalArgumentException("Unknown site '" + name + "' referenced from " + from);
+        }
+        if (name.equals(from)) {
+            throw new IllegalArgumentException("Site " + from + " cannot transfer to itself");
+        }
+        return s;
+    }
+
+    private static void checkDelay(String[] names, double[][] delay, int from, int to) {
+        if (!(delay[from][to] > 0)) {
+            throw new IllegalArgumentException(
+                    "Transfer delay from " + names[from] + " to " + names[to] + " must be positive");
+        }
+    }
+
+    /** @return number of sites */
+    public int siteCount() {
+        return names.length;
+    }
+
+    /**
+     * @param site site index
+     * @return site name
+     */
+    public String name(int site) {
+        return names[site];
+    }
+
+    /** @return directory receiving per-site runs and the network summary */
+    public String outputDir() {
+        return outputDir;
+    }
+
+    /**
+     * @param from sending site
+     * @param to   receiving site
+     * @return transfer delay (minutes)
+     */
+    public double delay(int from, int to) {
+        return delay[from][to];
+    }
+
+    /**
+     * Returns the smallest delay over every link a patient can travel.
+     *
+     * <p>No event at one site can affect another site sooner than this
+     * after it executes.
+     *
+     * @return lookahead (minutes), or positive infinity if sites never interact
+     */
+    public double lookahead() {
+        double min = Double.POSITIVE_INFINITY;
+        for (int s = 0; s < names.length; s++) {
+            for (int t : transferTargets[s]) {
+                min = Math.min(min, delay[s][t]);
+            }
+            if (divertTarget[s] >= 0) {
+                min = Math.min(min, delay[s][divertTarget[s]]);
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Chooses whether a patient departing a site is transferred.
+     *
+     * @param from site the patient is leaving
+     * @param u    uniform random number in [0, 1)
+     * @return receiving site, or -1 if the patient leaves the network
+     */
+    public int transferTarget(int from, double u) {
+        double[] cum = transferCumulative[from];
+        for (int i = 0; i < cum.length; i++) {
+            if (u < cum[i]) {
+                return transferTargets[from][i];
+            }
+        }
+        return -1;
+    }
+
+    /** @return whether site {@code s} transfers any departing patients */
+    public boolean transfers(int s) {
+        return transferTargets[s].length > 0;
+    }
+
+    /** @return diversion target of site {@code s}, or -1 if it never diverts */
+    public int divertTarget(int s) {
+        return divertTarget[s];
+    }
+
+    /** @return doctor queue size at which site {@code s} diverts arrivals */
+    public int divertQueue(int s) {
+        return divertQueue[s];
+    }
+
+    /** @return fraction of arrivals site {@code s} diverts while on diversion */
+    public double divertFraction(int s) {
+        return divertFraction[s];
+    }
+
+    /**
+     * Builds the configuration of one site.
+     *
+     * <p>Sites share the base horizon, and each site gets its own output
+     * directory and, unless set explicitly, the base seed plus its index.
+     * Checkpointing is disabled, since a site's state is not complete
+     * without the patients travelling towards it.
+     *
+     * @param base base configuration
+     * @param site site index
+     * @return site configuration
+     */
+    public Config configFor(Config base, int site) {
+        String file = overrides[site][0];
+        Config c = file != null ? Config.loadFromFile(file) : base.copy();
+        c.randomSeed = c.randomSeed + site;
+
+        for (int k = 1; k < SITE_KEYS.length; k++) {
+            String v = overrides[site][k];
+            if (v == null) {
+                continue;
+            }
+            switch (SITE_KEYS[k]) {
+                case "arrival.rate.per.hour":
+                    c.arrivalRatePerHour = Double.parseDouble(v);
+                    break;
+                case "num.doctors":
+                    c.numDoctors = Integer.parseInt(v);
+                    break;
+                case "service.mean.minutes":
+                    c.serviceMeanMinutes = Double.parseDouble(v);
+                    break;
+                case "random.seed":
+                    c.randomSeed = Long.parseLong(v);
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled site key " + SITE_KEYS[k]);
+            }
+        }
+
+        c.simHours = base.simHours;
+        c.outputDir = outputDir + "/" + names[site];
+        c.checkpointIntervalMinutes = 0.0;
+        c.checkpointResume = false;
+        return c;
+    }
+}
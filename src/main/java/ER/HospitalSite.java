@@ -0,0 +1,208 @@
+package ER;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.random.RandomGenerator;
+
+/**
+ * HospitalSite is one Emergency Room of a {@link HospitalNetwork}: a
+ * logical process wrapping a {@link SimulationEngine} that sends and
+ * receives patients.
+ *
+ * <p>Patients travelling between sites are posted to the receiving site's
+ * mailbox, a lock-free queue that any site thread may append to while the
+ * receiving engine is running. The mailbox is only drained by
+ * {@link #deliver()}, which {@link NetworkEngine} calls between time
+ * windows while every engine is paused:
+ * <ul>
+ *   <li>Transfers are delivered in (arrival time, sending site, send
+ *       order) order, so runs do not depend on thread timing</li>
+ *   <li>Each transfer becomes a {@link TransferEvent} in the receiving
+ *       engine's event list</li>
+ * </ul>
+ *
+ * <p>Transfer and diversion decisions use the engine's own
+ * {@link RandomStreams.Purpose#TRANSFER} stream.
+ */
+public class HospitalSite {
+
+    /**
+     * A patient travelling towards this site.
+     */
+    private static final class Transfer {
+        final double time;
+        final int from;
+        final long seq;
+        final int severity;
+
+        Transfer(double time, int from, long seq, int severity) {
+            this.time = time;
+            this.from = from;
+            this.seq = seq;
+            this.severity = severity;
+        }
+    }
+
+    /** Delivery order of transfers received in the same window */
+    private static final Comparator<Transfer> DELIVERY_ORDER = Comparator
+            .comparingDouble((Transfer t) -> t.time)
+            .thenComparingInt(t -> t.from)
+            .thenComparingLong(t -> t.seq);
+
+    /** Position of this site in the network */
+    private final int index;
+
+    /** Network this site belongs to */
+    private final HospitalNetwork network;
+
+    /** Engine simulating this site */
+    private final SimulationEngine engine;
+
+    /** Transfer and diversion decisions */
+    private final RandomGenerator rng;
+
+    /** Patients posted by other sites and not yet delivered */
+    private final ConcurrentLinkedQueue<Transfer> mailbox = new ConcurrentLinkedQueue<>();
+
+    /** Every site of the network, by index (set by {@link #connect}) */
+    private HospitalSite[] peers;
+
+    /** Transfers sent so far, used to order transfers from this site */
+    private long sent = 0;
+
+    /** Departing patients transferred to another site */
+    private long transfersOut = 0;
+
+    /** Patients received from other sites */
+    private long transfersIn = 0;
+
+    /** Arrivals diverted to another site */
+    private long diverted = 0;
+
+    /**
+     * Creates a site and attaches it to its engine.
+     *
+     * @param index   site index in the network
+     * @param network network definition
+     * @param engine  engine simulating the site
+     */
+    public HospitalSite(int index, HospitalNetwork network, SimulationEngine engine) {
+        this.index = index;
+        this.network = network;
+        this.engine = engine;
+        this.rng = engine.stream(RandomStreams.Purpose.TRANSFER);
+        engine.site = this;
+    }
+
+    /**
+     * Gives every site of a network access to the others.
+     *
+     * @param sites sites in index order
+     */
+    public static void connect(HospitalSite[] sites) {
+        for (HospitalSite s : sites) {
+            s.peers = sites;
+        }
+    }
+
+    /** @return engine simulating this site */
+    public SimulationEngine engine() {
+        return engine;
+    }
+
+    /**
+     * Decides whether an arrival is diverted to another site, and sends it
+     * there if so.
+     *
+     * @param severity severity of the arriving patient
+     * @param t        arrival time
+     * @return true if the patient was diverted and must not enter this ED
+     */
+    public boolean divert(int severity, double t) {
+        int target = network.divertTarget(index);
+        if (target < 0 || engine.queue.size() < network.divertQueue(index)) {
+            return false;
+        }
+        if (rng.nextDouble() >= network.divertFraction(index)) {
+            return false;
+        }
+        send(target, severity, t);
+        diverted++;
+        return true;
+    }
+
+    /**
+     * Decides whether a departing patient is transferred, and sends it to
+     * the receiving site if so.
+     *
+     * @param severity severity of the departing patient
+     * @param t        departure time
+     */
+    public void departed(int severity, double t) {
+        if (!network.transfers(index)) {
+            return;
+        }
+        int target = network.transferTarget(index, rng.nextDouble());
+        if (target >= 0) {
+            send(target, severity, t);
+            transfersOut++;
+        }
+    }
+
+    /**
+     * Posts a patient to another site's mailbox.
+     */
+    private void send(int to, int severity, double t) {
+        peers[to].mailbox.add(new Transfer(t + network.delay(index, to), index, sent++, severity));
+    }
+
+    /**
+     * Schedules every patient received since the last delivery. Must only
+     * be called while this site's engine is paused.
+     */
+    public void deliver() {
+        if (mailbox.isEmpty()) {
+            return;
+        }
+        List<Transfer> batch = new ArrayList<>();
+        for (Transfer t; (t = mailbox.poll()) != null; ) {
+            batch.add(t);
+        }
+        batch.sort(DELIVERY_ORDER);
+        for (Transfer t : batch) {
+            engine.scheduleEvent(new TransferEvent(t.time, t.severity));
+        }
+    }
+
+    /**
+     * Counts a received patient entering this site.
+     */
+    void received() {
+        transfersIn++;
+    }
+
+    /** @return departing patients transferred to another site */
+    public long transfersOut() {
+        return transfersOut;
+    }
+
+    /** @return arrivals diverted to another site */
+    public long diverted() {
+        return diverted;
+    }
+
+    /**
+     * Adds this site's transfer counts to a run summary.
+     *
+     * @param summary summary to extend
+     */
+    public void addTo(Map<String, String> summary) {
+        summary.put("site", network.name(index));
+        summary.put("transfers_out", Long.toString(transfersOut));
+        summary.put("transfers_in", Long.toString(transfersIn));
+        summary.put("diverted", Long.toString(diverted));
+    }
+}
@@ -0,0 +1,124 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * L64X128Random is a LXM pseudo-random number generator combining a 64-bit
+ * linear congruential generator with a xoroshiro128 generator and a mixing
+ * output function (the same algorithm as the JDK's {@code L64X128MixRandom}).
+ *
+ * <p>Compared with {@link java.util.Random} it:
+ * <ul>
+ *   <li>Is unsynchronized (no atomic seed update per draw)</li>
+ *   <li>Has a period of 2<sup>192</sup> and passes BigCrush</li>
+ *   <li>Supports many statistically independent instances, selected by the
+ *       LCG additive constant</li>
+ *   <li>Exposes its state so a run can be saved and resumed exactly</li>
+ * </ul>
+ *
+ * <p>Derived samplers such as {@link #nextDouble()} and the ziggurat-based
+ * {@link #nextExponential()} are inherited from {@link RandomGenerator}.
+ * Instances are not thread-safe; each run owns its own.
+ */
+public class L64X128Random implements RandomGenerator {
+
+    /** LCG multiplier */
+    private static final long M = 0xd1342543de82ef95L;
+
+    /** Golden-ratio increment used by SplitMix64 seeding */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** LCG additive constant (odd) */
+    private long a;
+
+    /** LCG state */
+    private long s;
+
+    /** xoroshiro128 state, first word */
+    private long x0;
+
+    /** xoroshiro128 state, second word (x0 and x1 are never both zero) */
+    private long x1;
+
+    /**
+     * Creates a generator whose full state is derived from a 64-bit seed.
+     *
+     * @param seed seed value
+     */
+    public L64X128Random(long seed) {
+        long z = seed;
+        this.a = mixStafford13(z += GOLDEN_GAMMA) | 1L;
+        this.s = mixStafford13(z += GOLDEN_GAMMA);
+        this.x0 = mixStafford13(z += GOLDEN_GAMMA);
+        this.x1 = mixStafford13(z + GOLDEN_GAMMA);
+        if ((x0 | x1) == 0) {
+            x0 = GOLDEN_GAMMA;
+        }
+    }
+
+    /**
+     * Returns the next 64 pseudo-random bits.
+     *
+     * @return pseudo-random long
+     */
+    @Override
+    public long nextLong() {
+        long result = mixLea64(s + x0);
+
+        // Advance the LCG
+        s = M * s + a;
+
+        // Advance xoroshiro128
+        long q0 = x0;
+        long q1 = x1;
+        q1 ^= q0;
+        q0 = Long.rotateLeft(q0, 24) ^ q1 ^ (q1 << 16);
+        q1 = Long.rotateLeft(q1, 37);
+        x0 = q0;
+        x1 = q1;
+
+        return result;
+    }
+
+    /**
+     * Returns the complete generator state.
+     *
+     * @return state words {@code {a, s, x0, x1}}
+     */
+    public long[] getState() {
+        return new long[] { a, s, x0, x1 };
+    }
+
+    /**
+     * Restores a state previously returned by {@link #getState()}.
+     *
+     * @param state state words {@code {a, s, x0, x1}}
+     */
+    public void setState(long[] state) {
+        if (state.length != 4 || (state[0] & 1L) == 0 || (state[2] | state[3]) == 0) {
+            throw new IllegalArgumentException("Invalid L64X128 state");
+        }
+        a = state[0];
+        s = state[1];
+        x0 = state[2];
+        x1 = state[3];
+    }
+
+    /**
+     * Doug Lea's 64-bit mixing function (LXM output function).
+     */
+    static long mixLea64(long z) {
+        z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+        z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+        return z ^ (z >>> 32);
+    }
+
+    /**
+     * SplitMix64 finalizer (Stafford variant 13), used for seeding.
+     */
+    static long mixStafford13(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
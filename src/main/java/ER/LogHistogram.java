@@ -0,0 +1,188 @@
+package ER;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * LogHistogram is a fixed-memory, mergeable quantile sketch for
+ * non-negative values such as waiting and service times.
+ *
+ * <p>The layout follows the HDR histogram idea: the value range is split
+ * into power-of-two buckets, each subdivided into {@value #SUB_BUCKETS}
+ * linear sub-buckets. This gives:
+ * <ul>
+ *   <li>A bounded relative error of about 1.6% for any reported quantile</li>
+ *   <li>O(1), allocation-free recording</li>
+ *   <li>Constant memory regardless of the number of observations</li>
+ *   <li>Exact merging of histograms from independent runs</li>
+ * </ul>
+ *
+ * <p>Values below {@value #LOWEST} (minutes) are counted in a single
+ * underflow bucket; values beyond the highest bucket are clamped into it.
+ */
+public final class LogHistogram {
+
+    /** Smallest value resolved by the histogram */
+    public static final double LOWEST = 1e-3;
+
+    /** Number of mantissa bits used to select a sub-bucket */
+    private static final int SUB_BITS = 5;
+
+    /** Linear sub-buckets per power of two */
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Number of power-of-two ranges above {@link #LOWEST} */
+    private static final int EXPONENTS = 36;
+
+    /** Total number of buckets, including the underflow bucket */
+    private static final int BUCKETS = 1 + EXPONENTS * SUB_BUCKETS;
+
+    /** Observation counts per bucket */
+    private final long[] counts = new long[BUCKETS];
+
+    /** Total number of observations */
+    private long total = 0;
+
+    /** Exact smallest observation */
+    private double min = Double.POSITIVE_INFINITY;
+
+    /** Exact largest observation */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Records a value.
+     *
+     * @param x observed value (negative values are treated as zero)
+     */
+    public void record(double x) {
+        counts[bucketOf(x)]++;
+        total++;
+        if (x < min) min = x;
+        if (x > max) max = x;
+    }
+
+    /**
+     * Adds every observation of another histogram to this one.
+     *
+     * @param other histogram to merge
+     */
+    public void merge(LogHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Discards all observations.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        total = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Writes the histogram state (non-empty buckets only).
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(total);
+        out.writeDouble(min);
+        out.writeDouble(max);
+
+        int used = 0;
+        for (long c : counts) {
+            if (c != 0) {
+                used++;
+            }
+        }
+        out.writeInt(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Replaces the histogram state with one written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails
+     */
+    public void readFrom(DataInput in) throws IOException {
+        reset();
+        total = in.readLong();
+        min = in.readDouble();
+        max = in.readDouble();
+
+        int used = in.readInt();
+        for (int k = 0; k < used; k++) {
+            counts[in.readUnsignedShort()] = in.readLong();
+        }
+    }
+
+    /** @return number of recorded observations */
+    public long count() {
+        return total;
+    }
+
+    /**
+     * Estimates a quantile of the recorded values.
+     *
+     * @param q quantile in [0, 1] (e.g., 0.95)
+     * @return estimated value, or 0 if the histogram is empty
+     */
+    public double quantile(double q) {
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                double mid = 0.5 * (lowerBound(i) + lowerBound(i + 1));
+                return Math.min(max, Math.max(min, mid));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Maps a value to its bucket index.
+     */
+    private static int bucketOf(double x) {
+        if (!(x >= LOWEST)) {
+            return 0;
+        }
+        double scaled = x / LOWEST;
+        int exp = Math.getExponent(scaled);
+        if (exp >= EXPONENTS) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) ((Double.doubleToRawLongBits(scaled) >>> (52 - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return 1 + exp * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the smallest value that maps to a bucket.
+     */
+    private static double lowerBound(int bucket) {
+        if (bucket == 0) {
+            return 0.0;
+        }
+        int exp = (bucket - 1) / SUB_BUCKETS;
+        int sub = (bucket - 1) % SUB_BUCKETS;
+        return LOWEST * Math.scalb(1.0 + (double) sub / SUB_BUCKETS, exp);
+    }
+}
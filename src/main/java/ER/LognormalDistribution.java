@@ -0,0 +1,46 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Lognormal distribution parameterized by its own mean and standard
+ * deviation (not those of the underlying normal).
+ *
+ * <p>Sampled as {@code exp(mu + sigma * Z)} with the generator's ziggurat
+ * {@link RandomGenerator#nextGaussian()}.
+ */
+public class LognormalDistribution implements Distribution {
+
+    /** Mean of the underlying normal */
+    private final double mu;
+
+    /** Standard deviation of the underlying normal */
+    private final double sigma;
+
+    /** Mean value */
+    private final double mean;
+
+    /**
+     * @param mean   mean value (must be positive)
+     * @param stdDev standard deviation (must be positive)
+     */
+    public LognormalDistribution(double mean, double stdDev) {
+        if (!(mean > 0) || !(stdDev > 0)) {
+            throw new IllegalArgumentException("Lognormal mean and stddev must be positive");
+        }
+        double variance = Math.log(1 + (stdDev * stdDev) / (mean * mean));
+        this.sigma = Math.sqrt(variance);
+        this.mu = Math.log(mean) - variance / 2;
+        this.mean = mean;
+    }
+
+    @Override
+    public double sample(RandomGenerator rng) {
+        return Math.exp(mu + sigma * rng.nextGaussian());
+    }
+
+    @Override
+    public double mean() {
+        return mean;
+    }
+}
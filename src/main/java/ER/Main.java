@@ -1,6 +1,8 @@
 package ER;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,9 +12,14 @@ import java.util.List;
  * <p>This class:
  * <ul>
  *   <li>Loads base configuration settings</li>
- *   <li>Defines a batch of simulation scenarios</li>
- *   <li>Executes multiple simulation runs</li>
+ *   <li>Defines a batch of simulation scenarios, or runs a
+ *       {@link SweepDesign} when {@code sweep.file} is set, a
+ *       {@link HospitalNetwork} when {@code network.file} is set, or a
+ *       {@link WhatIfPlan} when {@code whatif.file} is set</li>
+ *   <li>Executes multiple simulation runs, optionally replicating each
+ *       scenario until its confidence interval is narrow enough</li>
  *   <li>Prints a summary of results to the console</li>
+ *   <li>Optionally writes a binary {@link ResultsIndex} of all runs</li>
  * </ul>
  *
  * <p>Batch execution enables sensitivity analysis and scenario comparison
@@ -34,6 +41,52 @@ public class Main {
         // Load base configuration from optional properties file
         Config base = Config.loadFromFile("config.properties");
 
+        // A sweep definition replaces the built-in scenarios
+        if (!base.sweepFile.isEmpty()) {
+            SweepDesign design = SweepDesign.load(base.sweepFile);
+            System.out.println("\n=== SWEEP === " + design.size() + " points");
+            Path table = new SweepRunner(base, design).run();
+            System.out.println("Results: " + table);
+            return;
+        }
+
+        // A hospital network replaces the built-in scenarios
+        if (!base.networkFile.isEmpty()) {
+            HospitalNetwork network = HospitalNetwork.load(base.networkFile);
+            System.out.println("\n=== NETWORK === " + network.siteCount() + " sites");
+            List<RunResult> results = new NetworkEngine(base, network).run();
+            System.out.println("Site,avg_wait_min,transfers_out,transfers_in,diverted");
+            for (RunResult r : results) {
+                System.out.printf(
+                        "%s,%s,%s,%s,%s%n",
+                        r.summary.getOrDefault("site", r.id),
+                        r.summary.getOrDefault("avg_wait", "NA"),
+                        r.summary.getOrDefault("transfers_out", "NA"),
+                        r.summary.getOrDefault("transfers_in", "NA"),
+                        r.summary.getOrDefault("diverted", "NA")
+                );
+            }
+            return;
+        }
+
+        // What-if branches replace the built-in scenarios
+        if (!base.whatIfFile.isEmpty()) {
+            WhatIfPlan plan = WhatIfPlan.load(base.whatIfFile);
+            System.out.println("\n=== WHAT-IF === " + plan.size() + " branches at hour " + plan.forkHours());
+            List<RunResult> results = new WhatIfRunner(base, plan).run();
+            System.out.println("Branch,avg_wait_min,wall_seconds");
+            for (int i = 0; i < results.size(); i++) {
+                RunResult r = results.get(i);
+                System.out.printf(
+                        "%s,%s,%s%n",
+                        i == 0 ? WhatIfPlan.BASELINE : plan.name(i - 1),
+                        r.summary.getOrDefault("avg_wait", "NA"),
+                        r.summary.getOrDefault("wall_seconds", "NA")
+                );
+            }
+            return;
+        }
+
         // Define batch of simulation configurations
         List<Config> configs = new ArrayList<>();
 
@@ -49,8 +102,27 @@ public class Main {
         configs.add(copy(base, 10, 1, 30, 109, "runs/run_09"));
         configs.add(copy(base, 80, 6, 7, 110, "runs/run_10"));
 
-        // Execute batch simulation
-        List<RunResult> results = SimulationEngine.runBatch(configs);
+        // Replicate each scenario to the configured precision
+        if (base.replicationMax > 1) {
+            runReplicated(configs);
+            return;
+        }
+
+        // Execute batch simulation across the configured worker pool
+        List<RunResult> results = SimulationEngine.runBatch(
+                configs,
+                base.batchWorkers,
+                base.batchVirtualThreads
+        );
+
+        // Index every run of the sweep in one binary file
+        if (base.resultsColumnar) {
+            Path parent = Paths.get(configs.get(0).outputDir).getParent();
+            ResultsIndex.write(
+                    parent != null ? parent.resolve("results.idx") : Paths.get("results.idx"),
+                    results
+            );
+        }
 
         // Print summary table to console
         System.out.println("\n=== BATCH SUMMARY ===");
@@ -75,6 +147,35 @@ public class Main {
         }
     }
 
+    /**
+     * Runs every scenario through a {@link ReplicationManager} and prints
+     * the replication mean and confidence half-width of its metric.
+     *
+     * @param configs scenario configurations
+     * @throws IOException if output writing fails
+     */
+    private static void runReplicated(List<Config> configs) throws IOException {
+        System.out.println("\n=== REPLICATED BATCH SUMMARY ===");
+        System.out.println("Run,arrival/hr,doctors,service_mean_min,metric,mean,ci_half_width,replications");
+
+        for (Config c : configs) {
+            RunResult r = new ReplicationManager(c).run();
+            String metric = c.replicationMetric;
+
+            System.out.printf(
+                    "%s,%.1f,%d,%.1f,%s,%s,%s,%s%n",
+                    r.id,
+                    c.arrivalRatePerHour,
+                    c.numDoctors,
+                    c.serviceMeanMinutes,
+                    metric,
+                    r.summary.getOrDefault(metric + "_mean", "NA"),
+                    r.summary.getOrDefault(metric + "_ci_half_width", "NA"),
+                    r.summary.getOrDefault("replications", "NA")
+            );
+        }
+    }
+
     /**
      * Creates a copy of a base configuration with selected parameters overridden.
      *
@@ -97,14 +198,12 @@ public class Main {
             long seed,
             String outdir
     ) {
-        Config c = new Config();
+        Config c = base.copy();
         c.arrivalRatePerHour = arrivalRate;
         c.numDoctors = docs;
         c.serviceMeanMinutes = serviceMean;
-        c.simHours = base.simHours;
         c.randomSeed = seed;
         c.outputDir = outdir;
-        c.timeseriesIntervalMinutes = base.timeseriesIntervalMinutes;
         return c;
     }
 }
@@ -0,0 +1,246 @@
+package ER;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * NetworkEngine simulates every site of a {@link HospitalNetwork} in
+ * parallel, one {@link SimulationEngine} per site on its own thread.
+ *
+ * <p>Sites are kept consistent by conservative time windows:
+ * <ul>
+ *   <li>The lookahead is the smallest transfer delay between connected
+ *       sites, so an event at time {@code t} cannot affect another site
+ *       before {@code t + lookahead}</li>
+ *   <li>Each window starts at the earliest pending event time {@code T}
+ *       over all sites, and every site executes its events before
+ *       {@code T + lookahead} without waiting for the others</li>
+ *   <li>At the end of a window all sites meet at a barrier, whose action
+ *       delivers the patients posted to each site's mailbox during the
+ *       window and computes the next window</li>
+ * </ul>
+ *
+ * <p>Transfers sent in a window always arrive at or after its end, so no
+ * site ever receives an event in its past. Delivery order is fixed, so a
+ * network run gives the same results regardless of thread timing.
+ *
+ * <p>Each site writes its usual outputs to its own directory below the
+ * network's output directory, which also receives
+ * {@code network_summary.csv}.
+ */
+public class NetworkEngine {
+
+    /** Base configuration shared by all sites */
+    private final Config base;
+
+    /** Network being simulated */
+    private final HospitalNetwork network;
+
+    /** Sites, in index order */
+    private HospitalSite[] sites;
+
+    /** Exclusive end of the current window (written by the barrier action) */
+    private double windowEnd;
+
+    /** Whether every site has passed the end of the horizon */
+    private boolean done;
+
+    /** Number of windows executed */
+    private long windows;
+
+    /** Whether any site has failed, so the others must stop */
+    private volatile boolean failed;
+
+    /**
+     * Creates an engine for a network.
+     *
+     * @param base    base configuration (see {@link HospitalNetwork#configFor})
+     * @param network network definition
+     */
+    public NetworkEngine(Config base, HospitalNetwork network) {
+        this.base = base;
+        this.network = network;
+    }
+
+    /**
+     * Runs every site to the end of the horizon.
+     *
+     * @return result of each site, in site order
+     * @throws IOException if output writing fails
+     */
+    public List<RunResult> run() throws IOException {
+        long start = System.nanoTime();
+        int n = network.siteCount();
+        double lookahead = network.lookahead();
+
+        sites = new HospitalSite[n];
+        for (int s = 0; s < n; s++) {
+            sites[s] = new HospitalSite(s, network, new SimulationEngine(network.configFor(base, s)));
+        }
+        HospitalSite.connect(sites);
+        double endTime = sites[0].engine().getEndTime();
+
+        windows = 0;
+        done = false;
+        failed = false;
+        CyclicBarrier barrier = new CyclicBarrier(n, () -> nextWindow(lookahead, endTime));
+
+        ExecutorService pool = Executors.newFixedThreadPool(n,
+                Thread.ofPlatform().name("site-", 0).factory());
+        List<RunResult> results;
+        try {
+            CompletionService<RunResult> completed = new ExecutorCompletionService<>(pool);
+            List<Future<RunResult>> futures = new ArrayList<>();
+            for (HospitalSite site : sites) {
+                futures.add(completed.submit(() -> runSite(site.engine(), barrier)));
+            }
+            results = collect(completed, futures, pool);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, String> summary = new LinkedHashMap<>();
+        summary.put("sites", Integer.toString(n));
+        summary.put("lookahead_minutes", Double.toString(lookahead));
+        summary.put("windows", Long.toString(windows));
+        long transfers = 0;
+        long diverted = 0;
+        for (HospitalSite site : sites) {
+            transfers += site.transfersOut();
+            diverted += site.diverted();
+        }
+        summary.put("transfers", Long.toString(transfers));
+        summary.put("diverted", Long.toString(diverted));
+        summary.put("wall_seconds", String.format("%.4f", (System.nanoTime() - start) / 1e9));
+        new CSVExporter(network.outputDir()).writeSummary("network_summary.csv", summary);
+
+        return results;
+    }
+
+    /**
+     * Site thread body: runs one engine window by window.
+     */
+    private RunResult runSite(SimulationEngine engine, CyclicBarrier barrier) throws Exception {
+        try {
+            engine.begin();
+            await(barrier);
+            while (!done) {
+                engine.advanceTo(windowEnd);
+                await(barrier);
+            }
+            return engine.finish();
+        } catch (Throwable ex) {
+            // Release the sites already waiting; the others see the flag
+            failed = true;
+            barrier.reset();
+            throw ex;
+        }
+    }
+
+    /**
+     * Waits at the window barrier unless another site has failed.
+     *
+     * <p>A site reaching the barrier after it was reset would wait for
+     * the failed site forever; the flag, checked before waiting, and the
+     * interrupt sent by {@link #collect} on the first failure cover both
+     * orders.
+     */
+    private void await(CyclicBarrier barrier) throws InterruptedException, BrokenBarrierException {
+        if (failed) {
+            throw new BrokenBarrierException();
+        }
+        barrier.await();
+    }
+
+    /**
+     * Barrier action: delivers posted transfers and sets up the next window
+     * while every site is paused.
+     */
+    private void nextWindow(double lookahead, double endTime) {
+        if (failed) {
+            done = true;
+            return;
+        }
+        double next = Double.POSITIVE_INFINITY;
+        for (HospitalSite site : sites) {
+            site.deliver();
+            next = Math.min(next, site.engine().nextEventTime());
+        }
+        if (next > endTime) {
+            done = true;
+        } else {
+            windowEnd = next + lookahead;
+            windows++;
+        }
+    }
+
+    /**
+     * Waits for every site and returns its result, reporting the failure
+     * that stopped the network rather than the barrier it broke.
+     *
+     * <p>Sites are collected in completion order, and the first failure
+     * interrupts every other site, so no site is left waiting for one
+     * that has stopped.
+     */
+    private static List<RunResult> collect(
+            CompletionService<RunResult> completed,
+            List<Future<RunResult>> futures,
+            ExecutorService pool
+    ) throws IOException {
+        Throwable failure = null;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    completed.take().get();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (failure == null
+                            || (isKnockOn(failure) && !isKnockOn(cause))) {
+                        failure = cause;
+                    }
+                    pool.shutdownNow();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Network run interrupted", ex);
+        }
+
+        if (failure == null) {
+            List<RunResult> results = new ArrayList<>();
+            for (Future<RunResult> f : futures) {
+                results.add(f.resultNow());
+            }
+            return results;
+        }
+        if (failure instanceof UncheckedIOException io) {
+            throw io.getCause();
+        }
+        if (failure instanceof RuntimeException re) {
+            throw re;
+        }
+        if (failure instanceof Error err) {
+            throw err;
+        }
+        throw new IllegalStateException("Network run failed", failure);
+    }
+
+    /**
+     * Tells whether a site failure was caused by another site stopping.
+     */
+    private static boolean isKnockOn(Throwable t) {
+        return t instanceof BrokenBarrierException || t instanceof InterruptedException;
+    }
+}
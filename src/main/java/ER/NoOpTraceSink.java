@@ -0,0 +1,32 @@
+package ER;
+
+/**
+ * NoOpTraceSink discards every trace record.
+ *
+ * <p>This is the default sink, used whenever the configured
+ * {@link TraceLevel} is below {@link TraceLevel#EVENTS}.
+ */
+public final class NoOpTraceSink implements TraceSink {
+
+    /** Shared stateless instance */
+    public static final NoOpTraceSink INSTANCE = new NoOpTraceSink();
+
+    private NoOpTraceSink() {
+    }
+
+    @Override
+    public void arrival(double time, int patientId, int severity) {
+    }
+
+    @Override
+    public void serviceEnd(double time, int patientId, int severity, Doctor doctor) {
+    }
+
+    @Override
+    public void departure(double time, int patientId, int severity) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,35 @@
+package ER;
+
+/**
+ * OverflowPolicy selects what a bounded asynchronous writer does when its
+ * background thread falls behind and no empty buffer is available.
+ *
+ * <ul>
+ *   <li>{@link #DROP} – discard the newest full buffer and count the lost
+ *       records, keeping memory strictly bounded (the default)</li>
+ *   <li>{@link #GROW} – allocate another buffer, keeping every record at
+ *       the cost of extra memory; memory is unbounded if the writer never
+ *       catches up, so use it only where the disk outpaces the engine</li>
+ * </ul>
+ *
+ * <p>With either policy the engine thread never waits for file I/O.
+ */
+public enum OverflowPolicy {
+
+    /** Discard records that do not fit */
+    DROP,
+
+    /** Allocate additional buffers */
+    GROW;
+
+    /**
+     * Parses a policy name, ignoring case.
+     *
+     * @param name policy name ("drop" or "grow")
+     * @return the matching policy
+     * @throws IllegalArgumentException if the name is not a known policy
+     */
+    public static OverflowPolicy parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,347 @@
+package ER;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Pathway is an immutable routing graph of service stations that patients
+ * visit between arrival and departure (e.g., triage → treatment →
+ * labs/imaging → disposition).
+ *
+ * <p>Each station has:
+ * <ul>
+ *   <li>A resource pool: a fixed number of servers, or the engine's doctors</li>
+ *   <li>A service-time {@link Distribution}, optionally per severity; the
+ *       doctor-staffed station uses the engine's service distribution
+ *       instead, and rejects {@code station.<name>.service.*} keys</li>
+ *   <li>Severity-dependent routing probabilities to the next station</li>
+ * </ul>
+ *
+ * <p>All station data is held in parallel arrays indexed by station number,
+ * and routing tables are stored as cumulative probabilities so a routing
+ * decision is a short scan over one row. A pathway is loaded once and can
+ * be shared by concurrently running engines.
+ *
+ * <p>Example definition:
+ * <pre>
+ * stations=triage,treatment,imaging,disposition
+ * entry=triage
+ * station.triage.servers=2
+ * station.triage.service.mean.minutes=5
+ * station.treatment.servers=doctors
+ * station.imaging.servers=1
+ * station.imaging.service.distribution=lognormal(30, 12)
+ * route.triage=treatment:1.0
+ * route.treatment=disposition:0.6,imaging:0.4
+ * route.treatment.sev1=imaging:0.8,disposition:0.2
+ * route.imaging=disposition:1.0
+ * </pre>
+ * Probability not assigned by a route (or a missing route) leads to
+ * departure; {@code exit} may also be named explicitly.
+ */
+public class Pathway {
+
+    /** Routing target meaning "leave the Emergency Room" */
+    public static final int EXIT = -1;
+
+    /** Server count marker for a station staffed by the engine's doctors */
+    public static final int DOCTORS = -1;
+
+    /** Station names */
+    private final String[] names;
+
+    /** Servers per station, or {@link #DOCTORS} */
+    private final int[] servers;
+
+    /**
+     * Service-time distribution, row {@code station * SEVERITY_LEVELS + severity - 1}
+     * (null for the doctor station)
+     */
+    private final Distribution[] service;
+
+    /** Routing targets, row {@code station * SEVERITY_LEVELS + severity - 1} */
+    private final int[][] routeTargets;
+
+    /** Cumulative routing probabilities, same layout as {@link #routeTargets} */
+    private final double[][] routeCumulative;
+
+    /** Station every patient enters first */
+    private final int entry;
+
+    /** Station staffed by doctors, or -1 if none */
+    private final int doctorStation;
+
+    private Pathway(
+            String[] names,
+            int[] servers,
+            Distribution[] service,
+            int[][] routeTargets,
+            double[][] routeCumulative,
+            int entry
+    ) {
+        this.names = names;
+        this.servers = servers;
+        this.service = service;
+        this.routeTargets = routeTargets;
+        this.routeCumulative = routeCumulative;
+        this.entry = entry;
+
+        int doc = -1;
+        for (int s = 0; s < servers.length; s++) {
+            if (servers[s] == DOCTORS) {
+                if (doc >= 0) {
+                    throw new IllegalArgumentException("Only one station may be staffed by doctors");
+                }
+                doc = s;
+            }
+        }
+        this.doctorStation = doc;
+    }
+
+    /**
+     * Loads a pathway definition from a properties file.
+     *
+     * @param path path to the pathway definition
+     * @return the loaded pathway
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static Pathway load(String path) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = new FileInputStream(path)) {
+            p.load(in);
+        }
+        return fromProperties(p);
+    }
+
+    /**
+     * Builds a pathway from definition properties.
+     *
+     * @param p pathway properties (see class documentation)
+     * @return the pathway
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static Pathway fromProperties(Properties p) {
+        String list = p.getProperty("stations");
+        if (list == null || list.isBlank()) {
+            throw new IllegalArgumentException("Pathway defines no stations");
+        }
+        String[] names = Arrays.stream(list.split(",")).map(String::trim).toArray(String[]::new);
+        List<String> index = Arrays.asList(names);
+
+        int n = names.length;
+        int[] servers = new int[n];
+        Distribution[] service = new Distribution[n * Patient.SEVERITY_LEVELS];
+        for (int s = 0; s < n; s++) {
+            String key = "station." + names[s];
+            servers[s] = parseServers(key + ".servers", p.getProperty(key + ".servers", "1").trim());
+
+            // Doctors serve with the engine's own service distribution
+            if (servers[s] == DOCTORS) {
+                for (String k : p.stringPropertyNames()) {
+                    if (k.startsWith(key + ".service.")) {
+                        throw new IllegalArgumentException(
+                                k + " is not allowed: station " + names[s]
+                                        + " is staffed by doctors and uses the engine's service distribution");
+                    }
+                }
+                continue;
+            }
+
+            // A distribution spec overrides the exponential mean
+            String base = p.getProperty(
+                    key + ".service.distribution",
+                    "exponential(" + p.getProperty(key + ".service.mean.minutes", "10") + ")"
+            );
+            for (int sev = 1; sev <= Patient.SEVERITY_LEVELS; sev++) {
+                service[s * Patient.SEVERITY_LEVELS + sev - 1] = Distribution.parse(
+                        p.getProperty(key + ".service.distribution.sev" + sev, base)
+                );
+            }
+        }
+
+        int rows = n * Patient.SEVERITY_LEVELS;
+        int[][] targets = new int[rows][];
+        double[][] cumulative = new double[rows][];
+        for (int s = 0; s < n; s++) {
+            String baseKey = "route." + names[s];
+            String base = p.getProperty(baseKey, "");
+            for (int sev = 1; sev <= Patient.SEVERITY_LEVELS; sev++) {
+                String key = baseKey + ".sev" + sev;
+                String spec = p.getProperty(key);
+                int row = s * Patient.SEVERITY_LEVELS + sev - 1;
+                parseRoute(spec != null ? key : baseKey, spec != null ? spec : base, index, targets, cumulative, row);
+            }
+        }
+
+        String entryName = p.getProperty("entry", names[0]).trim();
+        int entry = index.indexOf(entryName);
+        if (entry < 0) {
+            throw new IllegalArgumentException("Unknown entry station: " + entryName);
+        }
+
+        return new Pathway(names, servers, service, targets, cumulative, entry);
+    }
+
+    /**
+     * Parses a station's server count: a positive integer, or
+     * {@code doctors}.
+     *
+     * @throws IllegalArgumentException naming the key if the value is invalid
+     */
+    private static int parseServers(String key, String value) {
+        if (value.equalsIgnoreCase("doctors")) {
+            return DOCTORS;
+        }
+        int servers;
+        try {
+            servers = Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(key + " must be a positive integer or 'doctors': " + value);
+        }
+        if (servers <= 0) {
+            throw new IllegalArgumentException(key + " must be a positive integer or 'doctors': " + value);
+        }
+        return servers;
+    }
+
+    /**
+     * Parses a route specification such as {@code "imaging:0.4,exit:0.6"}
+     * into one row of the routing tables.
+     *
+     * @throws IllegalArgumentException naming the route key if an entry is
+     *         not {@code station:probability}, names an unknown station, or
+     *         has a probability that is not a finite non-negative number
+     */
+    private static void parseRoute(
+            String key,
+            String spec,
+            List<String> index,
+            int[][] targets,
+            double[][] cumulative,
+            int row
+    ) {
+        String[] parts = spec.isBlank() ? new String[0] : spec.split(",");
+        targets[row] = new int[parts.length];
+        cumulative[row] = new double[parts.length];
+
+        double total = 0.0;
+        for (int i = 0; i < parts.length; i++) {
+            String[] kv = parts[i].trim().split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException(
+                        "Route entry '" + parts[i].trim() + "' in " + key + " must be station:probability");
+            }
+            String to = kv[0].trim();
+            int target = to.equalsIgnoreCase("exit") ? EXIT : index.indexOf(to);
+            if (target == EXIT && !to.equalsIgnoreCase("exit")) {
+                throw new IllegalArgumentException("Unknown station '" + to + "' in " + key);
+            }
+
+            double prob;
+            try {
+                prob = Double.parseDouble(kv[1].trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid probability for '" + to + "' in " + key + ": " + kv[1].trim());
+            }
+            if (!(prob >= 0) || Double.isInfinite(prob)) {
+                throw new IllegalArgumentException("Probability for '" + to + "' in " + key + " must be non-negative: " + prob);
+            }
+            total += prob;
+            targets[row][i] = target;
+            cumulative[row][i] = total;
+        }
+        if (total > 1.0 + 1e-9) {
+            throw new IllegalArgumentException("Route probabilities in " + key + " exceed 1");
+        }
+    }
+
+    /**
+     * Chooses the next station for a patient leaving a station.
+     *
+     * @param from     station the patient is leaving
+     * @param severity patient severity (1–5)
+     * @param u        uniform random number in [0, 1)
+     * @return next station index, or {@link #EXIT}
+     */
+    public int route(int from, int severity, double u) {
+        int row = from * Patient.SEVERITY_LEVELS + severity - 1;
+        double[] cum = routeCumulative[row];
+        for (int i = 0; i < cum.length; i++) {
+            if (u < cum[i]) {
+                return routeTargets[row][i];
+            }
+        }
+        return EXIT;
+    }
+
+    /** @return number of stations */
+    public int stationCount() {
+        return names.length;
+    }
+
+    /**
+     * @param station station index
+     * @return station name
+     */
+    public String name(int station) {
+        return names[station];
+    }
+
+    /**
+     * @param station station index
+     * @return server count, or {@link #DOCTORS}
+     */
+    public int servers(int station) {
+        return servers[station];
+    }
+
+    /**
+     * @param station  station index
+     * @param severity patient severity (1–5)
+     * @return service-time distribution (minutes), or null for the doctor
+     *         station, which uses the engine's service distribution
+     */
+    public Distribution service(int station, int severity) {
+        return service[station * Patient.SEVERITY_LEVELS + severity - 1];
+    }
+
+    /**
+     * Returns a hash of the stations, servers, service distributions and
+     * routes, used to check that a checkpoint is resumed with the same
+     * pathway.
+     *
+     * @return pathway fingerprint
+     */
+    public long fingerprint() {
+        long h = L64X128Random.mixLea64(names.length ^ ((long) entry << 32));
+        for (int s = 0; s < names.length; s++) {
+            h = L64X128Random.mixLea64(h ^ names[s].hashCode() ^ ((long) servers[s] << 32));
+        }
+        for (Distribution d : service) {
+            h = L64X128Random.mixLea64(h ^ (d != null ? d.fingerprint() : 0));
+        }
+        for (int row = 0; row < routeTargets.length; row++) {
+            for (int i = 0; i < routeTargets[row].length; i++) {
+                h = L64X128Random.mixLea64(h ^ routeTargets[row][i]
+                        ^ Double.doubleToLongBits(routeCumulative[row][i]));
+            }
+            h = L64X128Random.mixLea64(h ^ row);
+        }
+        return h;
+    }
+
+    /** @return station every patient enters first */
+    public int entry() {
+        return entry;
+    }
+
+    /** @return station staffed by doctors, or -1 if none */
+    public int doctorStation() {
+        return doctorStation;
+    }
+}
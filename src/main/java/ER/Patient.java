@@ -12,11 +12,15 @@ package ER;
  * </ul>
  *
  * <p>Patients are comparable by severity to support priority-based queuing.
+ *
+ * <p>The engine itself keeps patients as rows of a {@link PatientTable};
+ * a Patient is a detached copy of one row (see
+ * {@link PatientTable#get(int, Doctor[])}) for inspection and reporting.
  */
 public class Patient implements Comparable<Patient> {
 
-    /** Global patient counter used to assign unique IDs */
-    private static int counter = 0;
+    /** Number of severity levels (severities range from 1 to this value) */
+    public static final int SEVERITY_LEVELS = 5;
 
     /** Unique patient identifier */
     private final int id;
@@ -36,14 +40,18 @@ public class Patient implements Comparable<Patient> {
     /** Doctor assigned to the patient */
     private Doctor assignedDoctor = null;
 
+    /** Time the patient entered its current pathway station */
+    private double stationEntry = -1;
+
     /**
      * Constructs a new patient.
      *
+     * @param id          unique patient identifier within the run
      * @param severity    severity level (1–5)
      * @param arrivalTime simulation arrival time
      */
-    public Patient(int severity, double arrivalTime) {
-        this.id = ++counter;
+    public Patient(int id, int severity, double arrivalTime) {
+        this.id = id;
         this.severity = severity;
         this.arrivalTime = arrivalTime;
     }
@@ -111,6 +119,20 @@ public class Patient implements Comparable<Patient> {
         return serviceStart;
     }
 
+    /**
+     * Sets the time the patient entered its current pathway station.
+     *
+     * @param t simulation time of entry
+     */
+    public void setStationEntry(double t) {
+        this.stationEntry = t;
+    }
+
+    /** @return time the patient entered its current pathway station */
+    public double getStationEntry() {
+        return stationEntry;
+    }
+
     /**
      * Assigns a doctor to the patient.
      *
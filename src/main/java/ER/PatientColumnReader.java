@@ -0,0 +1,221 @@
+package ER;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * PatientColumnReader gives random and bulk access to a file written by
+ * {@link PatientColumnWriter}.
+ *
+ * <p>The file is memory-mapped read-only, so opening it costs one pass over
+ * the block headers and values are decoded only when accessed. Record
+ * indices run from 0 to {@link #size()} - 1 in departure order.
+ *
+ * <p>A single mapping is limited to 2 GiB, roughly 50 million records.
+ */
+public class PatientColumnReader {
+
+    /** Magic number at the start of a column file ("ERPC") */
+    static final int MAGIC = 0x45525043;
+
+    /** Positions of the {@code double} columns within a block */
+    private static final int ARRIVAL = 0;
+    private static final int SERVICE_START = 1;
+    private static final int SERVICE_END = 2;
+    private static final int DEPARTURE = 3;
+
+    /** Mapped file contents */
+    private final MappedByteBuffer data;
+
+    /** Total number of records */
+    private final int size;
+
+    /** File offset of each block */
+    private final long[] blockOffset;
+
+    /** Index of the first record of each block */
+    private final int[] blockFirst;
+
+    /** Number of records in each block */
+    private final int[] blockRows;
+
+    /**
+     * Maps a column file and indexes its blocks.
+     *
+     * @param file column file
+     * @throws IOException if the file cannot be read or is not a column file
+     */
+    public PatientColumnReader(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Column file too large to map: " + file);
+            }
+            data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        if (data.limit() < PatientColumnWriter.HEADER_BYTES
+                || data.getInt(0) != MAGIC
+                || data.getInt(4) != PatientColumnWriter.VERSION) {
+            throw new IOException("Not a patient column file: " + file);
+        }
+        long total = data.getLong(12);
+
+        // Walk the block headers; blocks are full except after early flushes
+        int maxBlock = data.getInt(8);
+        int capacity = (int) Math.min(Integer.MAX_VALUE, total / Math.max(1, maxBlock) + 1);
+        long[] offsets = new long[Math.max(1, capacity)];
+        int[] first = new int[offsets.length];
+        int[] rows = new int[offsets.length];
+        int blocks = 0;
+        long pos = PatientColumnWriter.HEADER_BYTES;
+        long seen = 0;
+        while (seen < total) {
+            if (pos + PatientColumnWriter.BLOCK_HEADER_BYTES > data.limit()) {
+                throw new IOException("Truncated column file: " + file);
+            }
+            int n = data.getInt((int) pos);
+            if (n <= 0 || n > maxBlock) {
+                throw new IOException("Corrupt block header in " + file);
+            }
+            if (blocks == offsets.length) {
+                offsets = Arrays.copyOf(offsets, blocks * 2);
+                first = Arrays.copyOf(first, blocks * 2);
+                rows = Arrays.copyOf(rows, blocks * 2);
+            }
+            offsets[blocks] = pos;
+            first[blocks] = (int) seen;
+            rows[blocks] = n;
+            blocks++;
+            seen += n;
+            pos += PatientColumnWriter.blockBytes(n);
+        }
+        if (pos > data.limit()) {
+            throw new IOException("Truncated column file: " + file);
+        }
+
+        this.size = (int) total;
+        this.blockOffset = Arrays.copyOf(offsets, blocks);
+        this.blockFirst = Arrays.copyOf(first, blocks);
+        this.blockRows = Arrays.copyOf(rows, blocks);
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return record count
+     */
+    public int size() {
+        return size;
+    }
+
+    /** @return arrival time of record {@code i} */
+    public double arrival(int i) {
+        return doubleAt(i, ARRIVAL);
+    }
+
+    /** @return service start time of record {@code i} */
+    public double serviceStart(int i) {
+        return doubleAt(i, SERVICE_START);
+    }
+
+    /** @return service end time of record {@code i} */
+    public double serviceEnd(int i) {
+        return doubleAt(i, SERVICE_END);
+    }
+
+    /** @return departure time of record {@code i} */
+    public double departure(int i) {
+        return doubleAt(i, DEPARTURE);
+    }
+
+    /** @return doctor index of record {@code i}, or -1 if none */
+    public int doctor(int i) {
+        int b = block(i);
+        int n = blockRows[b];
+        long base = blockOffset[b] + PatientColumnWriter.BLOCK_HEADER_BYTES + 4L * n * Double.BYTES;
+        return data.getInt((int) (base + (long) (i - blockFirst[b]) * Integer.BYTES));
+    }
+
+    /** @return severity level of record {@code i} */
+    public int severity(int i) {
+        int b = block(i);
+        int n = blockRows[b];
+        long base = blockOffset[b] + PatientColumnWriter.BLOCK_HEADER_BYTES
+                + 4L * n * Double.BYTES + (long) n * Integer.BYTES;
+        return data.get((int) (base + i - blockFirst[b]));
+    }
+
+    /**
+     * Copies the arrival times of all records into a new array.
+     *
+     * @return arrival column
+     */
+    public double[] arrivals() {
+        return doubleColumn(ARRIVAL);
+    }
+
+    /**
+     * Copies the service start times of all records into a new array.
+     *
+     * @return service start column
+     */
+    public double[] serviceStarts() {
+        return doubleColumn(SERVICE_START);
+    }
+
+    /**
+     * Copies the service end times of all records into a new array.
+     *
+     * @return service end column
+     */
+    public double[] serviceEnds() {
+        return doubleColumn(SERVICE_END);
+    }
+
+    /**
+     * Copies the departure times of all records into a new array.
+     *
+     * @return departure column
+     */
+    public double[] departures() {
+        return doubleColumn(DEPARTURE);
+    }
+
+    /**
+     * Returns the block holding record {@code i}.
+     */
+    private int block(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Record " + i + " of " + size);
+        }
+        int b = Arrays.binarySearch(blockFirst, i);
+        return b >= 0 ? b : -b - 2;
+    }
+
+    /**
+     * Decodes one value of a {@code double} column.
+     */
+    private double doubleAt(int i, int column) {
+        int b = block(i);
+        long base = blockOffset[b] + PatientColumnWriter.BLOCK_HEADER_BYTES
+                + (long) column * blockRows[b] * Double.BYTES;
+        return data.getDouble((int) (base + (long) (i - blockFirst[b]) * Double.BYTES));
+    }
+
+    /**
+     * Bulk-copies a {@code double} column, one block at a time.
+     */
+    private double[] doubleColumn(int column) {
+        double[] out = new double[size];
+        for (int b = 0; b < blockOffset.length; b++) {
+            int n = blockRows[b];
+            int base = (int) (blockOffset[b] + PatientColumnWriter.BLOCK_HEADER_BYTES
+                    + (long) column * n * Double.BYTES);
+            data.slice(base, n * Double.BYTES).asDoubleBuffer().get(out, blockFirst[b], n);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,242 @@
+package ER;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * PatientColumnWriter stores one record per departed patient in a
+ * block-columnar binary file.
+ *
+ * <p>Records are buffered in primitive column arrays and written through a
+ * {@link FileChannel} one block at a time. The file layout (big-endian) is:
+ * <ul>
+ *   <li>Header: magic bytes {@code ERPC}, {@code int} format version,
+ *       {@code int} maximum rows per block, {@code long} total rows</li>
+ *   <li>Blocks: {@code int} row count and {@code int} padding, then each
+ *       column stored contiguously for the rows of the block:
+ *       arrival, service start, service end and departure times
+ *       ({@code double}), doctor index ({@code int}, -1 if none) and
+ *       severity ({@code byte}), padded to a multiple of 8 bytes</li>
+ * </ul>
+ *
+ * <p>The total row count in the header is rewritten whenever the buffer is
+ * flushed, so a flushed file is always complete and readable by
+ * {@link PatientColumnReader}. Blocks are normally full; a shorter block
+ * appears only where the writer was flushed early, for example at a
+ * checkpoint.
+ */
+public class PatientColumnWriter implements AutoCloseable {
+
+    /** File format version written after the magic bytes */
+    public static final int VERSION = 1;
+
+    /** Bytes before the first block */
+    static final int HEADER_BYTES = 20;
+
+    /** Bytes of the per-block row count and padding */
+    static final int BLOCK_HEADER_BYTES = 8;
+
+    /** Default maximum rows per block */
+    public static final int DEFAULT_BLOCK_ROWS = 4096;
+
+    /** Channel of the open file */
+    private final FileChannel channel;
+
+    /** Maximum rows per block */
+    private final int blockRows;
+
+    /** Column buffers for the current block */
+    private final double[] arrival;
+    private final double[] serviceStart;
+    private final double[] serviceEnd;
+    private final double[] departure;
+    private final int[] doctor;
+    private final byte[] severity;
+
+    /** Rows buffered in the current block */
+    private int rows = 0;
+
+    /** Rows already written to the file */
+    private long flushedRows = 0;
+
+    /** Staging buffer for one encoded block */
+    private final ByteBuffer block;
+
+    /**
+     * Creates a new column file, replacing any existing one.
+     *
+     * @param file      file to create
+     * @param blockRows maximum rows per block
+     * @throws IOException if the file cannot be created
+     */
+    public PatientColumnWriter(Path file, int blockRows) throws IOException {
+        this(file, blockRows, -1, 0);
+    }
+
+    /**
+     * Opens a column file, either new or continuing an existing one.
+     *
+     * @param file      file to open
+     * @param blockRows maximum rows per block
+     * @param keepBytes length of an existing file to keep and append to,
+     *                  as returned by {@link #flush()}; -1 to start a new file
+     * @param keepRows  records in the kept part, as returned by {@link #size()}
+     * @throws IOException if the file cannot be opened or the kept part
+     *                     was written with a different block size
+     */
+    public PatientColumnWriter(Path file, int blockRows, long keepBytes, long keepRows)
+            throws IOException {
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("blockRows must be positive: " + blockRows);
+        }
+        this.blockRows = blockRows;
+        this.arrival = new double[blockRows];
+        this.serviceStart = new double[blockRows];
+        this.serviceEnd = new double[blockRows];
+        this.departure = new double[blockRows];
+        this.doctor = new int[blockRows];
+        this.severity = new byte[blockRows];
+        this.block = ByteBuffer.allocateDirect(blockBytes(blockRows));
+
+        if (keepBytes < 0) {
+            channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            writeHeader();
+        } else {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            if (channel.size() < keepBytes
+                    || header.getInt(0) != PatientColumnReader.MAGIC
+                    || header.getInt(4) != VERSION
+                    || header.getInt(8) != blockRows) {
+                channel.close();
+                throw new IOException("Cannot continue column file " + file);
+            }
+            flushedRows = keepRows;
+            channel.truncate(keepBytes);
+            channel.position(keepBytes);
+            writeHeader();
+        }
+    }
+
+    /**
+     * Returns the encoded size of a block.
+     *
+     * @param rows rows in the block
+     * @return block size in bytes, including its header and padding
+     */
+    static int blockBytes(int rows) {
+        int bytes = BLOCK_HEADER_BYTES + rows * (4 * Double.BYTES + Integer.BYTES + 1);
+        return (bytes + 7) & ~7;
+    }
+
+    /**
+     * Appends the record of a departing patient.
+     *
+     * @param patients table holding the patient
+     * @param h        handle of the departing patient
+     * @param time     departure time
+     * @throws IOException if a full block cannot be written
+     */
+    public void add(PatientTable patients, int h, double time) throws IOException {
+        arrival[rows] = patients.arrival(h);
+        serviceStart[rows] = patients.serviceStart(h);
+        serviceEnd[rows] = patients.serviceEnd(h);
+        departure[rows] = time;
+        doctor[rows] = patients.doctor(h);
+        severity[rows] = (byte) patients.severity(h);
+        if (++rows == blockRows) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Returns the number of records added so far.
+     *
+     * @return record count
+     */
+    public long size() {
+        return flushedRows + rows;
+    }
+
+    /**
+     * Writes any buffered records and updates the header.
+     *
+     * @return length of the file after flushing
+     * @throws IOException if writing fails
+     */
+    public long flush() throws IOException {
+        if (rows > 0) {
+            writeBlock();
+        }
+        writeHeader();
+        return channel.position();
+    }
+
+    /**
+     * Flushes buffered records and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Encodes the buffered rows column by column and writes them as one block.
+     */
+    private void writeBlock() throws IOException {
+        block.clear();
+        block.putInt(rows).putInt(0);
+        block.asDoubleBuffer().put(arrival, 0, rows);
+        block.position(block.position() + rows * Double.BYTES);
+        block.asDoubleBuffer().put(serviceStart, 0, rows);
+        block.position(block.position() + rows * Double.BYTES);
+        block.asDoubleBuffer().put(serviceEnd, 0, rows);
+        block.position(block.position() + rows * Double.BYTES);
+        block.asDoubleBuffer().put(departure, 0, rows);
+        block.position(block.position() + rows * Double.BYTES);
+        block.asIntBuffer().put(doctor, 0, rows);
+        block.position(block.position() + rows * Integer.BYTES);
+        block.put(severity, 0, rows);
+        while (block.position() < blockBytes(rows)) {
+            block.put((byte) 0);
+        }
+        block.flip();
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        flushedRows += rows;
+        rows = 0;
+    }
+
+    /**
+     * Writes the file header at the start of the file.
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(PatientColumnReader.MAGIC)
+                .putInt(VERSION)
+                .putInt(blockRows)
+                .putLong(flushedRows)
+                .flip();
+        long pos = 0;
+        while (header.hasRemaining()) {
+            pos += channel.write(header, pos);
+        }
+        if (channel.position() < HEADER_BYTES) {
+            channel.position(HEADER_BYTES);
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package ER;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PatientEventLog streams the journey of every departed patient to disk on
+ * a background thread.
+ *
+ * <p>The engine thread copies each departure into a fixed-size batch of
+ * primitive columns. Full batches are queued for a dedicated writer thread,
+ * which encodes them as CSV or binary records and recycles them, so:
+ * <ul>
+ *   <li>No patient is kept in memory after it departs</li>
+ *   <li>No per-record objects are allocated on the engine thread</li>
+ *   <li>The engine never waits for file I/O: when every batch is in use,
+ *       the {@link OverflowPolicy} either drops the newest full batch
+ *       (bounded memory) or allocates another one (unbounded)</li>
+ * </ul>
+ *
+ * <p>Each record holds the patient identifier, severity, arrival, service
+ * start, service end and departure times, and the doctor index (-1 if
+ * none). CSV files start with a header row; binary files start with the
+ * magic bytes {@code ERPL} and a format version, followed by 39-byte
+ * big-endian records ({@code int} id, {@code byte} severity,
+ * {@code short} doctor, four {@code double} times).
+ *
+ * <p>Waits for the writer ({@link #sync()}) check periodically that it is
+ * still running. Once the writer has stopped, further records are counted
+ * as dropped rather than queued, {@link #sync()} fails instead of
+ * blocking, and {@link #close()} reports the failure.
+ */
+public class PatientEventLog implements AutoCloseable {
+
+    /** File format version written after the binary magic bytes */
+    public static final int VERSION = 1;
+
+    /** Bytes per binary record */
+    private static final int RECORD_BYTES = 39;
+
+    /** Milliseconds between writer liveness checks while waiting for it */
+    private static final long WAIT_SLICE_MS = 100;
+
+    /** CSV header row */
+    private static final String CSV_HEADER =
+            "patient,severity,arrival,service_start,service_end,departure,doctor\n";
+
+    /**
+     * One batch of records in column form.
+     */
+    private static final class Batch {
+        final int[] id;
+        final byte[] severity;
+        final short[] doctor;
+        final double[] arrival;
+        final double[] serviceStart;
+        final double[] serviceEnd;
+        final double[] departure;
+        int size;
+
+        Batch(int capacity) {
+            id = new int[capacity];
+            severity = new byte[capacity];
+            doctor = new short[capacity];
+            arrival = new double[capacity];
+            serviceStart = new double[capacity];
+            serviceEnd = new double[capacity];
+            departure = new double[capacity];
+        }
+    }
+
+    /** Marker asking the writer thread to stop */
+    private static final Batch END = new Batch(0);
+
+    /** Marker asking the writer thread to report its file position */
+    private static final Batch SYNC = new Batch(0);
+
+    /** Whether records are written as binary instead of CSV */
+    private final boolean binary;
+
+    /** Records per batch */
+    private final int batchSize;
+
+    /** Behaviour when no empty batch is available */
+    private final OverflowPolicy overflow;
+
+    /** Output file channel, used only by the writer thread after construction */
+    private final FileChannel channel;
+
+    /** Full batches waiting to be written */
+    private final BlockingQueue<Batch> pending = new LinkedBlockingQueue<>();
+
+    /** Written batches available for reuse */
+    private final BlockingQueue<Batch> free;
+
+    /** File positions reported by the writer in answer to {@link #SYNC} */
+    private final BlockingQueue<Long> synced = new SynchronousQueue<>();
+
+    /** Background writer thread */
+    private final Thread writer;
+
+    /** Batch currently being filled by the engine thread */
+    private Batch current;
+
+    /** Records accepted so far */
+    private long records = 0;
+
+    /** Records discarded by the {@link OverflowPolicy#DROP} policy */
+    private long dropped = 0;
+
+    /** Batches allocated, including any added by {@link OverflowPolicy#GROW} */
+    private int batches;
+
+    /** First I/O failure seen by the writer thread */
+    private volatile IOException failure;
+
+    /** Whether the writer thread reached the end marker */
+    private volatile boolean finished = false;
+
+    /**
+     * Creates a new log file, replacing any existing one.
+     *
+     * @param file      log file
+     * @param binary    whether to write binary records instead of CSV
+     * @param batchSize records per batch
+     * @param batches   batches available before the overflow policy applies (at least 2)
+     * @param overflow  behaviour when the writer falls behind
+     * @throws IOException if the file cannot be created
+     */
+    public PatientEventLog(Path file, boolean binary, int batchSize, int batches,
+                           OverflowPolicy overflow) throws IOException {
+        this(file, binary, batchSize, batches, overflow, -1);
+    }
+
+    /**
+     * Opens a log file, either new or continuing an existing one.
+     *
+     * @param file      log file
+     * @param binary    whether to write binary records instead of CSV
+     * @param batchSize records per batch
+     * @param batches   batches available before the overflow policy applies (at least 2)
+     * @param overflow  behaviour when the writer falls behind
+     * @param keepBytes length of an existing file to keep and append to,
+     *                  as returned by {@link #sync()}; -1 to start a new file
+     * @throws IOException if the file cannot be opened
+     */
+    public PatientEventLog(Path file, boolean binary, int batchSize, int batches,
+                           OverflowPolicy overflow, long keepBytes) throws IOException {
+        if (batchSize < 1 || batches < 2) {
+            throw new IllegalArgumentException(
+                    "Event log needs a positive batch size and at least two batches");
+        }
+        this.binary = binary;
+        this.batchSize = batchSize;
+        this.overflow = overflow;
+        this.batches = batches;
+
+        if (keepBytes < 0) {
+            channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(CSV_HEADER.length());
+            if (binary) {
+                header.putInt(0x4552504C).putInt(VERSION);
+            } else {
+                for (int i = 0; i < CSV_HEADER.length(); i++) {
+                    header.put((byte) CSV_HEADER.charAt(i));
+                }
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } else {
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            if (channel.size() < keepBytes) {
+                channel.close();
+                throw new IOException("Cannot continue event log " + file);
+            }
+            channel.truncate(keepBytes);
+            channel.position(keepBytes);
+        }
+
+        free = new ArrayBlockingQueue<>(batches);
+        for (int i = 1; i < batches; i++) {
+            free.add(new Batch(batchSize));
+        }
+        current = new Batch(batchSize);
+
+        writer = Thread.ofPlatform()
+                .name("event-log-writer")
+                .daemon(true)
+                .start(this::drain);
+    }
+
+    /**
+     * Appends the journey of a departing patient.
+     *
+     * @param patients table holding the patient
+     * @param h        handle of the departing patient
+     * @param time     departure time
+     */
+    public void add(PatientTable patients, int h, double time) {
+        Batch b = current;
+        int i = b.size;
+        b.id[i] = patients.id(h);
+        b.severity[i] = (byte) patients.severity(h);
+        b.doctor[i] = (short) patients.doctor(h);
+        b.arrival[i] = patients.arrival(h);
+        b.serviceStart[i] = patients.serviceStart(h);
+        b.serviceEnd[i] = patients.serviceEnd(h);
+        b.departure[i] = time;
+        records++;
+        if (++b.size == batchSize) {
+            handOff();
+        }
+    }
+
+    /**
+     * Queues the current batch and continues in an empty one, applying the
+     * overflow policy if none is free.
+     */
+    private void handOff() {
+        // Nothing would drain the queue once the writer has stopped
+        if (!writer.isAlive()) {
+            dropped += current.size;
+            current.size = 0;
+            return;
+        }
+        Batch next = free.poll();
+        if (next == null) {
+            if (overflow == OverflowPolicy.DROP) {
+                dropped += current.size;
+                current.size = 0;
+                return;
+            }
+            next = new Batch(batchSize);
+            batches++;
+        }
+        pending.add(current);
+        current = next;
+    }
+
+    /**
+     * Writes every accepted record and waits until the writer has caught up.
+     *
+     * <p>Unlike {@link #add(PatientTable, int, double)} this blocks; it is meant for
+     * checkpoints, where the file must match the engine state.
+     *
+     * @return length of the file after all records are written
+     * @throws IOException if writing fails or the wait is interrupted
+     */
+    public long sync() throws IOException {
+        if (current.size > 0) {
+            pending.add(current);
+            current = takeFree();
+        }
+        pending.add(SYNC);
+        try {
+            Long position;
+            while ((position = synced.poll(WAIT_SLICE_MS, TimeUnit.MILLISECONDS)) == null) {
+                checkWriter();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return position;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing event log", ex);
+        }
+    }
+
+    /**
+     * Waits for a written batch to become free.
+     */
+    private Batch takeFree() throws IOException {
+        try {
+            Batch b;
+            while ((b = free.poll(WAIT_SLICE_MS, TimeUnit.MILLISECONDS)) == null) {
+                checkWriter();
+            }
+            return b;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing event log", ex);
+        }
+    }
+
+    /**
+     * Fails if the writer thread has stopped, so a wait for it cannot
+     * block forever.
+     */
+    private void checkWriter() throws IOException {
+        if (!writer.isAlive()) {
+            if (failure != null) {
+                throw failure;
+            }
+            throw new IOException("Event log writer stopped");
+        }
+    }
+
+    /** @return number of records accepted, including dropped ones */
+    public long records() {
+        return records;
+    }
+
+    /** @return number of records dropped by the overflow policy */
+    public long dropped() {
+        return dropped;
+    }
+
+    /** @return number of batches allocated */
+    public int batches() {
+        return batches;
+    }
+
+    /**
+     * Restores the record counters of a continued log.
+     *
+     * @param records records accepted before the checkpoint
+     * @param dropped records dropped before the checkpoint
+     */
+    public void restoreCounts(long records, long dropped) {
+        this.records = records;
+        this.dropped = dropped;
+    }
+
+    /**
+     * Writer thread body: encodes batches until the end marker is received.
+     */
+    private void drain() {
+        StringBuilder text = new StringBuilder(64);
+        ByteBuffer buf = ByteBuffer.allocateDirect(
+                Math.max(256, batchSize * (binary ? RECORD_BYTES : 96)));
+        try (channel) {
+            while (true) {
+                Batch b = pending.take();
+                if (b == END) {
+                    finished = true;
+                    break;
+                }
+                if (b == SYNC) {
+                    long position = -1;
+                    if (failure == null) {
+                        try {
+                            position = channel.position();
+                        } catch (IOException ex) {
+                            failure = ex;
+                        }
+                    }
+                    synced.put(position);
+                    continue;
+                }
+
+                // Keep recycling batches after a failure so the engine never stalls
+                if (failure == null) {
+                    try {
+                        write(b, buf, text);
+                    } catch (IOException ex) {
+                        failure = ex;
+                    }
+                }
+                // Batches beyond the free list's capacity were added by GROW
+                // and are simply released
+                b.size = 0;
+                free.offer(b);
+            }
+        } catch (IOException ex) {
+            if (failure == null) {
+                failure = ex;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            if (failure == null) {
+                failure = new IOException("Event log writer failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Encodes one batch and writes it to the channel.
+     */
+    private void write(Batch b, ByteBuffer buf, StringBuilder text) throws IOException {
+        buf.clear();
+        for (int i = 0; i < b.size; i++) {
+            if (binary) {
+                buf.putInt(b.id[i])
+                        .put(b.severity[i])
+                        .putShort(b.doctor[i])
+                        .putDouble(b.arrival[i])
+                        .putDouble(b.serviceStart[i])
+                        .putDouble(b.serviceEnd[i])
+                        .putDouble(b.departure[i]);
+            } else {
+                text.setLength(0);
+                text.append(b.id[i]).append(',')
+                        .append(b.severity[i]).append(',')
+                        .append(b.arrival[i]).append(',')
+                        .append(b.serviceStart[i]).append(',')
+                        .append(b.serviceEnd[i]).append(',')
+                        .append(b.departure[i]).append(',')
+                        .append(b.doctor[i]).append('\n');
+                if (buf.remaining() < text.length()) {
+                    flush(buf);
+                }
+                for (int c = 0; c < text.length(); c++) {
+                    buf.put((byte) text.charAt(c));
+                }
+            }
+        }
+        flush(buf);
+    }
+
+    /**
+     * Writes the buffer contents to the channel and clears it.
+     */
+    private void flush(ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    /**
+     * Writes the remaining records, stops the writer thread and closes the file.
+     *
+     * @throws IOException if any record could not be written, or the
+     *                     writer stopped before writing them all
+     */
+    @Override
+    public void close() throws IOException {
+        if (current.size > 0) {
+            pending.add(current);
+        }
+        pending.add(END);
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing event log", ex);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (!finished) {
+            throw new IOException("Event log writer stopped before all records were written");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ER;
+
+import java.util.function.IntConsumer;
+
+/**
+ * PatientQueue is a priority queue of waiting patients, held as
+ * {@link PatientTable} handles.
+ *
+ * <p>Every implementation serves patients in the same order:
+ * <ol>
+ *   <li>Severity level (lower value = higher priority)</li>
+ *   <li>Arrival order (FIFO among patients with equal severity)</li>
+ * </ol>
+ *
+ * <p>{@link EDQueue} is the single-threaded implementation used by
+ * default; {@link ConcurrentEDQueue} may be shared between threads.
+ */
+public interface PatientQueue {
+
+    /**
+     * Adds a patient to the waiting queue.
+     *
+     * @param patient  handle of the patient to add
+     * @param severity severity of the patient (1–5)
+     */
+    void add(int patient, int severity);
+
+    /**
+     * Removes and returns the next patient from the queue.
+     *
+     * @return handle of the next patient, or {@link PatientTable#NONE} if
+     *         the queue is empty
+     */
+    int poll();
+
+    /**
+     * Indicates whether the queue is empty.
+     *
+     * @return {@code true} if no patients are waiting
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the current number of patients in the queue.
+     *
+     * @return queue size
+     */
+    int size();
+
+    /**
+     * Returns the number of waiting patients with a given severity.
+     *
+     * @param severity severity level (1–5)
+     * @return queue size for that severity
+     */
+    int size(int severity);
+
+    /**
+     * Visits waiting patients in service order (severity, then FIFO)
+     * without removing them.
+     *
+     * @param action action applied to each patient handle
+     */
+    void forEach(IntConsumer action);
+
+    /**
+     * Copies the waiting patient handles in service order.
+     *
+     * @return handles of all waiting patients
+     */
+    int[] toArray();
+
+    /**
+     * Returns the number of times internal storage has been enlarged.
+     * Queues without preallocated storage report 0.
+     *
+     * @return growth count
+     */
+    default int growths() {
+        return 0;
+    }
+}
@@ -0,0 +1,315 @@
+package ER;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * PatientTable stores every patient currently in the Emergency Room as one
+ * row of parallel primitive columns.
+ *
+ * <p>Patients are referred to by integer handles (row numbers) instead of
+ * object references:
+ * <ul>
+ *   <li>Queues and events hold a handle, so no per-patient object is
+ *       allocated or kept alive</li>
+ *   <li>Rows of departed patients are recycled through a free-slot stack,
+ *       so the table grows only to the peak number of patients present at
+ *       once, not the number that ever arrived</li>
+ *   <li>Each attribute is a contiguous array, which keeps the dispatch
+ *       loop's accesses cache-friendly</li>
+ * </ul>
+ *
+ * <p>A handle is valid from {@link #add(int, int, double)} until
+ * {@link #release(int)}; afterwards the row may be reused for another
+ * patient. The table belongs to one engine and is not thread-safe.
+ */
+public class PatientTable {
+
+    /** Handle value meaning "no patient" */
+    public static final int NONE = -1;
+
+    /** Default initial number of rows */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Patient identifiers */
+    private int[] id;
+
+    /** Severity levels (1–5) */
+    private byte[] severity;
+
+    /** Arrival times */
+    private double[] arrival;
+
+    /** Doctor service start times (-1 if not started) */
+    private double[] serviceStart;
+
+    /** Doctor service end times (-1 if not ended) */
+    private double[] serviceEnd;
+
+    /** Entry times at the current pathway station (-1 if none) */
+    private double[] stationEntry;
+
+    /** Assigned doctor indices (-1 if none) */
+    private int[] doctor;
+
+    /** Released rows available for reuse, used as a stack */
+    private int[] free;
+
+    /** Number of released rows on the free stack */
+    private int freeCount = 0;
+
+    /** Number of rows ever used (rows at or above it are untouched) */
+    private int highWater = 0;
+
+    /** Times the columns had to be enlarged */
+    private int growths = 0;
+
+    /**
+     * Creates a table with the default capacity.
+     */
+    public PatientTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param capacity initial number of rows
+     */
+    public PatientTable(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * Adds an arriving patient.
+     *
+     * @param patientId   unique patient identifier within the run
+     * @param level       severity level (1–5)
+     * @param arrivalTime simulation arrival time
+     * @return handle of the new row
+     */
+    public int add(int patientId, int level, double arrivalTime) {
+        int h;
+        if (freeCount > 0) {
+            h = free[--freeCount];
+        } else {
+            if (highWater == id.length) {
+                grow();
+            }
+            h = highWater++;
+        }
+        id[h] = patientId;
+        severity[h] = (byte) level;
+        arrival[h] = arrivalTime;
+        serviceStart[h] = -1;
+        serviceEnd[h] = -1;
+        stationEntry[h] = -1;
+        doctor[h] = -1;
+        return h;
+    }
+
+    /**
+     * Releases the row of a departed patient for reuse.
+     *
+     * @param h patient handle
+     */
+    public void release(int h) {
+        free[freeCount++] = h;
+    }
+
+    /**
+     * Removes every patient, keeping the allocated capacity.
+     */
+    public void clear() {
+        freeCount = 0;
+        highWater = 0;
+        growths = 0;
+    }
+
+    /** @return number of patients currently in the table */
+    public int size() {
+        return highWater - freeCount;
+    }
+
+    /** @return number of rows allocated */
+    public int capacity() {
+        return id.length;
+    }
+
+    /** @return number of times the columns were enlarged since the last clear */
+    public int growths() {
+        return growths;
+    }
+
+    /**
+     * Enlarges the columns ahead of time so that at least {@code capacity}
+     * patients fit without growing. Not counted in {@link #growths()}.
+     *
+     * @param capacity number of rows needed
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > id.length) {
+            resize(capacity);
+        }
+    }
+
+    /** @return identifier of patient {@code h} */
+    public int id(int h) {
+        return id[h];
+    }
+
+    /** @return severity of patient {@code h} */
+    public int severity(int h) {
+        return severity[h];
+    }
+
+    /** @return arrival time of patient {@code h} */
+    public double arrival(int h) {
+        return arrival[h];
+    }
+
+    /** @return doctor service start time of patient {@code h} (-1 if not started) */
+    public double serviceStart(int h) {
+        return serviceStart[h];
+    }
+
+    /** Sets the doctor service start time of patient {@code h}. */
+    public void setServiceStart(int h, double t) {
+        serviceStart[h] = t;
+    }
+
+    /** @return doctor service end time of patient {@code h} (-1 if not ended) */
+    public double serviceEnd(int h) {
+        return serviceEnd[h];
+    }
+
+    /** Sets the doctor service end time of patient {@code h}. */
+    public void setServiceEnd(int h, double t) {
+        serviceEnd[h] = t;
+    }
+
+    /** @return time patient {@code h} entered its current pathway station */
+    public double stationEntry(int h) {
+        return stationEntry[h];
+    }
+
+    /** Sets the time patient {@code h} entered its current pathway station. */
+    public void setStationEntry(int h, double t) {
+        stationEntry[h] = t;
+    }
+
+    /** @return doctor index assigned to patient {@code h}, or -1 if none */
+    public int doctor(int h) {
+        return doctor[h];
+    }
+
+    /** Assigns a doctor index to patient {@code h} (-1 for none). */
+    public void setDoctor(int h, int doctorIndex) {
+        doctor[h] = doctorIndex;
+    }
+
+    /**
+     * Copies one row into a detached {@link Patient}.
+     *
+     * @param h       patient handle
+     * @param doctors the engine's doctors, used to resolve the doctor index
+     * @return snapshot of the patient
+     */
+    public Patient get(int h, Doctor[] doctors) {
+        Patient p = new Patient(id[h], severity[h], arrival[h]);
+        p.setServiceStart(serviceStart[h]);
+        p.setServiceEnd(serviceEnd[h]);
+        p.setStationEntry(stationEntry[h]);
+        p.setAssignedDoctor(doctor[h] >= 0 ? doctors[doctor[h]] : null);
+        return p;
+    }
+
+    /**
+     * Writes every used row and the free stack, so that handles stay valid
+     * after {@link #readFrom(DataInput)}.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(highWater);
+        for (int h = 0; h < highWater; h++) {
+            out.writeInt(id[h]);
+            out.writeByte(severity[h]);
+            out.writeDouble(arrival[h]);
+            out.writeDouble(serviceStart[h]);
+            out.writeDouble(serviceEnd[h]);
+            out.writeDouble(stationEntry[h]);
+            out.writeInt(doctor[h]);
+        }
+        out.writeInt(freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            out.writeInt(free[i]);
+        }
+    }
+
+    /**
+     * Replaces the contents with rows written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails
+     */
+    public void readFrom(DataInput in) throws IOException {
+        int rows = in.readInt();
+        if (rows > id.length) {
+            allocate(rows);
+        }
+        for (int h = 0; h < rows; h++) {
+            id[h] = in.readInt();
+            severity[h] = in.readByte();
+            arrival[h] = in.readDouble();
+            serviceStart[h] = in.readDouble();
+            serviceEnd[h] = in.readDouble();
+            stationEntry[h] = in.readDouble();
+            doctor[h] = in.readInt();
+        }
+        highWater = rows;
+        freeCount = in.readInt();
+        for (int i = 0; i < freeCount; i++) {
+            free[i] = in.readInt();
+        }
+    }
+
+    /**
+     * Allocates empty columns of the given size.
+     */
+    private void allocate(int capacity) {
+        id = new int[capacity];
+        severity = new byte[capacity];
+        arrival = new double[capacity];
+        serviceStart = new double[capacity];
+        serviceEnd = new double[capacity];
+        stationEntry = new double[capacity];
+        doctor = new int[capacity];
+        free = new int[capacity];
+    }
+
+    /**
+     * Doubles every column, keeping the used rows.
+     */
+    private void grow() {
+        resize(id.length << 1);
+        growths++;
+    }
+
+    /**
+     * Reallocates every column with a new length, keeping the used rows.
+     */
+    private void resize(int capacity) {
+        id = Arrays.copyOf(id, capacity);
+        severity = Arrays.copyOf(severity, capacity);
+        arrival = Arrays.copyOf(arrival, capacity);
+        serviceStart = Arrays.copyOf(serviceStart, capacity);
+        serviceEnd = Arrays.copyOf(serviceEnd, capacity);
+        stationEntry = Arrays.copyOf(stationEntry, capacity);
+        doctor = Arrays.copyOf(doctor, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+}
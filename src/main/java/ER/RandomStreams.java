@@ -0,0 +1,107 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * RandomStreams provides the independent random number streams of one
+ * simulation run.
+ *
+ * <p>Every stream is derived deterministically from:
+ * <ul>
+ *   <li>The master seed ({@link Config#randomSeed})</li>
+ *   <li>The replication index ({@link Config#replication})</li>
+ *   <li>The {@link Purpose} of the stream</li>
+ * </ul>
+ * Separate streams per purpose keep draws from interfering with each other:
+ * changing how service times are sampled, for example, leaves the arrival
+ * stream untouched (common random numbers across scenarios). Runs executed
+ * in parallel are bit-for-bit reproducible because no stream is shared.
+ */
+public class RandomStreams {
+
+    /**
+     * Purposes that receive their own random number stream.
+     */
+    public enum Purpose {
+        /** Interarrival times and thinning decisions */
+        ARRIVALS,
+        /** Patient severity levels */
+        SEVERITY,
+        /** Service durations at doctors and pathway stations */
+        SERVICE,
+        /** Pathway routing decisions */
+        ROUTING,
+        /** Transfer and diversion decisions between sites of a {@link HospitalNetwork} */
+        TRANSFER
+    }
+
+    /** Streams indexed by {@link Purpose#ordinal()} */
+    private final L64X128Random[] streams;
+
+    /**
+     * Creates the streams of one replication.
+     *
+     * @param seed        master seed (negative = seed from the system clock)
+     * @param replication replication index (0-based)
+     */
+    public RandomStreams(long seed, int replication) {
+        long master = seed >= 0
+                ? seed
+                : System.nanoTime() ^ Thread.currentThread().threadId();
+
+        Purpose[] purposes = Purpose.values();
+        streams = new L64X128Random[purposes.length];
+        for (Purpose p : purposes) {
+            streams[p.ordinal()] = new L64X128Random(substreamSeed(master, replication, p));
+        }
+    }
+
+    /**
+     * Derives the seed of a substream with SplitMix64 mixing, so nearby
+     * master seeds and replication indices give unrelated streams.
+     *
+     * @param master      master seed
+     * @param replication replication index
+     * @param purpose     stream purpose
+     * @return substream seed
+     */
+    public static long substreamSeed(long master, int replication, Purpose purpose) {
+        long z = L64X128Random.mixStafford13(master);
+        z = L64X128Random.mixStafford13(z + 0x9e3779b97f4a7c15L * (replication + 1L));
+        return L64X128Random.mixStafford13(z + 0xbf58476d1ce4e5b9L * (purpose.ordinal() + 1L));
+    }
+
+    /**
+     * Returns the stream for a purpose.
+     *
+     * @param purpose stream purpose
+     * @return random number generator (owned by this run)
+     */
+    public RandomGenerator get(Purpose purpose) {
+        return streams[purpose.ordinal()];
+    }
+
+    /**
+     * Returns the state of every stream, in {@link Purpose} order.
+     *
+     * @return state words per stream
+     */
+    public long[][] getState() {
+        long[][] state = new long[streams.length][];
+        for (int i = 0; i < streams.length; i++) {
+            state[i] = streams[i].getState();
+        }
+        return state;
+    }
+
+    /**
+     * Restores states previously returned by {@link #getState()}.
+     *
+     * @param state state words per stream
+     */
+    public void setState(long[][] state) {
+        for (int i = 0; i < streams.length; i++) {
+            streams[i].setState(state[i]);
+        }
+    }
+}
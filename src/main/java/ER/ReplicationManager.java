@@ -0,0 +1,238 @@
+package ER;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * ReplicationManager runs independent replications of one scenario until
+ * the replication mean of a chosen metric is estimated to a target
+ * relative precision.
+ *
+ * <p>Replications differ only in {@link Config#replication}, which selects
+ * independent random number substreams of the same master seed. The
+ * manager:
+ * <ul>
+ *   <li>Runs an initial wave of {@link Config#replicationMin} replications
+ *       in parallel</li>
+ *   <li>Merges each replication's summary values into across-replication
+ *       {@link RunningStats}, and its wait-time sketch into a pooled
+ *       {@link LogHistogram}</li>
+ *   <li>Computes Student-t confidence intervals for every numeric summary value</li>
+ *   <li>Estimates how many replications the target precision needs and
+ *       runs the shortfall as the next wave, up to
+ *       {@link Config#replicationMax}</li>
+ * </ul>
+ *
+ * <p>Results are merged in replication order and wave sizes depend only
+ * on the data, so the outcome is independent of thread scheduling and of
+ * the number of workers.
+ *
+ * <p>Each replication writes its own outputs to {@code <outputDir>/rep_NN};
+ * the aggregate is written to {@code <outputDir>/summary.csv} and
+ * {@code <outputDir>/replications.csv}, and with
+ * {@link Config#resultsColumnar} a {@link ResultsIndex} of the
+ * replications to {@code <outputDir>/results.idx}.
+ */
+public class ReplicationManager {
+
+    /** Scenario configuration shared by all replications */
+    private final Config base;
+
+    /** Across-replication statistics per numeric summary key */
+    private final Map<String, RunningStats> acrossRuns = new LinkedHashMap<>();
+
+    /** Wait-time sketch pooled over all replications */
+    private final LogHistogram pooledWait = new LogHistogram();
+
+    /** Per-replication value of the controlling metric */
+    private final List<String[]> rows = new ArrayList<>();
+
+    /** Results of every replication, in replication order */
+    private final List<RunResult> results = new ArrayList<>();
+
+    /**
+     * Creates a replication manager for a scenario.
+     *
+     * @param base scenario configuration ({@code replication.*} keys control stopping)
+     */
+    public ReplicationManager(Config base) {
+        this.base = base;
+    }
+
+    /**
+     * Runs replications until the precision target or the replication
+     * limit is reached.
+     *
+     * @return aggregate result; its summary holds {@code <key>_mean} and
+     *         {@code <key>_ci_half_width} for every numeric summary key
+     * @throws IOException if output writing fails
+     */
+    public RunResult run() throws IOException {
+        int min = Math.max(1, base.replicationMin);
+        int max = Math.max(min, base.replicationMax);
+        ExecutorService pool = SimulationEngine.newWorkerPool(base, max, "rep-worker-");
+        try {
+            int done = 0;
+            int wave = min;
+            while (wave > 0) {
+                runWave(pool, done, wave);
+                done += wave;
+                wave = Math.min(max - done, shortfall(done));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, String> summary = summarize();
+        CSVExporter exporter = new CSVExporter(base.outputDir);
+        exporter.writeSummary("summary.csv", summary);
+        exporter.writeCSV(
+                "replications.csv",
+                rows,
+                new String[] { "replication", base.replicationMetric }
+        );
+        if (base.resultsColumnar) {
+            ResultsIndex.write(Paths.get(base.outputDir, "results.idx"), results);
+        }
+
+        return new RunResult(base.outputDir, summary, null, null);
+    }
+
+    /**
+     * Runs replications {@code first .. first + count - 1} in parallel and
+     * merges them in replication order.
+     */
+    private void runWave(ExecutorService pool, int first, int count) throws IOException {
+        List<Future<Replica>> futures = new ArrayList<>(count);
+        for (int r = first; r < first + count; r++) {
+            Config c = base.copy();
+            c.replication = r;
+            c.outputDir = base.outputDir + "/rep_" + String.format("%02d", r);
+            futures.add(pool.submit(() -> {
+                SimulationEngine engine = new SimulationEngine(c);
+                RunResult result = engine.run();
+                return new Replica(result, engine.stats.getWaitSketch(0));
+            }));
+        }
+
+        try {
+            for (int i = 0; i < count; i++) {
+                merge(first + i, futures.get(i).get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Replications interrupted", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Replication failed", cause);
+        }
+    }
+
+    /**
+     * Merges one completed replication into the aggregate statistics.
+     */
+    private void merge(int replication, Replica rep) {
+        Map<String, String> summary = rep.result.summary;
+
+        for (Map.Entry<String, String> e : summary.entrySet()) {
+            try {
+                double v = Double.parseDouble(e.getValue());
+                acrossRuns.computeIfAbsent(e.getKey(), k -> new RunningStats()).add(v);
+            } catch (NumberFormatException ex) {
+                // Non-numeric values are not aggregated
+            }
+        }
+
+        pooledWait.merge(rep.waitSketch);
+        results.add(rep.result);
+        rows.add(new String[] {
+                Integer.toString(replication),
+                summary.getOrDefault(base.replicationMetric, "NA")
+        });
+    }
+
+    /**
+     * Estimates how many more replications are needed to reach the target
+     * relative precision, assuming the sample variance is stable.
+     *
+     * @param n replications completed so far
+     * @return additional replications needed (0 if the target is met)
+     */
+    private int shortfall(int n) {
+        RunningStats m = acrossRuns.get(base.replicationMetric);
+        if (m == null || n < 2) {
+            return m == null ? 0 : 1;
+        }
+        double target = base.replicationPrecision * Math.abs(m.mean());
+        double hw = m.ciHalfWidthT(base.replicationConfidence);
+        if (hw <= target) {
+            return 0;
+        }
+        if (target <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        // Half-width shrinks with sqrt(n)
+        double needed = n * (hw / target) * (hw / target);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.ceil(needed) - n));
+    }
+
+    /**
+     * Builds the aggregate summary map.
+     */
+    private Map<String, String> summarize() {
+        Map<String, String> m = new LinkedHashMap<>();
+        RunningStats metric = acrossRuns.get(base.replicationMetric);
+        int n = rows.size();
+
+        m.put("replications", Integer.toString(n));
+        m.put("replication_metric", base.replicationMetric);
+        if (metric != null) {
+            double hw = metric.ciHalfWidthT(base.replicationConfidence);
+            double rel = metric.mean() != 0 ? hw / Math.abs(metric.mean()) : 0.0;
+            m.put("relative_precision", String.format("%.4f", rel));
+            m.put("converged", Boolean.toString(n >= 2 && rel <= base.replicationPrecision));
+        }
+
+        for (Map.Entry<String, RunningStats> e : acrossRuns.entrySet()) {
+            RunningStats s = e.getValue();
+            m.put(e.getKey() + "_mean", String.format("%.4f", s.mean()));
+            m.put(e.getKey() + "_ci_half_width",
+                    String.format("%.4f", s.ciHalfWidthT(base.replicationConfidence)));
+        }
+
+        m.put("pooled_wait_p50", String.format("%.4f", pooledWait.quantile(0.50)));
+        m.put("pooled_wait_p90", String.format("%.4f", pooledWait.quantile(0.90)));
+        m.put("pooled_wait_p99", String.format("%.4f", pooledWait.quantile(0.99)));
+        return m;
+    }
+
+    /**
+     * Outputs of one replication needed for aggregation.
+     */
+    private static final class Replica {
+
+        /** Run result including the summary map */
+        final RunResult result;
+
+        /** Wait-time sketch over all severities */
+        final LogHistogram waitSketch;
+
+        Replica(RunResult result, LogHistogram waitSketch) {
+            this.result = result;
+            this.waitSketch = waitSketch;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package ER;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultsIndex is a single binary table of the summary values of every run
+ * in a sweep, with pointers to each run's patient column file.
+ *
+ * <p>Queries across runs read one file instead of parsing a
+ * {@code summary.csv} per run. The file layout (big-endian) is:
+ * <ul>
+ *   <li>Magic bytes {@code ERIX}, {@code int} format version,
+ *       {@code int} run count, {@code int} key count</li>
+ *   <li>Key names, then per run its identifier and patient column file
+ *       (empty if none), each as {@code int} length and UTF-8 bytes</li>
+ *   <li>One {@code double} column per key holding the value of every run,
+ *       {@code NaN} where the run has no numeric value for the key</li>
+ * </ul>
+ */
+public class ResultsIndex {
+
+    /** Magic number at the start of an index file ("ERIX") */
+    private static final int MAGIC = 0x45524958;
+
+    /** File format version written after the magic bytes */
+    public static final int VERSION = 1;
+
+    /** Run identifiers in sweep order */
+    private final String[] runIds;
+
+    /** Patient column file of each run ("" if none) */
+    private final String[] patientFiles;
+
+    /** Summary keys, in order of first appearance */
+    private final String[] keys;
+
+    /** Column position of each key */
+    private final Map<String, Integer> keyIndex = new LinkedHashMap<>();
+
+    /** Summary values, one column per key */
+    private final double[][] columns;
+
+    /**
+     * Creates an index from decoded contents.
+     */
+    private ResultsIndex(String[] runIds, String[] patientFiles, String[] keys, double[][] columns) {
+        this.runIds = runIds;
+        this.patientFiles = patientFiles;
+        this.keys = keys;
+        this.columns = columns;
+        for (int k = 0; k < keys.length; k++) {
+            keyIndex.put(keys[k], k);
+        }
+    }
+
+    /**
+     * Writes the index of a list of runs.
+     *
+     * <p>Every summary key that parses as a number in at least one run
+     * becomes a column.
+     *
+     * @param file    index file to create (overwritten if it exists)
+     * @param results runs in sweep order
+     * @throws IOException if writing fails
+     */
+    public static void write(Path file, List<RunResult> results) throws IOException {
+        Map<String, double[]> cols = new LinkedHashMap<>();
+        for (int r = 0; r < results.size(); r++) {
+            for (Map.Entry<String, String> e : results.get(r).summary.entrySet()) {
+                double v;
+                try {
+                    v = Double.parseDouble(e.getValue());
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+                double[] col = cols.get(e.getKey());
+                if (col == null) {
+                    col = new double[results.size()];
+                    Arrays.fill(col, Double.NaN);
+                    cols.put(e.getKey(), col);
+                }
+                col[r] = v;
+            }
+        }
+
+        List<byte[]> strings = new ArrayList<>();
+        for (String k : cols.keySet()) {
+            strings.add(k.getBytes(StandardCharsets.UTF_8));
+        }
+        for (RunResult r : results) {
+            strings.add(r.id.getBytes(StandardCharsets.UTF_8));
+            strings.add((r.patients == null ? "" : r.patients).getBytes(StandardCharsets.UTF_8));
+        }
+
+        long bytes = 16L + (long) cols.size() * results.size() * Double.BYTES;
+        for (byte[] s : strings) {
+            bytes += Integer.BYTES + s.length;
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Results index too large: " + bytes + " bytes");
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate((int) bytes);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(results.size()).putInt(cols.size());
+        for (byte[] s : strings) {
+            buf.putInt(s.length).put(s);
+        }
+        for (double[] col : cols.values()) {
+            buf.asDoubleBuffer().put(col);
+            buf.position(buf.position() + col.length * Double.BYTES);
+        }
+        buf.flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        try (FileChannel ch = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+        }
+    }
+
+    /**
+     * Reads an index file.
+     *
+     * @param file index file
+     * @return decoded index
+     * @throws IOException if the file cannot be read or is not an index
+     */
+    public static ResultsIndex read(Path file) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        if (buf.limit() < 16 || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+            throw new IOException("Not a results index: " + file);
+        }
+        int runs = buf.getInt();
+        int keyCount = buf.getInt();
+
+        String[] keys = new String[keyCount];
+        for (int k = 0; k < keyCount; k++) {
+            keys[k] = readString(buf);
+        }
+        String[] ids = new String[runs];
+        String[] patients = new String[runs];
+        for (int r = 0; r < runs; r++) {
+            ids[r] = readString(buf);
+            patients[r] = readString(buf);
+        }
+
+        double[][] columns = new double[keyCount][runs];
+        for (int k = 0; k < keyCount; k++) {
+            buf.asDoubleBuffer().get(columns[k]);
+            buf.position(buf.position() + runs * Double.BYTES);
+        }
+        return new ResultsIndex(ids, patients, keys, columns);
+    }
+
+    /**
+     * Decodes a length-prefixed UTF-8 string.
+     */
+    private static String readString(ByteBuffer buf) {
+        byte[] b = new byte[buf.getInt()];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /** @return number of runs in the index */
+    public int runCount() {
+        return runIds.length;
+    }
+
+    /** @return identifier of run {@code r} */
+    public String runId(int r) {
+        return runIds[r];
+    }
+
+    /**
+     * Opens the patient column file of a run.
+     *
+     * @param r run position
+     * @return reader over the run's patient records, or null if the run has none
+     * @throws IOException if the file cannot be read
+     */
+    public PatientColumnReader patients(int r) throws IOException {
+        return patientFiles[r].isEmpty() ? null : new PatientColumnReader(Path.of(patientFiles[r]));
+    }
+
+    /** @return summary keys in the index */
+    public List<String> keys() {
+        return List.of(keys);
+    }
+
+    /**
+     * Returns the values of one summary key for every run.
+     *
+     * @param key summary key
+     * @return values in run order ({@code NaN} where missing), or null if
+     *         no run has the key
+     */
+    public double[] column(String key) {
+        Integer k = keyIndex.get(key);
+        return k == null ? null : columns[k].clone();
+    }
+
+    /**
+     * Returns the value of one summary key for one run.
+     *
+     * @param r   run position
+     * @param key summary key
+     * @return value, or {@code NaN} if the run has no value for the key
+     */
+    public double value(int r, String key) {
+        Integer k = keyIndex.get(key);
+        return k == null ? Double.NaN : columns[k][r];
+    }
+}
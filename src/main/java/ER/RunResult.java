@@ -9,7 +9,8 @@ import java.util.Map;
  * <ul>
  *   <li>Run identifier</li>
  *   <li>Summary performance metrics</li>
- *   <li>Paths to generated CSV output files</li>
+ *   <li>Paths to generated CSV and binary output files</li>
+ *   <li>Engine performance telemetry</li>
  * </ul>
  *
  * <p>Instances of this class are returned by batch executions and
@@ -29,6 +30,12 @@ public class RunResult {
     /** Path to the event log output file */
     public final String events;
 
+    /** Engine performance telemetry (may be null) */
+    public final RunTelemetry telemetry;
+
+    /** Path to the per-patient column file (may be null) */
+    public final String patients;
+
     /**
      * Constructs a new RunResult.
      *
@@ -42,10 +49,52 @@ public class RunResult {
             Map<String, String> summary,
             String timeseries,
             String events
+    ) {
+        this(id, summary, timeseries, events, null);
+    }
+
+    /**
+     * Constructs a new RunResult with engine telemetry.
+     *
+     * @param id         unique run identifier
+     * @param summary    map of summary statistics
+     * @param timeseries path to time-series output
+     * @param events     path to event log output
+     * @param telemetry  engine performance telemetry
+     */
+    public RunResult(
+            String id,
+            Map<String, String> summary,
+            String timeseries,
+            String events,
+            RunTelemetry telemetry
+    ) {
+        this(id, summary, timeseries, events, telemetry, null);
+    }
+
+    /**
+     * Constructs a new RunResult with engine telemetry and patient records.
+     *
+     * @param id         unique run identifier
+     * @param summary    map of summary statistics
+     * @param timeseries path to time-series output
+     * @param events     path to event log output
+     * @param telemetry  engine performance telemetry
+     * @param patients   path to the per-patient column file
+     */
+    public RunResult(
+            String id,
+            Map<String, String> summary,
+            String timeseries,
+            String events,
+            RunTelemetry telemetry,
+            String patients
     ) {
         this.id = id;
         this.summary = summary;
         this.timeseries = timeseries;
         this.events = events;
+        this.telemetry = telemetry;
+        this.patients = patients;
     }
 }
@@ -0,0 +1,196 @@
+package ER;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+
+/**
+ * RunTelemetry holds engine-level performance metrics for a single
+ * simulation run.
+ *
+ * <p>Metrics collected:
+ * <ul>
+ *   <li>Wall-clock time and events processed per second</li>
+ *   <li>Peak future event list and waiting queue sizes</li>
+ *   <li>Events the {@link EventPool} had to create rather than reuse</li>
+ *   <li>Bytes allocated by the run's thread</li>
+ *   <li>Garbage collections and GC time during the run</li>
+ * </ul>
+ *
+ * <p>GC counts come from the JVM-wide collector beans, so when runs execute
+ * in parallel they include collections triggered by concurrent runs.
+ * Allocated bytes are per thread and are reported as -1 when the JVM does
+ * not support thread allocation accounting (including on virtual threads).
+ */
+public class RunTelemetry {
+
+    /** Wall-clock duration of the run (seconds) */
+    public final double wallSeconds;
+
+    /** Number of events executed */
+    public final long eventsProcessed;
+
+    /** Peak number of pending events in the future event list */
+    public final int peakEventListSize;
+
+    /** Peak number of patients waiting in the queue between events */
+    public final int peakQueueSize;
+
+    /** Events created by the engine's {@link EventPool} during the run */
+    public final long eventsAllocated;
+
+    /** Bytes allocated by the run thread (-1 if unavailable) */
+    public final long allocatedBytes;
+
+    /** Garbage collections during the run */
+    public final long gcCount;
+
+    /** Time spent in garbage collection during the run (milliseconds) */
+    public final long gcMillis;
+
+    /**
+     * Constructs a telemetry record.
+     *
+     * @param wallSeconds       wall-clock duration (seconds)
+     * @param eventsProcessed   number of events executed
+     * @param peakEventListSize peak future event list size
+     * @param peakQueueSize     peak waiting queue size
+     * @param eventsAllocated   events created by the event pool
+     * @param allocatedBytes    bytes allocated by the run thread, or -1
+     * @param gcCount           garbage collections during the run
+     * @param gcMillis          GC time during the run (milliseconds)
+     */
+    public RunTelemetry(
+            double wallSeconds,
+            long eventsProcessed,
+            int peakEventListSize,
+            int peakQueueSize,
+            long eventsAllocated,
+            long allocatedBytes,
+            long gcCount,
+            long gcMillis
+    ) {
+        this.wallSeconds = wallSeconds;
+        this.eventsProcessed = eventsProcessed;
+        this.peakEventListSize = peakEventListSize;
+        this.peakQueueSize = peakQueueSize;
+        this.eventsAllocated = eventsAllocated;
+        this.allocatedBytes = allocatedBytes;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    /**
+     * Returns the event processing rate.
+     *
+     * @return events per wall-clock second (0 if the run took no measurable time)
+     */
+    public double eventsPerSecond() {
+        return wallSeconds > 0 ? eventsProcessed / wallSeconds : 0.0;
+    }
+
+    /**
+     * Adds the telemetry metrics to a summary map.
+     *
+     * @param m summary map to extend
+     */
+    public void addTo(Map<String, String> m) {
+        m.put("wall_seconds", String.format("%.4f", wallSeconds));
+        m.put("events_processed", Long.toString(eventsProcessed));
+        m.put("events_per_second", String.format("%.1f", eventsPerSecond()));
+        m.put("peak_event_list", Integer.toString(peakEventListSize));
+        m.put("peak_queue", Integer.toString(peakQueueSize));
+        m.put("events_allocated", Long.toString(eventsAllocated));
+        m.put("allocated_bytes", Long.toString(allocatedBytes));
+        m.put("gc_count", Long.toString(gcCount));
+        m.put("gc_millis", Long.toString(gcMillis));
+    }
+
+    /**
+     * Meter captures baseline readings at the start of a run and produces
+     * a {@link RunTelemetry} at the end.
+     *
+     * <p>A meter must be started and stopped on the same thread.
+     */
+    static final class Meter {
+
+        private long startNanos;
+        private long startEvents;
+        private long startAllocated;
+        private long startGcCount;
+        private long startGcMillis;
+
+        /**
+         * Records baseline readings.
+         *
+         * @param eventsAllocated events created by the event pool so far
+         */
+        void start(long eventsAllocated) {
+            startEvents = eventsAllocated;
+            startAllocated = threadAllocatedBytes();
+            startGcCount = gcCount();
+            startGcMillis = gcMillis();
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * Produces the telemetry for the interval since {@link #start(long)}.
+         *
+         * @param events          events processed
+         * @param eventsAllocated events created by the event pool so far
+         * @param peakEventList   peak future event list size
+         * @param peakQueue       peak waiting queue size
+         * @return telemetry record
+         */
+        RunTelemetry stop(long events, long eventsAllocated, int peakEventList, int peakQueue) {
+            double wall = (System.nanoTime() - startNanos) / 1e9;
+            long allocated = threadAllocatedBytes();
+            return new RunTelemetry(
+                    wall,
+                    events,
+                    peakEventList,
+                    peakQueue,
+                    eventsAllocated - startEvents,
+                    allocated < 0 ? -1 : allocated - startAllocated,
+                    gcCount() - startGcCount,
+                    gcMillis() - startGcMillis
+            );
+        }
+
+        /**
+         * Returns bytes allocated so far by the current thread, or -1.
+         */
+        private static long threadAllocatedBytes() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean sun
+                    && sun.isThreadAllocatedMemorySupported()
+                    && sun.isThreadAllocatedMemoryEnabled()) {
+                return sun.getCurrentThreadAllocatedBytes();
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the total number of collections across all collectors.
+         */
+        private static long gcCount() {
+            long total = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                total += Math.max(0, gc.getCollectionCount());
+            }
+            return total;
+        }
+
+        /**
+         * Returns the total collection time across all collectors.
+         */
+        private static long gcMillis() {
+            long total = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                total += Math.max(0, gc.getCollectionTime());
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package ER;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * RunningStats is a streaming accumulator for a sequence of observations.
+ *
+ * <p>All summary statistics are maintained incrementally on primitive fields
+ * using Welford's algorithm, so recording an observation is O(1) and never
+ * allocates. This class provides:
+ * <ul>
+ *   <li>Count, mean, variance and standard deviation</li>
+ *   <li>Minimum and maximum</li>
+ *   <li>Confidence interval half-widths for the mean</li>
+ *   <li>Optional retention of raw samples in a growable {@code double[]}</li>
+ *   <li>Merging of accumulators from independent runs</li>
+ * </ul>
+ */
+public final class RunningStats {
+
+    /** Two-sided 95% standard normal quantile */
+    public static final double Z_95 = 1.959963984540054;
+
+    /** Initial capacity of the sample buffer when samples are retained */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Number of observations recorded */
+    private long count = 0;
+
+    /** Running mean */
+    private double mean = 0.0;
+
+    /** Running sum of squared deviations from the mean */
+    private double m2 = 0.0;
+
+    /** Smallest observation */
+    private double min = Double.POSITIVE_INFINITY;
+
+    /** Largest observation */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /** Whether raw observations are retained */
+    private final boolean keepSamples;
+
+    /** Raw observations (only when {@link #keepSamples} is set) */
+    private double[] samples;
+
+    /** Number of times the sample buffer had to be enlarged */
+    private int growths = 0;
+
+    /**
+     * Creates an accumulator that does not retain raw samples.
+     */
+    public RunningStats() {
+        this(false);
+    }
+
+    /**
+     * Creates an accumulator.
+     *
+     * @param keepSamples {@code true} to retain every observation
+     */
+    public RunningStats(boolean keepSamples) {
+        this.keepSamples = keepSamples;
+        this.samples = keepSamples ? new double[INITIAL_CAPACITY] : null;
+    }
+
+    /**
+     * Records an observation.
+     *
+     * @param x observed value
+     */
+    public void add(double x) {
+        if (keepSamples) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, samples.length << 1);
+                growths++;
+            }
+            samples[(int) count] = x;
+        }
+
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+
+        if (x < min) min = x;
+        if (x > max) max = x;
+    }
+
+    /**
+     * Merges another accumulator into this one (Chan et al. parallel update).
+     *
+     * <p>Both accumulators must agree on sample retention, so that a
+     * retaining accumulator always holds every observation it counts.
+     *
+     * @param other accumulator to merge
+     * @throws IllegalArgumentException if only one accumulator retains samples
+     */
+    public void merge(RunningStats other) {
+        if (keepSamples != other.keepSamples) {
+            throw new IllegalArgumentException("Cannot merge accumulators that differ in sample retention");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (keepSamples) {
+            int needed = (int) (count + other.count);
+            if (needed > samples.length) {
+                samples = Arrays.copyOf(samples, Math.max(needed, samples.length << 1));
+                growths++;
+            }
+            System.arraycopy(other.samples, 0, samples, (int) count, (int) other.count);
+        }
+
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / n;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        count = n;
+
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Discards all observations.
+     */
+    public void reset() {
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /** @return number of observations */
+    public long count() {
+        return count;
+    }
+
+    /** @return mean of observations, or 0 if none */
+    public double mean() {
+        return mean;
+    }
+
+    /** @return unbiased sample variance, or 0 with fewer than two observations */
+    public double variance() {
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+
+    /** @return sample standard deviation */
+    public double stdDev() {
+        return Math.sqrt(variance());
+    }
+
+    /** @return smallest observation, or 0 if none */
+    public double min() {
+        return count == 0 ? 0.0 : min;
+    }
+
+    /** @return largest observation, or 0 if none */
+    public double max() {
+        return count == 0 ? 0.0 : max;
+    }
+
+    /**
+     * Returns the half-width of a confidence interval for the mean.
+     *
+     * <p>Observations are treated as independent, which understates the
+     * interval for autocorrelated within-run data such as successive waits.
+     *
+     * @param z standard normal quantile (e.g., {@link #Z_95})
+     * @return half-width {@code z * s / sqrt(n)}, or 0 with fewer than two observations
+     */
+    public double ciHalfWidth(double z) {
+        return count > 1 ? z * stdDev() / Math.sqrt(count) : 0.0;
+    }
+
+    /**
+     * Returns the half-width of a Student-t confidence interval for the mean.
+     *
+     * <p>Intended for small numbers of independent observations, such as
+     * per-replication averages.
+     *
+     * @param confidence two-sided confidence level (e.g., 0.95)
+     * @return half-width {@code t * s / sqrt(n)}, or 0 with fewer than two observations
+     */
+    public double ciHalfWidthT(double confidence) {
+        if (count < 2) {
+            return 0.0;
+        }
+        double t = tQuantile(0.5 + confidence / 2, count - 1);
+        return t * stdDev() / Math.sqrt(count);
+    }
+
+    /**
+     * Returns a quantile of Student's t distribution.
+     *
+     * <p>Exact for 1 and 2 degrees of freedom; otherwise uses the
+     * Cornish–Fisher expansion around the normal quantile, which is within
+     * 0.004 at 3 degrees of freedom and within 0.001 from 4 upward.
+     *
+     * @param p  probability (0 &lt; p &lt; 1)
+     * @param df degrees of freedom (at least 1)
+     * @return quantile {@code t} with {@code P(T <= t) = p}
+     */
+    public static double tQuantile(double p, long df) {
+        if (df == 1) {
+            return Math.tan(Math.PI * (p - 0.5));
+        }
+        if (df == 2) {
+            return (2 * p - 1) * Math.sqrt(2 / (4 * p * (1 - p)));
+        }
+
+        double z = normalQuantile(p);
+        double z2 = z * z;
+        double v = df;
+        return z
+                + z * (z2 + 1) / (4 * v)
+                + z * ((5 * z2 + 16) * z2 + 3) / (96 * v * v)
+                + z * (((3 * z2 + 19) * z2 + 17) * z2 - 15) / (384 * v * v * v)
+                + z * ((((79 * z2 + 776) * z2 + 1482) * z2 - 1920) * z2 - 945) / (92160 * v * v * v * v);
+    }
+
+    /**
+     * Returns a quantile of the standard normal distribution using Acklam's
+     * rational approximation (relative error below 1.2e-9).
+     *
+     * @param p probability (0 &lt; p &lt; 1)
+     * @return quantile {@code z} with {@code P(Z <= z) = p}
+     */
+    public static double normalQuantile(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Probability must be in (0, 1)");
+        }
+        final double[] a = {
+                -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00
+        };
+        final double[] b = {
+                -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01
+        };
+        final double[] c = {
+                -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00
+        };
+        final double[] d = {
+                7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00
+        };
+
+        double pLow = 0.02425;
+        if (p < pLow || p > 1 - pLow) {
+            // Tails
+            double q = Math.sqrt(-2 * Math.log(p < pLow ? p : 1 - p));
+            double x = (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+            return p < pLow ? x : -x;
+        }
+
+        // Central region
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /**
+     * Writes the accumulator state, including retained samples.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeBoolean(keepSamples);
+        if (keepSamples) {
+            for (int i = 0; i < count; i++) {
+                out.writeDouble(samples[i]);
+            }
+        }
+    }
+
+    /**
+     * Replaces the accumulator state with one written by
+     * {@link #writeTo(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails, or if this accumulator retains
+     *                     samples but the saved one did not
+     */
+    public void readFrom(DataInput in) throws IOException {
+        count = in.readLong();
+        mean = in.readDouble();
+        m2 = in.readDouble();
+        min = in.readDouble();
+        max = in.readDouble();
+
+        boolean saved = in.readBoolean();
+        if (keepSamples && !saved) {
+            throw new IOException("Checkpoint has no retained samples");
+        }
+        if (saved) {
+            if (keepSamples && samples.length < count) {
+                samples = new double[(int) Math.max(count, INITIAL_CAPACITY)];
+            }
+            for (int i = 0; i < count; i++) {
+                double x = in.readDouble();
+                if (keepSamples) {
+                    samples[i] = x;
+                }
+            }
+        }
+    }
+
+    /**
+     * Enlarges the sample buffer ahead of time so that at least
+     * {@code observations} samples fit without growing. Has no effect when
+     * samples are not retained, and is not counted in {@link #growths()}.
+     *
+     * @param observations number of samples expected
+     */
+    public void ensureCapacity(int observations) {
+        if (keepSamples && observations > samples.length) {
+            samples = Arrays.copyOf(samples, observations);
+        }
+    }
+
+    /**
+     * Returns the number of times the sample buffer has been enlarged
+     * while recording.
+     *
+     * @return buffer growth count
+     */
+    public int growths() {
+        return growths;
+    }
+
+    /** @return {@code true} if raw observations are retained */
+    public boolean keepsSamples() {
+        return keepSamples;
+    }
+
+    /**
+     * Returns a retained observation.
+     *
+     * @param i observation index (0-based, in recording order)
+     * @return observed value
+     * @throws IllegalStateException if samples are not retained
+     */
+    public double sample(int i) {
+        if (!keepSamples) {
+            throw new IllegalStateException("Samples are not retained");
+        }
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return samples[i];
+    }
+}
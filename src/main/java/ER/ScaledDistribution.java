@@ -0,0 +1,39 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Another distribution stretched by a constant factor: every sample is
+ * multiplied by the factor, so the mean and standard deviation scale with
+ * it and the shape is kept.
+ */
+public class ScaledDistribution implements Distribution {
+
+    /** Distribution providing the shape */
+    private final Distribution base;
+
+    /** Factor applied to every sample */
+    private final double factor;
+
+    /**
+     * @param base   distribution providing the shape
+     * @param factor factor applied to every sample (must be positive)
+     */
+    public ScaledDistribution(Distribution base, double factor) {
+        if (!(factor > 0)) {
+            throw new IllegalArgumentException("Scale factor must be positive");
+        }
+        this.base = base;
+        this.factor = factor;
+    }
+
+    @Override
+    public double sample(RandomGenerator rng) {
+        return factor * base.sample(rng);
+    }
+
+    @Override
+    public double mean() {
+        return factor * base.mean();
+    }
+}
@@ -8,7 +8,7 @@ package ER;
  *   <li>Records the patient's service end time</li>
  *   <li>Updates statistics</li>
  *   <li>Releases the assigned doctor</li>
- *   <li>Schedules a departure event</li>
+ *   <li>Routes the patient to the next pathway station, or departs the patient</li>
  * </ul>
  *
  * <p>Service completion frees system resources and enables
@@ -16,38 +16,58 @@ package ER;
  */
 public class ServiceEndEvent extends Event {
 
-    /** Patient whose service has completed */
-    private final Patient patient;
+    /** Handle of the patient whose service has completed */
+    private int patient;
 
     /**
      * Constructs a service end event.
      *
      * @param time    simulation time service ends
-     * @param patient patient completing service
+     * @param patient handle of the patient completing service
      */
-    public ServiceEndEvent(double time, Patient patient) {
+    public ServiceEndEvent(double time, int patient) {
         super(time);
         this.patient = patient;
     }
 
+    /**
+     * Reinitialises a recycled event (see {@link EventPool}).
+     *
+     * @param time    simulation time service ends
+     * @param patient handle of the patient completing service
+     * @return this event
+     */
+    ServiceEndEvent reset(double time, int patient) {
+        this.time = time;
+        this.patient = patient;
+        return this;
+    }
+
+    /** @return handle of the patient completing service */
+    public int getPatient() {
+        return patient;
+    }
+
     /**
      * Executes the service completion logic.
      *
      * <p>Updates patient records, frees the doctor,
-     * logs statistics, and schedules a departure event.
+     * logs statistics, and routes the patient onward.
      *
      * @param engine simulation engine
      */
     @Override
     public void execute(SimulationEngine engine) {
 
-        Doctor doc = patient.getAssignedDoctor();
+        PatientTable patients = engine.patients;
+        int docIndex = patients.doctor(patient);
+        Doctor doc = docIndex >= 0 ? engine.doctors[docIndex] : null;
 
         // Record service completion
-        patient.setServiceEnd(time);
+        patients.setServiceEnd(patient, time);
         engine.stats.recordServiceEnd(
-                patient,
-                patient.getServiceStart(),
+                patients.severity(patient),
+                patients.serviceStart(patient),
                 time
         );
 
@@ -56,14 +76,10 @@ public class ServiceEndEvent extends Event {
             doc.setBusy(false, time);
         }
 
-        System.out.printf(
-                "Time %.3f: Service end %s by %s%n",
-                time,
-                patient,
-                doc
-        );
+        // Trace service completion
+        engine.trace.serviceEnd(time, patients.id(patient), patients.severity(patient), doc);
 
-        // Schedule patient departure
-        engine.scheduleEvent(new DepartureEvent(time, patient));
+        // Route to the next pathway station or depart immediately
+        engine.routeFrom(engine.doctorStation(), patient, time);
     }
 }
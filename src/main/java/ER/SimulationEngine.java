@@ -1,12 +1,29 @@
 package ER;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.PriorityQueue;
-import java.util.Random;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.random.RandomGenerator;
 
 /**
  * SimulationEngine implements the core discrete-event simulation (DES)
@@ -17,10 +34,14 @@ import java.util.Map;
  * <p>This engine manages:
  * <ul>
  *   <li>Event scheduling and execution</li>
- *   <li>Patient arrivals and departures</li>
+ *   <li>Patient arrivals (via an {@link ArrivalGenerator}) and departures,
+ *       with patient state held in a {@link PatientTable}</li>
  *   <li>Doctor resource allocation</li>
  *   <li>Queue handling</li>
  *   <li>Statistical data collection</li>
+ *   <li>Periodic checkpoints and resumption from them</li>
+ *   <li>In-memory snapshots from which what-if branches continue with
+ *       changed parameters</li>
  * </ul>
  *
  * <p>The simulation proceeds by repeatedly executing the earliest
@@ -29,14 +50,53 @@ import java.util.Map;
 public class SimulationEngine {
 
     /** Emergency department waiting queue */
-    public EDQueue queue = new EDQueue();
+    public PatientQueue queue = new EDQueue();
 
-    /** Future event list (priority queue ordered by event time) */
-    private PriorityQueue<Event> eventQueue = new PriorityQueue<>();
+    /** Columns of every patient currently in the system, addressed by handle */
+    public final PatientTable patients = new PatientTable();
+
+    /** Future event list (ordered by event time, FIFO among equal times) */
+    private FutureEventList eventQueue = new CalendarEventList();
+
+    /** Recycled event instances */
+    private final EventPool events = new EventPool();
+
+    /** Sequence number assigned to the next scheduled event */
+    private long eventSeq = 0;
+
+    /** Number of events executed by the last (or current) run */
+    private long eventsProcessed = 0;
+
+    /** Peak future event list size during the current run */
+    private int peakEventList = 0;
+
+    /** Peak waiting queue size (between events) during the current run */
+    private int peakQueue = 0;
+
+    /** Telemetry of the most recent run (null before the first run) */
+    private RunTelemetry telemetry;
+
+    /** Telemetry meter of the current run, started by {@link #begin(Path)} */
+    private RunTelemetry.Meter meter;
+
+    /** Structure growth counts when the current run's event loop started */
+    private int[] growthsAtStart;
+
+    /** Whether the waiting queue must support concurrent access */
+    private boolean concurrentQueue = false;
 
     /** Doctor resources */
     public Doctor[] doctors;
 
+    /** Idle-doctor pool used to find free doctors in O(1) */
+    private DoctorPool doctorPool;
+
+    /** Multi-stage routing graph (null = single doctor visit per patient) */
+    private Pathway pathway;
+
+    /** Run-time state of the non-doctor pathway stations (null without a pathway) */
+    public StationNetwork stations;
+
     /** Statistics collector */
     public StatsCollector stats;
 
@@ -52,15 +112,128 @@ public class SimulationEngine {
     /** Service rate (patients per minute) */
     public double serviceRate;
 
+    /** Doctor service-time distribution per severity (index = severity - 1) */
+    private Distribution[] serviceBySeverity;
+
     /** Number of doctors */
     public int numDoctors;
 
-    /** Random number generator */
-    private Random rand = new Random();
+    /** Policy choosing among idle doctors */
+    private AssignmentPolicy doctorPolicy;
+
+    /** Independent random number streams of this run */
+    private RandomStreams streams;
+
+    /** Stream for service durations */
+    private RandomGenerator serviceRng;
+
+    /** Stream for pathway routing decisions */
+    private RandomGenerator routingRng;
+
+    /** Arrival time and severity stream */
+    private ArrivalGenerator arrivals;
 
     /** Run identifier (used for output directory naming) */
     private String runId = "run";
 
+    /** Whether the summary and time series are written when the run finishes */
+    private boolean outputFiles = true;
+
+    /** Per-run patient counter used to assign unique IDs */
+    private int patientCounter = 0;
+
+    /** Sink receiving per-event trace records (no-op unless tracing events) */
+    public TraceSink trace = NoOpTraceSink.INSTANCE;
+
+    /** Site of a {@link HospitalNetwork} this engine simulates (null for a standalone ED) */
+    public HospitalSite site;
+
+    /** Amount of console and trace output produced by this engine */
+    private TraceLevel traceLevel = TraceLevel.OFF;
+
+    /** Trace sink kind opened at {@link TraceLevel#EVENTS} */
+    private String traceSinkKind = "none";
+
+    /** End of the fixed warm-up period (minutes, 0 = no fixed warm-up) */
+    private double warmupEnd = 0;
+
+    /** Whether statistics are still waiting to be cleared at {@link #warmupEnd} */
+    private boolean warmupPending = false;
+
+    /** Doctor busy time accumulated before the warm-up ended */
+    private double[] busyAtWarmup;
+
+    /** Checkpoint file magic number ("ERCK") */
+    private static final int CHECKPOINT_MAGIC = 0x4552434B;
+
+    /** Checkpoint format version */
+    private static final int CHECKPOINT_VERSION = 5;
+
+    /** Checkpoint event type tags */
+    private static final byte EV_ARRIVAL = 1;
+    private static final byte EV_SERVICE_END = 2;
+    private static final byte EV_DEPARTURE = 3;
+    private static final byte EV_STATION = 4;
+
+    /** Master seed of the random number streams (-1 = unseeded) */
+    private long randomSeed = -1;
+
+    /** Replication index of the random number streams */
+    private int replication = 0;
+
+    /** Simulated minutes between checkpoints (0 = no checkpoints) */
+    private double checkpointInterval = 0;
+
+    /** Checkpoint file written periodically and read on resume */
+    private Path checkpointPath;
+
+    /** Whether {@link #run()} resumes from an existing checkpoint file */
+    private boolean checkpointResume = false;
+
+    /** Simulation time at or after which the next checkpoint is written */
+    private double nextCheckpoint = Double.POSITIVE_INFINITY;
+
+    /** Whether departed patients are recorded in a column file */
+    private boolean resultsColumnar = false;
+
+    /** Maximum rows per block of the patient column file */
+    private int resultsBlockRows = PatientColumnWriter.DEFAULT_BLOCK_ROWS;
+
+    /** Column file receiving departed patients (null when not recording) */
+    private PatientColumnWriter patientColumns;
+
+    /** Per-patient event log format (none, csv, binary) */
+    private String eventLogKind = "none";
+
+    /** Records per event log batch */
+    private int eventLogBatchSize = 4096;
+
+    /** Event log batches available before the overflow policy applies */
+    private int eventLogBatches = 4;
+
+    /** What the event log does when its writer falls behind */
+    private OverflowPolicy eventLogOverflow = OverflowPolicy.DROP;
+
+    /** Streaming log of patient journeys (null when not logging) */
+    private PatientEventLog eventLog;
+
+    /** Time-series sampling interval (minutes, 0 = disabled) */
+    private double timeseriesInterval = 0;
+
+    /** Capacities structures are presized to (null = grow on demand) */
+    private CapacityPlan capacityPlan;
+
+    /** Whether structures enlarged during a run are reported */
+    private boolean capacityStrict = false;
+
+    /** Structures whose growth is counted, in {@link #growthCounts()} order */
+    private static final String[] GROWTH_NAMES = {
+            "patient table", "waiting queue", "station queues", "statistics buffers"
+    };
+
+    /** Time-series sampler for the current run (null when disabled) */
+    private TimeSeriesSampler sampler;
+
     /**
      * Primary constructor using explicit parameters.
      *
@@ -77,13 +250,20 @@ public class SimulationEngine {
     ) {
         this.arrivalRate = arrivalRatePerMinute;
         this.serviceRate = serviceRatePerMinute;
+        this.serviceBySeverity = new Distribution[Patient.SEVERITY_LEVELS];
+        Arrays.fill(serviceBySeverity, new ExponentialDistribution(1.0 / serviceRatePerMinute));
         this.numDoctors = numDoctors;
         this.endTime = endTimeMinutes;
 
-        doctors = new Doctor[numDoctors];
-        for (int i = 0; i < numDoctors; i++) {
-            doctors[i] = new Doctor("D" + (i + 1));
-        }
+        initStreams(new RandomStreams(-1, 0));
+        this.arrivals = new ArrivalGenerator(
+                arrivalRatePerMinute, null, null,
+                ArrivalGenerator.DEFAULT_BATCH_SIZE,
+                streams.get(RandomStreams.Purpose.ARRIVALS),
+                streams.get(RandomStreams.Purpose.SEVERITY)
+        );
+
+        createDoctors(AssignmentPolicy.FIRST_FREE);
 
         stats = new StatsCollector();
     }
@@ -94,7 +274,8 @@ public class SimulationEngine {
      * <p>Automatically converts:
      * <ul>
      *   <li>Arrival rate (per hour → per minute)</li>
-     *   <li>Service mean (minutes → rate)</li>
+     *   <li>Service mean (minutes → rate), rescaling any configured
+     *       service distributions to it</li>
      *   <li>Simulation hours → minutes</li>
      * </ul>
      *
@@ -103,59 +284,347 @@ public class SimulationEngine {
     public SimulationEngine(Config c) {
         this.arrivalRate = c.arrivalRatePerHour / 60.0;
         this.serviceRate = 1.0 / c.serviceMeanMinutes;
+        this.serviceBySeverity = new Distribution[Patient.SEVERITY_LEVELS];
+
+        // A scenario's service mean stretches the configured distributions
+        double serviceScale = c.serviceMeanMinutes / c.serviceDistributionMean;
+        for (int i = 0; i < serviceBySeverity.length; i++) {
+            Distribution d = c.serviceDistributionBySeverity[i] != null
+                    ? c.serviceDistributionBySeverity[i]
+                    : c.serviceDistribution;
+            serviceBySeverity[i] = d != null
+                    ? d.scaledBy(serviceScale)
+                    : new ExponentialDistribution(c.serviceMeanMinutes);
+        }
         this.numDoctors = c.numDoctors;
         this.endTime = c.simHours * 60.0;
         this.runId = c.outputDir != null ? c.outputDir : ("run_seed_" + c.randomSeed);
+        this.outputFiles = c.outputFiles;
+
+        this.randomSeed = c.randomSeed;
+        this.replication = c.replication;
+        initStreams(new RandomStreams(c.randomSeed, c.replication));
+        this.arrivals = new ArrivalGenerator(
+                arrivalRate,
+                c.arrivalHourlyProfile,
+                c.arrivalDailyProfile,
+                c.arrivalBatchSize,
+                streams.get(RandomStreams.Purpose.ARRIVALS),
+                streams.get(RandomStreams.Purpose.SEVERITY)
+        );
+
+        this.traceLevel = c.traceLevel;
+        this.traceSinkKind = c.traceSink;
+        this.timeseriesInterval = c.timeseriesIntervalMinutes;
+        this.eventQueue = FutureEventList.create(c.eventList);
+        this.concurrentQueue = c.queueConcurrent;
+        this.pathway = c.pathway;
+        this.stations = pathway != null ? new StationNetwork(pathway) : null;
+
+        createDoctors(c.doctorPolicy);
+
+        stats = new StatsCollector(c.statsKeepSamples, c.warmupMode, c.batchMeansCount);
+        this.warmupEnd = c.warmupMode == WarmupMode.FIXED ? c.warmupMinutes : 0;
+
+        this.checkpointInterval = c.checkpointIntervalMinutes;
+        this.checkpointResume = c.checkpointResume;
+        this.resultsColumnar = c.resultsColumnar;
+        this.resultsBlockRows = c.resultsBlockRows;
+        this.eventLogKind = c.eventLog;
+        this.eventLogBatchSize = c.eventLogBatchSize;
+        this.eventLogBatches = c.eventLogBatches;
+        this.eventLogOverflow = c.eventLogOverflow;
+        this.checkpointPath = Paths.get(runId).resolve(
+                c.checkpointFile == null || c.checkpointFile.isBlank() ? "checkpoint.bin" : c.checkpointFile);
+
+        this.capacityStrict = c.capacityStrict;
+        if (c.capacityPresize) {
+            capacityPlan = CapacityPlan.estimate(arrivals.expectedArrivals(endTime), c.capacityZ);
+            if (stations != null) {
+                stations.setQueueCapacity(capacityPlan.arrivalsPerSeverity());
+            }
+        }
+    }
 
-        this.rand = (c.randomSeed >= 0)
-                ? new Random(c.randomSeed)
-                : new Random();
+    /**
+     * Installs the random number streams used by this engine.
+     *
+     * @param s random number streams of the run
+     */
+    private void initStreams(RandomStreams s) {
+        this.streams = s;
+        this.serviceRng = s.get(RandomStreams.Purpose.SERVICE);
+        this.routingRng = s.get(RandomStreams.Purpose.ROUTING);
+    }
 
+    /**
+     * Creates the doctor resources and their idle-doctor pool.
+     *
+     * @param policy policy used to choose among idle doctors
+     */
+    private void createDoctors(AssignmentPolicy policy) {
+        doctorPolicy = policy;
         doctors = new Doctor[numDoctors];
         for (int i = 0; i < numDoctors; i++) {
-            doctors[i] = new Doctor("D" + (i + 1));
+            doctors[i] = new Doctor("D" + (i + 1), i);
         }
-
-        stats = new StatsCollector();
+        doctorPool = new DoctorPool(doctors, policy);
     }
 
     /**
-     * Returns the first available (idle) doctor.
+     * Returns the idle doctor chosen by the assignment policy.
+     *
+     * <p>The doctor is not claimed until it is set busy.
      *
      * @return free doctor, or null if all are busy
      */
     public Doctor getFreeDoctor() {
-        for (Doctor d : doctors) {
-            if (!d.isBusy()) return d;
-        }
-        return null;
+        return doctorPool.peekIdle();
+    }
+
+    /**
+     * Returns the number of doctors currently serving a patient.
+     *
+     * @return busy doctor count
+     */
+    public int busyDoctorCount() {
+        return doctorPool.busyCount();
+    }
+
+    /**
+     * Returns the number of events executed by the most recent run.
+     *
+     * @return events processed
+     */
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    /**
+     * Returns the performance telemetry of the most recent run.
+     *
+     * @return run telemetry, or null if no run has completed
+     */
+    public RunTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    /**
+     * Issues the next patient identifier for this run.
+     *
+     * @return unique patient ID (starting at 1)
+     */
+    public int nextPatientId() {
+        return ++patientCounter;
     }
 
     /**
      * Schedules a future event.
      *
+     * <p>Each event is stamped with an increasing sequence number so that
+     * events scheduled for the same time execute in scheduling order.
+     *
      * @param e event to schedule
      */
     public void scheduleEvent(Event e) {
+        e.seq = eventSeq++;
         eventQueue.add(e);
+        if (eventQueue.size() > peakEventList) {
+            peakEventList = eventQueue.size();
+        }
+    }
+
+    /**
+     * Schedules the next arrival of the arrival stream.
+     *
+     * <p>Arrivals are pregenerated in batches, so the event list only ever
+     * holds the next one.
+     */
+    public void scheduleNextArrival() {
+        double t = arrivals.next();
+        if (t != Double.POSITIVE_INFINITY) {
+            scheduleEvent(events.arrival(t, arrivals.severity()));
+        }
     }
 
     /**
-     * Generates an exponential interarrival time.
+     * Generates a doctor service time from the distribution configured for
+     * the patient's severity.
      *
-     * @return interarrival time (minutes)
+     * @param severity patient severity (1–5)
+     * @return service duration (minutes)
      */
-    public double generateInterarrivalTime() {
-        return -Math.log(1 - rand.nextDouble()) / arrivalRate;
+    public double generateServiceTime(int severity) {
+        return serviceBySeverity[severity - 1].sample(serviceRng);
     }
 
     /**
-     * Generates an exponential service time.
+     * Generates a service time for a pathway station.
      *
+     * @param station  station index
+     * @param severity patient severity (1–5)
      * @return service duration (minutes)
      */
-    public double generateServiceTime() {
-        return -Math.log(1 - rand.nextDouble()) / serviceRate;
+    public double generateStationServiceTime(int station, int severity) {
+        return pathway.service(station, severity).sample(serviceRng);
+    }
+
+    /**
+     * Admits a patient to the doctors, starting service immediately if a
+     * doctor is free and queueing the patient otherwise.
+     *
+     * @param p patient handle
+     * @param t current time
+     */
+    public void admitToDoctor(int p, double t) {
+        patients.setStationEntry(p, t);
+
+        // A free doctor implies an empty queue, so serve immediately
+        Doctor freeDoc = getFreeDoctor();
+        if (freeDoc == null) {
+            queue.add(p, patients.severity(p));
+            return;
+        }
+        startService(freeDoc, p, t);
+    }
+
+    /**
+     * Starts doctor service for a patient and schedules its completion.
+     *
+     * @param doc free doctor
+     * @param p   patient handle
+     * @param t   current time
+     */
+    private void startService(Doctor doc, int p, double t) {
+        doc.setBusy(true, t);
+        patients.setDoctor(p, doc.getIndex());
+        patients.setServiceStart(p, t);
+
+        // On a pathway the doctor wait starts when the patient reached the
+        // doctor station, matching the station_*_avg_wait keys
+        int severity = patients.severity(p);
+        double queued = pathway != null ? patients.stationEntry(p) : patients.arrival(p);
+        stats.recordServiceStart(severity, queued, t);
+
+        double end = t + generateServiceTime(severity);
+        scheduleEvent(events.serviceEnd(end, p));
+    }
+
+    /**
+     * Admits a newly arrived patient to the first station of its visit.
+     *
+     * @param p patient handle
+     * @param t arrival time
+     */
+    public void admit(int p, double t) {
+        if (pathway == null) {
+            admitToDoctor(p, t);
+        } else {
+            enterStation(pathway.entry(), p, t);
+        }
+    }
+
+    /**
+     * Sends a patient to a pathway station.
+     *
+     * @param station station index
+     * @param p       patient handle
+     * @param t       current time
+     */
+    private void enterStation(int station, int p, double t) {
+        if (station == pathway.doctorStation()) {
+            admitToDoctor(p, t);
+        } else {
+            stations.enter(station, p, t, this);
+        }
+    }
+
+    /**
+     * Routes a patient who has finished service at a station, either to the
+     * next station of its pathway or to departure.
+     *
+     * <p>Without a pathway the doctor visit is the only stage and the
+     * patient always departs; no random number is drawn in that case.
+     *
+     * @param station station the patient is leaving (ignored without a pathway)
+     * @param p       patient handle
+     * @param t       current time
+     */
+    public void routeFrom(int station, int p, double t) {
+        int next = pathway == null
+                ? Pathway.EXIT
+                : pathway.route(station, patients.severity(p), routingRng.nextDouble());
+
+        if (next == Pathway.EXIT) {
+            // A departure at the current time needs no trip through the
+            // event list; it still counts as a processed event
+            depart(p, t);
+            eventsProcessed++;
+        } else {
+            enterStation(next, p, t);
+        }
+    }
+
+    /**
+     * Departs a patient from the Emergency Room.
+     *
+     * <p>Records departure statistics, adds the patient to the event log
+     * and column file if they are enabled, and traces the departure.
+     * Records cover the whole horizon, including any warm-up period.
+     * In a hospital network the patient may then be transferred to another
+     * site. The patient's row is then released, so its handle must not be
+     * used afterwards.
+     *
+     * @param p    departing patient handle
+     * @param time departure time
+     */
+    public void depart(int p, double time) {
+        stats.recordDeparture(time);
+        trace.departure(time, patients.id(p), patients.severity(p));
+
+        if (eventLog != null) {
+            eventLog.add(patients, p, time);
+        }
+        if (patientColumns != null) {
+            try {
+                patientColumns.add(patients, p, time);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                closePatientColumns();
+            }
+        }
+        if (site != null) {
+            site.departed(patients.severity(p), time);
+        }
+        patients.release(p);
+    }
+
+    /**
+     * Returns one of this run's random number streams.
+     *
+     * @param purpose stream purpose
+     * @return random number generator (owned by this engine)
+     */
+    public RandomGenerator stream(RandomStreams.Purpose purpose) {
+        return streams.get(purpose);
+    }
+
+    /**
+     * Returns the pool supplying this engine's events.
+     *
+     * @return event pool
+     */
+    public EventPool events() {
+        return events;
+    }
+
+    /**
+     * Returns the pathway station staffed by doctors.
+     *
+     * @return doctor station index, or -1 without a pathway
+     */
+    public int doctorStation() {
+        return pathway == null ? -1 : pathway.doctorStation();
     }
 
     /**
@@ -175,63 +644,1065 @@ public class SimulationEngine {
     }
 
     /**
-     * Executes a single simulation run.
+     * Returns the number of worker threads to use for a batch of tasks.
      *
-     * @return RunResult containing summary data
+     * @param workers requested worker threads (0 or less = available processors)
+     * @param limit   number of tasks; no more workers than this are used
+     * @return worker count, at least 1
      */
-    public RunResult run() {
-
-        currentTime = 0;
-        eventQueue.clear();
-        queue = new EDQueue();
-        stats.reset();
-
-        // Schedule initial arrival
-        scheduleEvent(new ArrivalEvent(0.0));
+    public static int workerCount(int workers, long limit) {
+        int n = workers > 0
+                ? workers
+                : Runtime.getRuntime().availableProcessors();
+        return (int) Math.max(1, Math.min(n, limit));
+    }
 
-        // Main event loop
-        while (!eventQueue.isEmpty()) {
-            Event e = eventQueue.poll();
-            if (e == null || e.getTime() > endTime) break;
+    /**
+     * Creates the fixed worker pool used to run independent simulations.
+     *
+     * @param workers        requested worker threads (0 or less = available processors)
+     * @param virtualThreads {@code true} to run workers on virtual threads
+     * @param limit          number of tasks; no more workers than this are started
+     * @param prefix         thread name prefix, numbered from 1
+     * @return the pool; the caller must shut it down
+     */
+    public static ExecutorService newWorkerPool(int workers, boolean virtualThreads, long limit, String prefix) {
+        ThreadFactory factory = virtualThreads
+                ? Thread.ofVirtual().name(prefix, 1).factory()
+                : Thread.ofPlatform().name(prefix, 1).factory();
+        return Executors.newFixedThreadPool(workerCount(workers, limit), factory);
+    }
 
-            currentTime = e.getTime();
-            e.execute(this);
+    /**
+     * Creates a worker pool sized by {@link Config#batchWorkers} and
+     * {@link Config#batchVirtualThreads}.
+     *
+     * @param c      configuration selecting the workers
+     * @param limit  number of tasks; no more workers than this are started
+     * @param prefix thread name prefix, numbered from 1
+     * @return the pool; the caller must shut it down
+     */
+    public static ExecutorService newWorkerPool(Config c, long limit, String prefix) {
+        return newWorkerPool(c.batchWorkers, c.batchVirtualThreads, limit, prefix);
+    }
 
-            // Attempt to start service for queued patients
-            Doctor free = getFreeDoctor();
-            while (free != null && !queue.isEmpty()) {
-                Patient next = queue.poll();
-                if (next == null) break;
+    /**
+     * Executes a batch of simulation runs on a pool of worker threads.
+     *
+     * <p>Each run owns its engine, queue, statistics and random number
+     * generator, so runs are independent and every result depends only on
+     * its {@link Config#randomSeed}. Results are returned in input order
+     * regardless of completion order.
+     *
+     * @param configs        list of configurations
+     * @param workers        number of worker threads (0 or less = available processors)
+     * @param virtualThreads {@code true} to run workers on virtual threads
+     * @return list of run results, in the same order as {@code configs}
+     * @throws IOException if output writing fails
+     */
+    public static List<RunResult> runBatch(
+            List<Config> configs,
+            int workers,
+            boolean virtualThreads
+    ) throws IOException {
 
-                free.setBusy(true, currentTime);
-                next.setAssignedDoctor(free);
-                next.setServiceStart(currentTime);
+        ExecutorService pool = newWorkerPool(workers, virtualThreads, configs.size(), "sim-worker-");
+        try {
+            // Submit every run up front; futures keep the input order
+            List<Future<RunResult>> futures = new ArrayList<>(configs.size());
+            for (Config c : configs) {
+                futures.add(pool.submit(() -> new SimulationEngine(c).run()));
+            }
 
-                stats.recordServiceStart(next, currentTime);
+            List<RunResult> results = new ArrayList<>(configs.size());
+            for (Future<RunResult> f : futures) {
+                results.add(f.get());
+            }
+            return results;
 
-                double end = currentTime + generateServiceTime();
-                scheduleEvent(new ServiceEndEvent(end, next));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch execution interrupted", ex);
 
-                free = getFreeDoctor();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
             }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Simulation run failed", cause);
+
+        } finally {
+            pool.shutdownNow();
         }
+    }
 
-        // Aggregate doctor utilization
-        for (Doctor d : doctors) {
-            stats.addDoctorBusy(d.getId(), d.getBusyAccum());
+    /**
+     * Executes a single simulation run.
+     *
+     * <p>If resumption is enabled and the checkpoint file exists, the run
+     * continues from the checkpoint; an unreadable checkpoint is reported
+     * and the run starts from time zero instead.
+     *
+     * @return RunResult containing summary data
+     */
+    public RunResult run() {
+        Path resumeFrom = checkpointResume && Files.exists(checkpointPath)
+                ? checkpointPath
+                : null;
+        try {
+            return execute(resumeFrom);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        try {
+            return execute(null);
+        } catch (IOException ex) {
+            // Only reading a checkpoint can fail
+            throw new UncheckedIOException(ex);
         }
+    }
 
-        stats.finalizeStats();
+    /**
+     * Continues a run from a checkpoint written by
+     * {@link #writeCheckpoint(Path)}.
+     *
+     * <p>The engine must be configured like the one that wrote the
+     * checkpoint. Summary statistics and time series are then identical
+     * to an uninterrupted run; telemetry covers only the resumed part,
+     * apart from the cumulative event count, and trace output restarts.
+     *
+     * @param checkpoint checkpoint file
+     * @return RunResult containing summary data
+     * @throws IOException if the checkpoint cannot be read or does not
+     *                     match this engine's configuration
+     */
+    public RunResult resume(Path checkpoint) throws IOException {
+        return execute(checkpoint);
+    }
 
-        // Write output
+    /**
+     * Continues another engine's run from a snapshot, as a what-if branch
+     * with this engine's parameters.
+     *
+     * <p>The snapshot must come from an engine with the same seed,
+     * replication, horizon and pathway. This engine may differ in:
+     * <ul>
+     *   <li>Service-time distributions, which apply to every service
+     *       started after the snapshot; services in progress keep their
+     *       sampled end times</li>
+     *   <li>Arrival rate: arrivals pregenerated beyond the snapshot time
+     *       are discarded and the stream restarts there at the new rate</li>
+     *   <li>Doctor count, which may only grow: added doctors start idle at
+     *       the snapshot time and immediately take waiting patients</li>
+     * </ul>
+     * A branch with unchanged parameters reproduces the original run
+     * exactly. Patient column files and event logs of the branch only
+     * record patients departing after the snapshot.
+     *
+     * @param snapshot snapshot taken by {@link #snapshot(double)}
+     * @return RunResult containing summary data
+     * @throws IOException if the snapshot does not match this engine
+     */
+    public RunResult runBranch(EngineSnapshot snapshot) throws IOException {
+        begin(null, snapshot);
+        advanceTo(Double.POSITIVE_INFINITY);
+        return finish();
+    }
+
+    /**
+     * Runs the simulation from time zero or from a checkpoint.
+     *
+     * @param resumeFrom checkpoint to restore, or null to start fresh
+     * @return RunResult containing summary data
+     * @throws IOException if the checkpoint cannot be read
+     */
+    private RunResult execute(Path resumeFrom) throws IOException {
+        begin(resumeFrom, null);
+        advanceTo(Double.POSITIVE_INFINITY);
+        return finish();
+    }
+
+    /**
+     * Prepares a new run from time zero without executing any event.
+     *
+     * <p>Together with {@link #advanceTo(double)} and {@link #finish()}
+     * this lets a caller interleave the run with other engines, as
+     * {@link NetworkEngine} does. {@link #run()} performs all three steps.
+     * All three must be called on the same thread, since telemetry
+     * measures that thread's allocations.
+     */
+    public void begin() {
         try {
-            CSVExporter exporter = new CSVExporter(runId);
-            exporter.writeSummary("summary.csv", stats.asSummaryMap());
+            begin(null, null);
         } catch (IOException ex) {
-            ex.printStackTrace();
+            // Only reading a checkpoint can fail
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Resets the engine for a run and schedules its first arrival, or
+     * restores a checkpoint or snapshot.
+     *
+     * @param resumeFrom checkpoint to restore, or null
+     * @param branchOf   snapshot to continue as a branch, or null
+     * @throws IOException if the checkpoint or snapshot cannot be read
+     */
+    private void begin(Path resumeFrom, EngineSnapshot branchOf) throws IOException {
+
+        meter = new RunTelemetry.Meter();
+        meter.start(events.allocated());
+
+        currentTime = 0;
+        patientCounter = 0;
+        eventSeq = 0;
+        eventsProcessed = 0;
+        peakEventList = 0;
+        peakQueue = 0;
+        eventQueue.clear();
+        queue = concurrentQueue
+                ? new ConcurrentEDQueue()
+                : capacityPlan != null ? new EDQueue(capacityPlan.arrivalsPerSeverity()) : new EDQueue();
+        patients.clear();
+        stats.reset();
+        if (capacityPlan != null) {
+            patients.ensureCapacity(capacityPlan.arrivals());
+            stats.ensureCapacity(capacityPlan.arrivals());
+            eventQueue.ensureCapacity(maxPendingEvents());
         }
+        for (Doctor d : doctors) {
+            d.reset();
+        }
+        doctorPool.reset();
+        busyAtWarmup = new double[doctors.length];
+        warmupPending = warmupEnd > 0;
+        if (stations != null) {
+            stations.reset();
+        }
+        openTrace();
+        sampler = timeseriesInterval > 0
+                ? new TimeSeriesSampler(timeseriesInterval, endTime)
+                : null;
 
-        return new RunResult(runId, stats.asSummaryMap(), null, null);
+        arrivals.reset();
+        if (resumeFrom != null || branchOf != null) {
+            try {
+                if (branchOf != null) {
+                    readSnapshot(branchOf);
+                } else {
+                    readCheckpoint(resumeFrom);
+                }
+            } catch (IOException | RuntimeException ex) {
+                closeTrace();
+                closePatientColumns();
+                closeEventLog(null);
+                throw ex instanceof IOException io
+                        ? io
+                        : new IOException("Corrupt " + (branchOf != null ? "snapshot" : "checkpoint: " + resumeFrom), ex);
+            }
+        } else {
+            openPatientColumns(-1, 0);
+            openEventLog(-1);
+
+            // Schedule the first arrival of the stream
+            scheduleNextArrival();
+        }
+        nextCheckpoint = checkpointInterval > 0
+                ? (Math.floor(currentTime / checkpointInterval) + 1) * checkpointInterval
+                : Double.POSITIVE_INFINITY;
+
+        growthsAtStart = growthCounts();
+    }
+
+    /**
+     * Executes every pending event scheduled before a time limit, and no
+     * event after the end of the horizon.
+     *
+     * <p>Events at or after {@code limit} stay pending, so events may still
+     * be scheduled from outside (e.g. transfers from another site) for any
+     * time at or after {@code limit} before the next call.
+     *
+     * @param limit exclusive upper bound on the times of executed events
+     */
+    public void advanceTo(double limit) {
+
+        // Main event loop
+        while (!eventQueue.isEmpty()) {
+            Event head = eventQueue.peek();
+            if (head == null || head.getTime() > endTime || head.getTime() >= limit) break;
+            Event e = eventQueue.poll();
+
+            // Sample state at every interval boundary up to this event
+            if (sampler != null) {
+                sampler.sampleUpTo(e.getTime(), this);
+            }
+
+            // Discard the empty-system transient
+            if (warmupPending && e.getTime() >= warmupEnd) {
+                endWarmup(warmupEnd);
+            }
+
+            currentTime = e.getTime();
+            e.execute(this);
+            eventsProcessed++;
+            events.release(e);
+
+            // Attempt to start service for queued patients
+            startQueued();
+
+            if (queue.size() > peakQueue) {
+                peakQueue = queue.size();
+            }
+
+            // Periodic checkpoint between events, when the state is complete
+            if (currentTime >= nextCheckpoint) {
+                try {
+                    writeCheckpoint(checkpointPath);
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+                nextCheckpoint = (Math.floor(currentTime / checkpointInterval) + 1) * checkpointInterval;
+            }
+        }
+    }
+
+    /**
+     * Starts service for waiting patients while a doctor is free.
+     */
+    private void startQueued() {
+        Doctor free = getFreeDoctor();
+        while (free != null && !queue.isEmpty()) {
+            int next = queue.poll();
+            if (next == PatientTable.NONE) break;
+
+            startService(free, next, currentTime);
+
+            free = getFreeDoctor();
+        }
+    }
+
+    /**
+     * Returns the time of the earliest pending event.
+     *
+     * @return event time, or positive infinity if no event is pending
+     */
+    public double nextEventTime() {
+        Event e = eventQueue.peek();
+        return e == null ? Double.POSITIVE_INFINITY : e.getTime();
+    }
+
+    /** @return end of the simulated horizon (minutes) */
+    public double getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Completes the run at the end of the horizon: closes time-series and
+     * utilization accounting, closes output files and writes the summary.
+     *
+     * @return RunResult containing summary data
+     */
+    public RunResult finish() {
+
+        // Sample any remaining boundaries up to the end of the horizon
+        if (sampler != null) {
+            sampler.sampleUpTo(endTime, this);
+        }
+        if (warmupPending) {
+            endWarmup(Math.min(warmupEnd, endTime));
+        }
+
+        // Aggregate doctor utilization, counting service still in progress
+        for (Doctor d : doctors) {
+            d.forceIdle(endTime);
+            stats.addDoctorBusy(d.getId(), d.getBusyAccum() - busyAtWarmup[d.getIndex()]);
+        }
+
+        // Engine telemetry covers the simulation itself, not output writing,
+        // so the meter stops before the writer threads are joined
+        telemetry = meter.stop(eventsProcessed, events.allocated(), peakEventList, peakQueue);
+
+        closeTrace();
+        String patientsPath = closePatientColumns();
+        Map<String, String> logSummary = new LinkedHashMap<>();
+        String eventsPath = closeEventLog(logSummary);
+        stats.finalizeStats();
+
+        if (traceLevel != TraceLevel.OFF) {
+            stats.printSummary(System.out);
+        }
+
+        Map<String, String> summary = new LinkedHashMap<>(stats.asSummaryMap());
+        if (warmupEnd > 0) {
+            summary.put("warmup_minutes", String.format("%.4f", warmupEnd));
+        }
+        if (stations != null) {
+            stations.addTo(summary, endTime);
+        }
+        summary.putAll(logSummary);
+        if (capacityPlan != null || capacityStrict) {
+            addCapacitySummary(summary, growthsAtStart);
+        }
+        if (site != null) {
+            site.addTo(summary);
+        }
+        telemetry.addTo(summary);
+
+        // Write output
+        String timeseriesPath = null;
+        if (outputFiles) {
+            try {
+                CSVExporter exporter = new CSVExporter(runId);
+                exporter.writeSummary("summary.csv", summary);
+                if (sampler != null) {
+                    timeseriesPath = exporter.writeTimeSeries("timeseries.csv", sampler).toString();
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        // A finished run no longer needs its checkpoint
+        if (checkpointInterval > 0) {
+            try {
+                Files.deleteIfExists(checkpointPath);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        return new RunResult(runId, summary, timeseriesPath, eventsPath, telemetry, patientsPath);
+    }
+
+    /**
+     * Returns the upper bound on simultaneously pending events: one
+     * arrival, one service end per doctor and one completion per pathway
+     * station server.
+     */
+    private int maxPendingEvents() {
+        int n = 1 + numDoctors;
+        if (stations != null) {
+            for (int s = 0; s < pathway.stationCount(); s++) {
+                if (pathway.servers(s) != Pathway.DOCTORS) {
+                    n += pathway.servers(s);
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns how often each growable structure has been enlarged, in
+     * {@link #GROWTH_NAMES} order.
+     */
+    private int[] growthCounts() {
+        return new int[] {
+                patients.growths(),
+                queue.growths(),
+                stations != null ? stations.growths() : 0,
+                stats.growths()
+        };
+    }
+
+    /**
+     * Adds the planned capacity and the reallocations made during the run
+     * to the summary and, in strict mode, reports any reallocation on
+     * standard error.
+     *
+     * @param summary        run summary to extend
+     * @param growthsAtStart growth counts when the event loop started
+     */
+    private void addCapacitySummary(Map<String, String> summary, int[] growthsAtStart) {
+        int[] growths = growthCounts();
+        long total = 0;
+        StringBuilder detail = new StringBuilder();
+        for (int i = 0; i < growths.length; i++) {
+            int n = growths[i] - growthsAtStart[i];
+            total += n;
+            if (n > 0) {
+                detail.append(detail.length() == 0 ? "" : ", ")
+                        .append(GROWTH_NAMES[i]).append(' ').append(n);
+            }
+        }
+
+        if (capacityPlan != null) {
+            summary.put("capacity_planned_patients", Integer.toString(capacityPlan.arrivals()));
+        }
+        summary.put("capacity_reallocations", Long.toString(total));
+
+        if (capacityStrict && total > 0) {
+            System.err.println("Warning: run " + runId + " reallocated " + total
+                    + " time(s) during the run (" + detail + ")");
+        }
+    }
+
+    /**
+     * Writes a snapshot of the complete simulation state.
+     *
+     * <p>The snapshot is written to a temporary file and atomically moved
+     * into place, so an interruption never leaves a truncated checkpoint.
+     * It contains:
+     * <ul>
+     *   <li>A configuration fingerprint and the engine clock and counters</li>
+     *   <li>Random number stream states and unconsumed pregenerated arrivals</li>
+     *   <li>Doctor busy states and accumulators</li>
+     *   <li>The patient table, the waiting queues and pathway stations</li>
+     *   <li>The future event list, with sequence numbers</li>
+     *   <li>Statistics, sketches and time-series samples</li>
+     *   <li>The lengths of the patient column file and event log, which are
+     *       flushed first</li>
+     * </ul>
+     * Must be called between events.
+     *
+     * @param file checkpoint file
+     * @throws IOException if writing fails
+     */
+    public void writeCheckpoint(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            writeState(out);
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Takes an in-memory snapshot of the complete simulation state, from
+     * which any number of what-if branches can continue in parallel with
+     * {@link #runBranch(EngineSnapshot)}.
+     *
+     * <p>Must be called between events, typically right after
+     * {@link #advanceTo(double)} with the same time. This engine may then
+     * continue its own run unchanged.
+     *
+     * @param time branch point: not before the last executed event and not
+     *             after the next pending one
+     * @return snapshot of the state at {@code time}
+     * @throws IOException if flushing output files fails
+     */
+    public EngineSnapshot snapshot(double time) throws IOException {
+        if (time < currentTime || time > nextEventTime()) {
+            throw new IllegalStateException(
+                    "Snapshot time " + time + " is not between the last and next events");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeState(out);
+        }
+        return new EngineSnapshot(time, bytes.toByteArray());
+    }
+
+    /**
+     * Writes the state saved by {@link #writeCheckpoint(Path)} and
+     * {@link #snapshot(double)}.
+     */
+    private void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeInt(CHECKPOINT_VERSION);
+        writeFingerprint(out);
+
+        out.writeDouble(currentTime);
+        out.writeLong(eventSeq);
+        out.writeLong(eventsProcessed);
+        out.writeInt(peakEventList);
+        out.writeInt(peakQueue);
+        out.writeInt(patientCounter);
+        out.writeBoolean(warmupPending);
+        for (double b : busyAtWarmup) {
+            out.writeDouble(b);
+        }
+
+        for (long[] state : streams.getState()) {
+            for (long word : state) {
+                out.writeLong(word);
+            }
+        }
+        arrivals.writeTo(out);
+
+        for (Doctor d : doctors) {
+            d.writeTo(out);
+        }
+        out.writeInt(doctorPool.getCursor());
+
+        // Queues and events refer to patients by handle, so the table is
+        // written with its free slots to keep every handle valid
+        patients.writeTo(out);
+
+        int[] waiting = queue.toArray();
+        out.writeInt(waiting.length);
+        for (int p : waiting) {
+            out.writeInt(p);
+        }
+        if (stations != null) {
+            stations.writeTo(out);
+        }
+
+        List<Event> events = new ArrayList<>(eventQueue.size());
+        eventQueue.forEach(events::add);
+
+        out.writeInt(events.size());
+        for (Event e : events) {
+            writeEvent(out, e);
+        }
+
+        stats.writeTo(out);
+        out.writeBoolean(sampler != null);
+        if (sampler != null) {
+            sampler.writeTo(out);
+        }
+
+        out.writeBoolean(patientColumns != null);
+        if (patientColumns != null) {
+            out.writeLong(patientColumns.flush());
+            out.writeLong(patientColumns.size());
+        }
+
+        out.writeBoolean(eventLog != null);
+        if (eventLog != null) {
+            out.writeLong(eventLog.sync());
+            out.writeLong(eventLog.records());
+            out.writeLong(eventLog.dropped());
+        }
+    }
+
+    /**
+     * Restores the state written by {@link #writeCheckpoint(Path)} into an
+     * engine that has been reset for a new run.
+     */
+    private void readCheckpoint(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException("Not a supported checkpoint file: " + file);
+            }
+            readState(in, Double.NaN);
+        }
+    }
+
+    /**
+     * Restores a snapshot into an engine that has been reset for a new run,
+     * applying this engine's parameters from the snapshot time on.
+     */
+    private void readSnapshot(EngineSnapshot snapshot) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot.state()))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException("Not a supported snapshot");
+            }
+            readState(in, snapshot.time());
+        }
+
+        // The branch starts at the snapshot time, sampling the state before it changes
+        currentTime = snapshot.time();
+        if (sampler != null) {
+            sampler.sampleUpTo(currentTime, this);
+        }
+        if (warmupPending && currentTime >= warmupEnd) {
+            endWarmup(warmupEnd);
+        }
+        startQueued();
+    }
+
+    /**
+     * Restores the state after the magic bytes and version.
+     *
+     * @param branchTime snapshot time when continuing as a branch, or NaN
+     *                   to restore the saved run exactly
+     */
+    private void readState(DataInputStream in, double branchTime) throws IOException {
+        boolean branch = !Double.isNaN(branchTime);
+
+        // Configuration fingerprint
+        boolean same = in.readLong() == randomSeed
+                && in.readInt() == replication;
+        int savedDoctors = in.readInt();
+        same &= in.readDouble() == endTime;
+        double savedRate = in.readDouble();
+        same &= in.readInt() == (stations != null ? pathway.stationCount() : 0);
+        double savedServiceMean = in.readDouble();
+        long savedModel = in.readLong();
+        if (!same || (!branch && (savedDoctors != numDoctors || savedRate != arrivalRate))) {
+            throw new IOException("Checkpoint was written for a different configuration");
+        }
+        // Branches may change service times by design; a resume may not
+        if (!branch && (savedServiceMean != 1.0 / serviceRate || savedModel != modelFingerprint())) {
+            throw new IOException("Checkpoint was written for different service times, "
+                    + "pathway or doctor policy");
+        }
+        if (savedDoctors > numDoctors) {
+            throw new IOException("A branch cannot remove doctors: "
+                    + savedDoctors + " at the snapshot, " + numDoctors + " in the branch");
+        }
+        boolean newArrivals = branch && savedRate != arrivalRate;
+
+        currentTime = in.readDouble();
+        eventSeq = in.readLong();
+        eventsProcessed = in.readLong();
+        peakEventList = in.readInt();
+        peakQueue = in.readInt();
+        patientCounter = in.readInt();
+        warmupPending = in.readBoolean();
+        for (int i = 0; i < savedDoctors; i++) {
+            busyAtWarmup[i] = in.readDouble();
+        }
+
+        long[][] state = streams.getState();
+        for (long[] words : state) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+        }
+        streams.setState(state);
+        arrivals.readFrom(in);
+        if (newArrivals) {
+            arrivals.restartAt(branchTime);
+        }
+
+        // Doctors added by a branch stay idle as reset
+        for (int i = 0; i < savedDoctors; i++) {
+            doctors[i].readFrom(in);
+        }
+        doctorPool.reset();
+        doctorPool.setCursor(in.readInt());
+
+        patients.readFrom(in);
+
+        int waiting = in.readInt();
+        for (int i = 0; i < waiting; i++) {
+            int p = in.readInt();
+            queue.add(p, patients.severity(p));
+        }
+        if (stations != null) {
+            stations.readFrom(in, patients);
+        }
+
+        // Arrivals drawn at the old rate are replaced by the restarted stream
+        int events = in.readInt();
+        for (int i = 0; i < events; i++) {
+            Event e = readEvent(in);
+            if (!(newArrivals && e instanceof ArrivalEvent)) {
+                eventQueue.add(e);
+            }
+        }
+        if (newArrivals) {
+            scheduleNextArrival();
+        }
+
+        stats.readFrom(in);
+        if (in.readBoolean() != (sampler != null)) {
+            throw new IOException("Checkpoint time-series settings differ");
+        }
+        if (sampler != null) {
+            sampler.readFrom(in);
+        }
+
+        // Branches write their own files, starting at the snapshot
+        if (in.readBoolean() != resultsColumnar) {
+            throw new IOException("Checkpoint patient record settings differ");
+        }
+        if (resultsColumnar) {
+            long bytes = in.readLong();
+            long rows = in.readLong();
+            openPatientColumns(branch ? -1 : bytes, branch ? 0 : rows);
+            if (patientColumns == null) {
+                throw new IOException("Cannot continue patient column file");
+            }
+        }
+
+        if (in.readBoolean() != eventLogEnabled()) {
+            throw new IOException("Checkpoint event log settings differ");
+        }
+        if (eventLogEnabled()) {
+            long bytes = in.readLong();
+            long records = in.readLong();
+            long dropped = in.readLong();
+            openEventLog(branch ? -1 : bytes);
+            if (eventLog == null) {
+                throw new IOException("Cannot continue event log");
+            }
+            if (!branch) {
+                eventLog.restoreCounts(records, dropped);
+            }
+        }
+    }
+
+    /**
+     * Writes the configuration values a checkpoint must match.
+     */
+    private void writeFingerprint(DataOutputStream out) throws IOException {
+        out.writeLong(randomSeed);
+        out.writeInt(replication);
+        out.writeInt(numDoctors);
+        out.writeDouble(endTime);
+        out.writeDouble(arrivalRate);
+        out.writeInt(stations != null ? pathway.stationCount() : 0);
+        out.writeDouble(1.0 / serviceRate);
+        out.writeLong(modelFingerprint());
+    }
+
+    /**
+     * Returns a hash of the service distributions, pathway and doctor
+     * policy, which an exact resume must match.
+     */
+    private long modelFingerprint() {
+        long h = doctorPolicy.name().hashCode();
+        for (Distribution d : serviceBySeverity) {
+            h = L64X128Random.mixLea64(h ^ d.fingerprint());
+        }
+        return L64X128Random.mixLea64(h ^ (pathway != null ? pathway.fingerprint() : 0));
+    }
+
+    /**
+     * Returns the patient handle carried by an event, or
+     * {@link PatientTable#NONE} for arrivals.
+     */
+    private static int patientOf(Event e) {
+        if (e instanceof ServiceEndEvent s) {
+            return s.getPatient();
+        }
+        if (e instanceof DepartureEvent d) {
+            return d.getPatient();
+        }
+        if (e instanceof StationEvent s) {
+            return s.getPatient();
+        }
+        return PatientTable.NONE;
+    }
+
+    /**
+     * Writes one pending event as a type tag, time, sequence and payload.
+     */
+    private static void writeEvent(DataOutputStream out, Event e) throws IOException {
+        if (e instanceof ArrivalEvent) {
+            out.writeByte(EV_ARRIVAL);
+        } else if (e instanceof ServiceEndEvent) {
+            out.writeByte(EV_SERVICE_END);
+        } else if (e instanceof DepartureEvent) {
+            out.writeByte(EV_DEPARTURE);
+        } else if (e instanceof StationEvent) {
+            out.writeByte(EV_STATION);
+        } else {
+            throw new IOException("Cannot checkpoint event type " + e.getClass().getSimpleName());
+        }
+        out.writeDouble(e.getTime());
+        out.writeLong(e.getSequence());
+
+        if (e instanceof ArrivalEvent a) {
+            out.writeByte(a.getSeverity());
+        } else {
+            out.writeInt(patientOf(e));
+            if (e instanceof StationEvent s) {
+                out.writeInt(s.getStation());
+            }
+        }
+    }
+
+    /**
+     * Reads one event written by {@link #writeEvent(DataOutputStream, Event)}.
+     */
+    private static Event readEvent(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        double time = in.readDouble();
+        long seq = in.readLong();
+
+        Event e;
+        switch (type) {
+            case EV_ARRIVAL:
+                e = new ArrivalEvent(time, in.readByte());
+                break;
+            case EV_SERVICE_END:
+                e = new ServiceEndEvent(time, in.readInt());
+                break;
+            case EV_DEPARTURE:
+                e = new DepartureEvent(time, in.readInt());
+                break;
+            case EV_STATION:
+                e = new StationEvent(time, in.readInt(), in.readInt());
+                break;
+            default:
+                throw new IOException("Unknown event type in checkpoint: " + type);
+        }
+        e.seq = seq;
+        return e;
+    }
+
+    /**
+     * Ends the fixed warm-up period: clears all statistics and remembers
+     * doctor busy time so far, while patients in queue and in service
+     * carry over.
+     *
+     * @param t end of the warm-up period (minutes)
+     */
+    private void endWarmup(double t) {
+        warmupPending = false;
+        stats.reset();
+        if (stations != null) {
+            stations.clearStatistics(t);
+        }
+        for (Doctor d : doctors) {
+            busyAtWarmup[d.getIndex()] = d.getBusyTime(t);
+        }
+    }
+
+    /**
+     * Opens the trace sink for this run according to the trace level.
+     *
+     * <p>If the sink cannot be opened the run continues without tracing.
+     */
+    private void openTrace() {
+        trace = NoOpTraceSink.INSTANCE;
+        if (traceLevel != TraceLevel.EVENTS) {
+            return;
+        }
+        try {
+            trace = TraceSink.open(
+                    traceSinkKind,
+                    Files.createDirectories(Paths.get(runId))
+            );
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Opens the patient column file for this run if records are enabled.
+     *
+     * <p>If the file cannot be opened the run continues without records.
+     *
+     * @param keepBytes length of an existing file to continue, or -1 for a new file
+     * @param keepRows  records in the continued part
+     */
+    private void openPatientColumns(long keepBytes, long keepRows) {
+        patientColumns = null;
+        if (!resultsColumnar) {
+            return;
+        }
+        try {
+            Path file = Files.createDirectories(Paths.get(runId)).resolve("patients.col");
+            patientColumns = new PatientColumnWriter(file, resultsBlockRows, keepBytes, keepRows);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns whether this engine writes a per-patient event log.
+     */
+    private boolean eventLogEnabled() {
+        return !eventLogKind.isBlank() && !eventLogKind.trim().equalsIgnoreCase("none");
+    }
+
+    /**
+     * Opens the per-patient event log for this run if logging is enabled.
+     *
+     * <p>If the log cannot be opened the run continues without it.
+     *
+     * @param keepBytes length of an existing log to continue, or -1 for a new log
+     */
+    private void openEventLog(long keepBytes) {
+        eventLog = null;
+        if (!eventLogEnabled()) {
+            return;
+        }
+        try {
+            eventLog = new PatientEventLog(
+                    Files.createDirectories(Paths.get(runId)).resolve(eventLogFileName()),
+                    eventLogKind.trim().equalsIgnoreCase("binary"),
+                    eventLogBatchSize,
+                    eventLogBatches,
+                    eventLogOverflow,
+                    keepBytes
+            );
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the event log file name for the configured format.
+     *
+     * @throws IllegalArgumentException if the format is not recognised
+     */
+    private String eventLogFileName() {
+        switch (eventLogKind.trim().toLowerCase()) {
+            case "csv":
+                return "events.csv";
+            case "binary":
+                return "events.bin";
+            default:
+                throw new IllegalArgumentException("Unknown event log format: " + eventLogKind);
+        }
+    }
+
+    /**
+     * Writes the remaining log records and closes the event log.
+     *
+     * <p>Like the telemetry values, the dropped and batch counts depend on
+     * how fast the writer thread keeps up, so they vary between runs.
+     *
+     * @param summary map receiving the log counters (may be null)
+     * @return path of the log, or null if none was written
+     */
+    private String closeEventLog(Map<String, String> summary) {
+        if (eventLog == null) {
+            return null;
+        }
+        try {
+            eventLog.close();
+            if (summary != null) {
+                summary.put("event_log_records", Long.toString(eventLog.records()));
+                summary.put("event_log_dropped", Long.toString(eventLog.dropped()));
+                summary.put("event_log_batches", Integer.toString(eventLog.batches()));
+            }
+            return Paths.get(runId, eventLogFileName()).toString();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        } finally {
+            eventLog = null;
+        }
+    }
+
+    /**
+     * Flushes and closes the patient column file for this run.
+     *
+     * @return path of the file, or null if none was written
+     */
+    private String closePatientColumns() {
+        if (patientColumns == null) {
+            return null;
+        }
+        try {
+            patientColumns.close();
+            return Paths.get(runId, "patients.col").toString();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        } finally {
+            patientColumns = null;
+        }
+    }
+
+    /**
+     * Flushes and closes the trace sink for this run.
+     */
+    private void closeTrace() {
+        try {
+            trace.close();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        } finally {
+            trace = NoOpTraceSink.INSTANCE;
+        }
     }
 
     /**
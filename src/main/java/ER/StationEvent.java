@@ -0,0 +1,72 @@
+package ER;
+
+/**
+ * StationEvent represents the completion of service at a pathway station
+ * that is not staffed by doctors (e.g., triage, labs, imaging).
+ *
+ * <p>This event:
+ * <ul>
+ *   <li>Releases the station server and starts the next waiting patient</li>
+ *   <li>Routes the patient to the next station or to departure</li>
+ * </ul>
+ *
+ * <p>One event type serves every station, so adding a stage to a
+ * {@link Pathway} requires no new event class.
+ */
+public class StationEvent extends Event {
+
+    /** Handle of the patient completing service */
+    private int patient;
+
+    /** Station index within the pathway */
+    private int station;
+
+    /**
+     * Constructs a station completion event.
+     *
+     * @param time    simulation time service ends
+     * @param patient handle of the patient completing service
+     * @param station station index
+     */
+    public StationEvent(double time, int patient, int station) {
+        super(time);
+        this.patient = patient;
+        this.station = station;
+    }
+
+    /**
+     * Reinitialises a recycled event (see {@link EventPool}).
+     *
+     * @param time    simulation time service ends
+     * @param patient handle of the patient completing service
+     * @param station station index
+     * @return this event
+     */
+    StationEvent reset(double time, int patient, int station) {
+        this.time = time;
+        this.patient = patient;
+        this.station = station;
+        return this;
+    }
+
+    /** @return handle of the patient completing service */
+    public int getPatient() {
+        return patient;
+    }
+
+    /** @return station index within the pathway */
+    public int getStation() {
+        return station;
+    }
+
+    /**
+     * Executes the station completion logic.
+     *
+     * @param engine simulation engine
+     */
+    @Override
+    public void execute(SimulationEngine engine) {
+        engine.stations.complete(station, time, engine);
+        engine.routeFrom(station, patient, time);
+    }
+}
@@ -0,0 +1,304 @@
+package ER;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * StationNetwork holds the run-time state of the non-doctor stations of a
+ * {@link Pathway}.
+ *
+ * <p>State is kept in compact per-station arrays rather than one object
+ * per station or per hop:
+ * <ul>
+ *   <li>Busy server count and a severity-priority waiting queue</li>
+ *   <li>Time-weighted busy area for utilization</li>
+ *   <li>Completed services and accumulated waiting time</li>
+ * </ul>
+ *
+ * <p>The doctor-staffed station is not managed here; it is served by the
+ * engine's {@link DoctorPool} and reported through the regular statistics.
+ */
+public class StationNetwork {
+
+    /** Routing graph and station parameters */
+    private final Pathway pathway;
+
+    /** Servers currently busy, per station */
+    private final int[] busy;
+
+    /** Waiting queue per station (null for the doctor station) */
+    private final EDQueue[] queues;
+
+    /** Integral of busy servers over time, per station */
+    private final double[] busyArea;
+
+    /** Time of the last busy-count change, per station */
+    private final double[] lastChange;
+
+    /** Accumulated waiting time, per station */
+    private final double[] waitSum;
+
+    /** Completed services, per station */
+    private final long[] served;
+
+    /** Services started, per station */
+    private final long[] started;
+
+    /** Start of the statistics window (minutes) */
+    private double statsStart = 0.0;
+
+    /** Initial ring capacity per severity level of new station queues (0 = default) */
+    private int queueCapacity = 0;
+
+    /** Ring growths of queues discarded by earlier resets */
+    private int pastGrowths = 0;
+
+    /**
+     * Creates the run-time state for a pathway.
+     *
+     * @param pathway routing graph
+     */
+    public StationNetwork(Pathway pathway) {
+        this.pathway = pathway;
+        int n = pathway.stationCount();
+        busy = new int[n];
+        queues = new EDQueue[n];
+        busyArea = new double[n];
+        lastChange = new double[n];
+        waitSum = new double[n];
+        served = new long[n];
+        started = new long[n];
+        reset();
+    }
+
+    /**
+     * Clears all station state for a new run.
+     */
+    public void reset() {
+        statsStart = 0.0;
+        for (int s = 0; s < busy.length; s++) {
+            busy[s] = 0;
+            busyArea[s] = 0;
+            lastChange[s] = 0;
+            waitSum[s] = 0;
+            served[s] = 0;
+            started[s] = 0;
+            if (queues[s] != null) {
+                pastGrowths += queues[s].growths();
+            }
+            queues[s] = pathway.servers(s) == Pathway.DOCTORS
+                    ? null
+                    : queueCapacity > 0 ? new EDQueue(queueCapacity) : new EDQueue();
+        }
+    }
+
+    /**
+     * Sets the initial capacity of station queues created by later resets.
+     *
+     * @param perSeverity ring capacity per severity level (0 = default)
+     */
+    public void setQueueCapacity(int perSeverity) {
+        this.queueCapacity = perSeverity;
+    }
+
+    /**
+     * Returns the number of times any station queue ring has been enlarged
+     * since this network was created.
+     *
+     * @return ring growth count
+     */
+    public int growths() {
+        int n = pastGrowths;
+        for (EDQueue q : queues) {
+            if (q != null) {
+                n += q.growths();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Admits a patient to a station, starting service if a server is free
+     * and queueing the patient otherwise.
+     *
+     * @param s      station index (not the doctor station)
+     * @param p      patient handle
+     * @param t      current time
+     * @param engine engine used to draw service times and schedule events
+     */
+    public void enter(int s, int p, double t, SimulationEngine engine) {
+        engine.patients.setStationEntry(p, t);
+        if (busy[s] < pathway.servers(s)) {
+            start(s, p, t, engine);
+        } else {
+            queues[s].add(p, engine.patients.severity(p));
+        }
+    }
+
+    /**
+     * Completes service at a station and starts the next waiting patient.
+     *
+     * @param s      station index
+     * @param t      current time
+     * @param engine engine used to draw service times and schedule events
+     */
+    public void complete(int s, double t, SimulationEngine engine) {
+        accumulate(s, t);
+        busy[s]--;
+        served[s]++;
+
+        int next = queues[s].poll();
+        if (next != PatientTable.NONE) {
+            start(s, next, t, engine);
+        }
+    }
+
+    /**
+     * Starts service for a patient and schedules its completion.
+     */
+    private void start(int s, int p, double t, SimulationEngine engine) {
+        accumulate(s, t);
+        busy[s]++;
+        started[s]++;
+        waitSum[s] += t - engine.patients.stationEntry(p);
+
+        double end = t + engine.generateStationServiceTime(s, engine.patients.severity(p));
+        engine.scheduleEvent(engine.events().station(end, p, s));
+    }
+
+    /**
+     * Adds the busy area since the last change at a station.
+     */
+    private void accumulate(int s, double t) {
+        busyArea[s] += busy[s] * (t - lastChange[s]);
+        lastChange[s] = t;
+    }
+
+    /**
+     * Clears accumulated statistics at the end of a warm-up period while
+     * keeping patients in service and in queue.
+     *
+     * @param t current time (start of the new statistics window)
+     */
+    public void clearStatistics(double t) {
+        statsStart = t;
+        for (int s = 0; s < busy.length; s++) {
+            busyArea[s] = 0;
+            lastChange[s] = t;
+            waitSum[s] = 0;
+            served[s] = 0;
+            started[s] = 0;
+        }
+    }
+
+    /**
+     * Visits every patient waiting at a non-doctor station.
+     *
+     * @param action action applied to each patient handle
+     */
+    public void forEachWaiting(IntConsumer action) {
+        for (EDQueue q : queues) {
+            if (q != null) {
+                q.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Writes the station state; waiting patients are written as
+     * {@link PatientTable} handles in service order.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeDouble(statsStart);
+        out.writeInt(busy.length);
+        for (int s = 0; s < busy.length; s++) {
+            out.writeInt(busy[s]);
+            out.writeDouble(busyArea[s]);
+            out.writeDouble(lastChange[s]);
+            out.writeDouble(waitSum[s]);
+            out.writeLong(served[s]);
+            out.writeLong(started[s]);
+
+            int[] waiting = queues[s] == null ? new int[0] : queues[s].toArray();
+            out.writeInt(waiting.length);
+            for (int p : waiting) {
+                out.writeInt(p);
+            }
+        }
+    }
+
+    /**
+     * Restores a state written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in       source
+     * @param patients restored patient table the handles refer to
+     * @throws IOException if reading fails or the pathway differs
+     */
+    public void readFrom(DataInput in, PatientTable patients) throws IOException {
+        reset();
+        statsStart = in.readDouble();
+        if (in.readInt() != busy.length) {
+            throw new IOException("Checkpoint pathway has a different number of stations");
+        }
+        for (int s = 0; s < busy.length; s++) {
+            busy[s] = in.readInt();
+            busyArea[s] = in.readDouble();
+            lastChange[s] = in.readDouble();
+            waitSum[s] = in.readDouble();
+            served[s] = in.readLong();
+            started[s] = in.readLong();
+
+            int waiting = in.readInt();
+            for (int i = 0; i < waiting; i++) {
+                int p = in.readInt();
+                queues[s].add(p, patients.severity(p));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of patients waiting at a station.
+     *
+     * @param s station index
+     * @return queue length (0 for the doctor station)
+     */
+    public int queueSize(int s) {
+        return queues[s] == null ? 0 : queues[s].size();
+    }
+
+    /**
+     * Adds per-station results to a summary map.
+     *
+     * <p>For each non-doctor station the following keys are added:
+     * {@code station_<name>_served}, {@code station_<name>_avg_wait} and
+     * {@code station_<name>_utilization}.
+     *
+     * @param summary summary map to extend
+     * @param endTime simulation end time (minutes)
+     */
+    public void addTo(Map<String, String> summary, double endTime) {
+        for (int s = 0; s < busy.length; s++) {
+            if (queues[s] == null) {
+                continue;
+            }
+            accumulate(s, endTime);
+
+            String key = "station_" + pathway.name(s);
+            double window = endTime - statsStart;
+            double avgWait = started[s] > 0 ? waitSum[s] / started[s] : 0.0;
+            double util = window > 0
+                    ? busyArea[s] / (window * pathway.servers(s))
+                    : 0.0;
+
+            summary.put(key + "_served", Long.toString(served[s]));
+            summary.put(key + "_avg_wait", String.format("%.4f", avgWait));
+            summary.put(key + "_utilization", String.format("%.4f", util));
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ER;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -15,21 +17,90 @@ import java.util.Map;
  *   <li>Patient waiting times</li>
  *   <li>Patient service times</li>
  *   <li>Doctor utilization (busy minutes)</li>
+ *   <li>Wait and service time quantiles, overall and per severity</li>
+ *   <li>Optionally, warm-up truncation and batch-means estimates of the
+ *       steady-state mean wait ({@link SteadyStateEstimator})</li>
  * </ul>
  *
- * <p>This class supports both real-time data collection
- * and post-run aggregation.
+ * <p>Observations are accumulated in streaming {@link RunningStats}
+ * accumulators and fixed-size {@link LogHistogram} sketches, so recording
+ * never allocates. The summary is computed once
+ * by {@link #finalizeStats()} and cached until new data is recorded.
  */
 public class StatsCollector {
 
     private int totalArrivals = 0;
     private int totalDepartures = 0;
 
-    private final List<Double> waitTimes = new ArrayList<>();
-    private final List<Double> serviceTimes = new ArrayList<>();
+    /** Waiting time accumulator (minutes) */
+    private final RunningStats waitTimes;
+
+    /** Service time accumulator (minutes) */
+    private final RunningStats serviceTimes;
+
+    /** Quantiles reported for the overall distributions */
+    private static final double[] QUANTILES = {0.50, 0.90, 0.95, 0.99};
+
+    /** Quantiles reported for each severity level */
+    private static final double[] SEVERITY_QUANTILES = {0.90, 0.95, 0.99};
+
+    /** Wait time sketches: index 0 = all patients, 1..5 = severity level */
+    private final LogHistogram[] waitSketches = newSketches();
+
+    /** Service time sketches: index 0 = all patients, 1..5 = severity level */
+    private final LogHistogram[] serviceSketches = newSketches();
 
     /** Accumulated busy time per doctor (minutes) */
-    private final Map<String, Double> doctorBusy = new HashMap<>();
+    private final Map<String, Double> doctorBusy = new LinkedHashMap<>();
+
+    /** Steady-state estimator of the wait series (null when not requested) */
+    private final SteadyStateEstimator steadyState;
+
+    /** Whether the MSER-5 truncation point is applied to the wait series */
+    private final boolean mser5;
+
+    /** Number of batch means reported (0 = none) */
+    private final int batchMeans;
+
+    /** Summary produced by the last finalize pass (null when stale) */
+    private Map<String, String> summary = null;
+
+    /**
+     * Creates a collector that keeps only streaming statistics.
+     */
+    public StatsCollector() {
+        this(false);
+    }
+
+    /**
+     * Creates a collector.
+     *
+     * @param keepSamples {@code true} to also retain every wait and service time
+     */
+    public StatsCollector(boolean keepSamples) {
+        this(keepSamples, WarmupMode.NONE, 0);
+    }
+
+    /**
+     * Creates a collector with steady-state estimation.
+     *
+     * <p>With {@link WarmupMode#MSER5} or a positive batch count, waits are
+     * also fed to a {@link SteadyStateEstimator}. MSER-5 truncation applies
+     * only to the {@code ss_*} and {@code bm_*} keys; the other statistics
+     * cover the whole run. Fixed warm-up is applied by the engine calling
+     * {@link #reset()} at the end of the warm-up period.
+     *
+     * @param keepSamples {@code true} to also retain every wait and service time
+     * @param warmup      warm-up mode
+     * @param batchMeans  number of batch means to report (0 = none)
+     */
+    public StatsCollector(boolean keepSamples, WarmupMode warmup, int batchMeans) {
+        waitTimes = new RunningStats(keepSamples);
+        serviceTimes = new RunningStats(keepSamples);
+        this.mser5 = warmup == WarmupMode.MSER5;
+        this.batchMeans = Math.max(0, batchMeans);
+        this.steadyState = (mser5 || this.batchMeans > 0) ? new SteadyStateEstimator() : null;
+    }
 
     /**
      * Resets all collected statistics.
@@ -37,49 +108,97 @@ public class StatsCollector {
     public void reset() {
         totalArrivals = 0;
         totalDepartures = 0;
-        waitTimes.clear();
-        serviceTimes.clear();
+        waitTimes.reset();
+        serviceTimes.reset();
+        for (int i = 0; i <= Patient.SEVERITY_LEVELS; i++) {
+            waitSketches[i].reset();
+            serviceSketches[i].reset();
+        }
         doctorBusy.clear();
+        if (steadyState != null) {
+            steadyState.reset();
+        }
+        summary = null;
     }
 
     /**
      * Records a patient arrival.
      *
-     * @param p arriving patient
+     * @param severity severity of the arriving patient
      */
-    public void recordArrival(Patient p) {
+    public void recordArrival(int severity) {
         totalArrivals++;
+        summary = null;
     }
 
     /**
      * Records the start of service for a patient.
      *
-     * @param p         patient
-     * @param startTime service start time
+     * @param severity    patient severity
+     * @param queuedTime  time the patient began waiting for a doctor
+     *                    (its arrival time unless a pathway is used)
+     * @param startTime   service start time
      */
-    public void recordServiceStart(Patient p, double startTime) {
-        waitTimes.add(startTime - p.getArrivalTime());
+    public void recordServiceStart(int severity, double queuedTime, double startTime) {
+        double wait = startTime - queuedTime;
+        waitTimes.add(wait);
+        waitSketches[0].record(wait);
+        waitSketches[severity].record(wait);
+        if (steadyState != null) {
+            steadyState.add(startTime, wait);
+        }
+        summary = null;
     }
 
     /**
      * Records the completion of service for a patient.
      *
-     * @param p         patient
+     * @param severity  patient severity
      * @param startTime service start time
      * @param endTime   service end time
      */
-    public void recordServiceEnd(Patient p, double startTime, double endTime) {
-        serviceTimes.add(endTime - startTime);
+    public void recordServiceEnd(int severity, double startTime, double endTime) {
+        double service = endTime - startTime;
+        serviceTimes.add(service);
+        serviceSketches[0].record(service);
+        serviceSketches[severity].record(service);
+        summary = null;
     }
 
     /**
      * Records a patient departure.
      *
-     * @param p    patient
      * @param time departure time
      */
-    public void recordDeparture(Patient p, double time) {
+    public void recordDeparture(double time) {
         totalDepartures++;
+        summary = null;
+    }
+
+    /**
+     * Enlarges retained-sample buffers ahead of time for an expected number
+     * of observations of each kind (waits and service times).
+     *
+     * @param observations number of observations expected
+     */
+    public void ensureCapacity(int observations) {
+        waitTimes.ensureCapacity(observations);
+        serviceTimes.ensureCapacity(observations);
+        if (steadyState != null) {
+            steadyState.ensureCapacity(observations);
+        }
+    }
+
+    /**
+     * Returns the number of times a buffer has been enlarged while
+     * recording.
+     *
+     * @return buffer growth count
+     */
+    public int growths() {
+        return waitTimes.growths()
+                + serviceTimes.growths()
+                + (steadyState != null ? steadyState.growths() : 0);
     }
 
     /**
@@ -90,47 +209,167 @@ public class StatsCollector {
      */
     public void addDoctorBusy(String doctorId, double minutes) {
         doctorBusy.merge(doctorId, minutes, Double::sum);
+        summary = null;
     }
 
     /**
-     * Prints a summary of statistics to the console.
+     * Computes the summary statistics for the run and caches them.
+     *
+     * <p>Subsequent calls to {@link #asSummaryMap()} and
+     * {@link #printSummary(PrintStream)} reuse this result until further
+     * observations are recorded.
      */
     public void finalizeStats() {
-        double avgWait = waitTimes.stream().mapToDouble(d -> d).average().orElse(0.0);
-        double avgService = serviceTimes.stream().mapToDouble(d -> d).average().orElse(0.0);
+        Map<String, String> m = new LinkedHashMap<>();
+        m.put("total_arrivals", Integer.toString(totalArrivals));
+        m.put("total_departures", Integer.toString(totalDepartures));
 
-        System.out.println("---- Simulation Summary ----");
-        System.out.println("Total arrivals: " + totalArrivals);
-        System.out.println("Total departures: " + totalDepartures);
-        System.out.printf("Average wait: %.3f minutes%n", avgWait);
-        System.out.printf("Average service: %.3f minutes%n", avgService);
+        m.put("avg_wait", String.format("%.4f", waitTimes.mean()));
+        m.put("wait_stddev", String.format("%.4f", waitTimes.stdDev()));
+        m.put("wait_ci95_half_width", String.format("%.4f", waitTimes.ciHalfWidth(RunningStats.Z_95)));
+        m.put("wait_min", String.format("%.4f", waitTimes.min()));
+        m.put("wait_max", String.format("%.4f", waitTimes.max()));
+        putQuantiles(m, "wait", waitSketches);
+
+        m.put("avg_service", String.format("%.4f", serviceTimes.mean()));
+        m.put("service_stddev", String.format("%.4f", serviceTimes.stdDev()));
+        m.put("service_ci95_half_width", String.format("%.4f", serviceTimes.ciHalfWidth(RunningStats.Z_95)));
+        m.put("service_min", String.format("%.4f", serviceTimes.min()));
+        m.put("service_max", String.format("%.4f", serviceTimes.max()));
+        putQuantiles(m, "service", serviceSketches);
+
+        for (Map.Entry<String, Double> e : doctorBusy.entrySet()) {
+            m.put(
+                    "doctor_" + e.getKey() + "_busy_minutes",
+                    String.format("%.3f", e.getValue())
+            );
+        }
+
+        if (steadyState != null) {
+            int truncate = mser5 ? steadyState.mser5Truncation() : 0;
+            steadyState.addTo(m, truncate, batchMeans);
+        }
+        summary = m;
+    }
+
+    /**
+     * Adds overall and per-severity quantile keys (e.g., {@code wait_p95},
+     * {@code wait_sev1_p95}) to a summary map.
+     */
+    private static void putQuantiles(Map<String, String> m, String prefix, LogHistogram[] sketches) {
+        for (double q : QUANTILES) {
+            m.put(prefix + "_" + quantileLabel(q),
+                    String.format("%.4f", sketches[0].quantile(q)));
+        }
+        for (int sev = 1; sev <= Patient.SEVERITY_LEVELS; sev++) {
+            for (double q : SEVERITY_QUANTILES) {
+                m.put(prefix + "_sev" + sev + "_" + quantileLabel(q),
+                        String.format("%.4f", sketches[sev].quantile(q)));
+            }
+        }
+    }
+
+    /**
+     * Formats a quantile as a summary key suffix (0.95 → "p95").
+     */
+    private static String quantileLabel(double q) {
+        return "p" + Math.round(q * 100);
+    }
+
+    /**
+     * Allocates one sketch for all patients plus one per severity level.
+     */
+    private static LogHistogram[] newSketches() {
+        LogHistogram[] sketches = new LogHistogram[Patient.SEVERITY_LEVELS + 1];
+        for (int i = 0; i < sketches.length; i++) {
+            sketches[i] = new LogHistogram();
+        }
+        return sketches;
+    }
+
+    /**
+     * Prints a human-readable summary of statistics.
+     *
+     * @param out destination stream (typically {@code System.out})
+     */
+    public void printSummary(PrintStream out) {
+        out.println("---- Simulation Summary ----");
+        out.println("Total arrivals: " + totalArrivals);
+        out.println("Total departures: " + totalDepartures);
+        out.printf("Average wait: %.3f minutes (sd %.3f)%n", waitTimes.mean(), waitTimes.stdDev());
+        out.printf("Average service: %.3f minutes (sd %.3f)%n", serviceTimes.mean(), serviceTimes.stdDev());
 
         doctorBusy.forEach(
-                (k, v) -> System.out.printf("Doctor %s busy minutes: %.3f%n", k, v)
+                (k, v) -> out.printf("Doctor %s busy minutes: %.3f%n", k, v)
         );
     }
 
     /**
      * Returns summary statistics as a key-value map.
      *
-     * @return summary map
+     * <p>The map is produced by {@link #finalizeStats()}; it is finalized
+     * on demand if observations were recorded since the last pass.
+     *
+     * @return summary map (in a stable key order)
      */
     public Map<String, String> asSummaryMap() {
-        Map<String, String> m = new HashMap<>();
-        m.put("total_arrivals", Integer.toString(totalArrivals));
-        m.put("total_departures", Integer.toString(totalDepartures));
-        m.put("avg_wait", String.format("%.4f",
-                waitTimes.stream().mapToDouble(d -> d).average().orElse(0.0)));
-        m.put("avg_service", String.format("%.4f",
-                serviceTimes.stream().mapToDouble(d -> d).average().orElse(0.0)));
+        if (summary == null) {
+            finalizeStats();
+        }
+        return summary;
+    }
 
-        for (Map.Entry<String, Double> e : doctorBusy.entrySet()) {
-            m.put(
-                    "doctor_" + e.getKey() + "_busy_minutes",
-                    String.format("%.3f", e.getValue())
-            );
+    /**
+     * Writes the collector state for a checkpoint.
+     *
+     * <p>Doctor busy totals are not included; they are added only when the
+     * run finishes.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(totalArrivals);
+        out.writeInt(totalDepartures);
+        waitTimes.writeTo(out);
+        serviceTimes.writeTo(out);
+        for (int i = 0; i <= Patient.SEVERITY_LEVELS; i++) {
+            waitSketches[i].writeTo(out);
+            serviceSketches[i].writeTo(out);
+        }
+        out.writeBoolean(steadyState != null);
+        if (steadyState != null) {
+            steadyState.writeTo(out);
+        }
+    }
+
+    /**
+     * Replaces the collector state with one written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails or the steady-state settings differ
+     */
+    public void readFrom(DataInput in) throws IOException {
+        reset();
+        totalArrivals = in.readInt();
+        totalDepartures = in.readInt();
+        waitTimes.readFrom(in);
+        serviceTimes.readFrom(in);
+        for (int i = 0; i <= Patient.SEVERITY_LEVELS; i++) {
+            waitSketches[i].readFrom(in);
+            serviceSketches[i].readFrom(in);
+        }
+        if (in.readBoolean() != (steadyState != null)) {
+            throw new IOException("Checkpoint steady-state settings differ");
+        }
+        if (steadyState != null) {
+            steadyState.readFrom(in);
         }
-        return m;
+    }
+
+    /** @return number of departures recorded so far */
+    public int getTotalDepartures() {
+        return totalDepartures;
     }
 
     /**
@@ -139,6 +378,36 @@ public class StatsCollector {
      * @return average wait time (minutes)
      */
     public double getAverageWaitSafe() {
-        return waitTimes.stream().mapToDouble(d -> d).average().orElse(0.0);
+        return waitTimes.mean();
+    }
+
+    /** @return waiting time accumulator */
+    public RunningStats getWaitStats() {
+        return waitTimes;
+    }
+
+    /** @return service time accumulator */
+    public RunningStats getServiceStats() {
+        return serviceTimes;
+    }
+
+    /**
+     * Returns a wait time sketch, for reporting or merging across replications.
+     *
+     * @param severity severity level (1–5), or 0 for all patients
+     * @return wait time sketch
+     */
+    public LogHistogram getWaitSketch(int severity) {
+        return waitSketches[severity];
+    }
+
+    /**
+     * Returns a service time sketch, for reporting or merging across replications.
+     *
+     * @param severity severity level (1–5), or 0 for all patients
+     * @return service time sketch
+     */
+    public LogHistogram getServiceSketch(int severity) {
+        return serviceSketches[severity];
     }
 }
@@ -0,0 +1,247 @@
+package ER;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * SteadyStateEstimator estimates the steady-state mean of an output series
+ * (patient waiting times in service-start order) from a single run.
+ *
+ * <p>Observations are averaged on the fly into groups of five, so memory
+ * grows with one fifth of the series and recording never allocates except
+ * when the group buffer doubles. After the run the estimator can:
+ * <ul>
+ *   <li>Choose a warm-up truncation point with MSER-5 (White, 1997): the
+ *       number of leading groups {@code d <= n/2} minimizing
+ *       {@code sum((x_i - mean_d)^2) / (n - d)^2} over the remaining groups</li>
+ *   <li>Compute a non-overlapping batch-means confidence interval from the
+ *       retained groups, with the lag-1 autocorrelation of the batch means
+ *       as an independence diagnostic</li>
+ * </ul>
+ */
+public class SteadyStateEstimator {
+
+    /** Observations averaged into one group (the "5" of MSER-5) */
+    public static final int GROUP_SIZE = 5;
+
+    /** Initial capacity of the group buffers */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** Means of completed groups */
+    private double[] groupMeans = new double[INITIAL_CAPACITY];
+
+    /** Time of the last observation of each completed group */
+    private double[] groupTimes = new double[INITIAL_CAPACITY];
+
+    /** Number of completed groups */
+    private int groups = 0;
+
+    /** Number of times the group buffers had to be enlarged */
+    private int growths = 0;
+
+    /** Sum of the observations in the open group */
+    private double openSum = 0.0;
+
+    /** Observations in the open group */
+    private int openCount = 0;
+
+    /**
+     * Records an observation.
+     *
+     * @param time observation time (minutes)
+     * @param x    observed value
+     */
+    public void add(double time, double x) {
+        openSum += x;
+        if (++openCount < GROUP_SIZE) {
+            return;
+        }
+        if (groups == groupMeans.length) {
+            groupMeans = Arrays.copyOf(groupMeans, groups * 2);
+            groupTimes = Arrays.copyOf(groupTimes, groups * 2);
+            growths++;
+        }
+        groupMeans[groups] = openSum / GROUP_SIZE;
+        groupTimes[groups] = time;
+        groups++;
+        openSum = 0.0;
+        openCount = 0;
+    }
+
+    /**
+     * Enlarges the group buffers ahead of time so that
+     * {@code observations} observations fit without growing. Not counted
+     * in {@link #growths()}.
+     *
+     * @param observations number of observations expected
+     */
+    public void ensureCapacity(int observations) {
+        int needed = observations / GROUP_SIZE + 1;
+        if (needed > groupMeans.length) {
+            groupMeans = Arrays.copyOf(groupMeans, needed);
+            groupTimes = Arrays.copyOf(groupTimes, needed);
+        }
+    }
+
+    /** @return number of times the group buffers were enlarged while recording */
+    public int growths() {
+        return growths;
+    }
+
+    /**
+     * Discards all observations.
+     */
+    public void reset() {
+        groups = 0;
+        openSum = 0.0;
+        openCount = 0;
+    }
+
+    /**
+     * Writes the estimator state.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(groups);
+        for (int i = 0; i < groups; i++) {
+            out.writeDouble(groupMeans[i]);
+            out.writeDouble(groupTimes[i]);
+        }
+        out.writeDouble(openSum);
+        out.writeInt(openCount);
+    }
+
+    /**
+     * Replaces the estimator state with one written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails
+     */
+    public void readFrom(DataInput in) throws IOException {
+        groups = in.readInt();
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, groups)) << 1);
+        groupMeans = new double[capacity];
+        groupTimes = new double[capacity];
+        for (int i = 0; i < groups; i++) {
+            groupMeans[i] = in.readDouble();
+            groupTimes[i] = in.readDouble();
+        }
+        openSum = in.readDouble();
+        openCount = in.readInt();
+    }
+
+    /** @return number of completed groups of five */
+    public int groupCount() {
+        return groups;
+    }
+
+    /**
+     * Returns the MSER-5 truncation point.
+     *
+     * @return number of leading groups to discard (0 with fewer than two groups)
+     */
+    public int mser5Truncation() {
+        int n = groups;
+        if (n < 2) {
+            return 0;
+        }
+
+        // Welford accumulation over suffixes, from the last group backwards
+        double mean = 0.0;
+        double ss = 0.0;
+        int best = 0;
+        double bestValue = Double.POSITIVE_INFINITY;
+        for (int d = n - 1; d >= 0; d--) {
+            int k = n - d;
+            double x = groupMeans[d];
+            double delta = x - mean;
+            mean += delta / k;
+            ss += delta * (x - mean);
+
+            if (d <= n / 2) {
+                double value = ss / ((double) k * k);
+                if (value <= bestValue) {
+                    bestValue = value;
+                    best = d;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the time at which a truncation point ends.
+     *
+     * @param truncate number of discarded leading groups
+     * @return time of the last discarded observation (0 if none)
+     */
+    public double truncationTime(int truncate) {
+        return truncate > 0 ? groupTimes[truncate - 1] : 0.0;
+    }
+
+    /**
+     * Adds steady-state estimates to a summary map.
+     *
+     * <p>Keys added:
+     * <ul>
+     *   <li>{@code ss_truncated_groups}, {@code ss_truncation_minutes}</li>
+     *   <li>{@code ss_avg_wait} – mean of the retained observations</li>
+     *   <li>{@code bm_batches}, {@code bm_avg_wait}, {@code bm_ci95_half_width},
+     *       {@code bm_lag1_autocorr} – when batch means are requested</li>
+     * </ul>
+     *
+     * @param m        summary map to extend
+     * @param truncate number of leading groups to discard
+     * @param batches  number of batch means (0 = no batch-means interval)
+     */
+    public void addTo(Map<String, String> m, int truncate, int batches) {
+        truncate = Math.max(0, Math.min(truncate, groups));
+        int n = groups - truncate;
+        m.put("ss_truncated_groups", Integer.toString(truncate));
+        m.put("ss_truncation_minutes", String.format("%.4f", truncationTime(truncate)));
+
+        double sum = 0.0;
+        for (int i = truncate; i < groups; i++) {
+            sum += groupMeans[i];
+        }
+        m.put("ss_avg_wait", String.format("%.4f", n > 0 ? sum / n : 0.0));
+
+        if (batches <= 0) {
+            return;
+        }
+
+        // Equal-size batches; leftover groups at the start are dropped
+        int k = Math.min(batches, n);
+        int size = k > 0 ? n / k : 0;
+        RunningStats means = new RunningStats();
+        double[] bm = new double[k];
+        int start = groups - k * size;
+        for (int b = 0; b < k; b++) {
+            double s = 0.0;
+            for (int i = 0; i < size; i++) {
+                s += groupMeans[start + b * size + i];
+            }
+            bm[b] = s / size;
+            means.add(bm[b]);
+        }
+
+        double lag1 = 0.0;
+        if (k > 2 && means.variance() > 0) {
+            double c = 0.0;
+            for (int b = 1; b < k; b++) {
+                c += (bm[b] - means.mean()) * (bm[b - 1] - means.mean());
+            }
+            lag1 = c / ((k - 1) * means.variance());
+        }
+
+        m.put("bm_batches", Integer.toString(k));
+        m.put("bm_avg_wait", String.format("%.4f", means.mean()));
+        m.put("bm_ci95_half_width", String.format("%.4f", means.ciHalfWidthT(0.95)));
+        m.put("bm_lag1_autocorr", String.format("%.4f", lag1));
+    }
+}
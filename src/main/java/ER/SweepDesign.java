@@ -0,0 +1,401 @@
+package ER;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.LongStream;
+
+/**
+ * SweepDesign is an immutable design of experiments over scenario
+ * parameters: a full factorial grid or a Latin hypercube sample.
+ *
+ * <p>Design points are never stored. Point {@code i} is computed on
+ * demand from its index:
+ * <ul>
+ *   <li>Grid: the index is decoded in mixed radix, one digit per factor,
+ *       with the last factor varying fastest</li>
+ *   <li>Latin hypercube: each factor maps the index to one of
+ *       {@code points} equal strata through its own keyed pseudorandom
+ *       permutation (a four-round Feistel network over the next power of
+ *       four, cycle-walked back into range), and a hashed jitter places
+ *       the value inside the stratum. Every stratum of every factor is
+ *       used exactly once, and factors are paired independently of each
+ *       other</li>
+ * </ul>
+ *
+ * <p>Supported factors are the {@link Config} keys
+ * {@code arrival.rate.per.hour}, {@code num.doctors},
+ * {@code service.mean.minutes} and {@code sim.hours}. Example definition:
+ * <pre>
+ * design=lhs
+ * points=2000
+ * seed=7
+ * output.dir=runs/sweep
+ * factor.arrival.rate.per.hour=10:60
+ * factor.num.doctors=2:8
+ * factor.service.mean.minutes=8,10,12,15
+ * </pre>
+ * A factor is either a range {@code min:max}, a range with a level count
+ * {@code min:max:levels} (grid only), or a comma-separated list of
+ * values. Lists in a Latin hypercube are sampled by stratum. A
+ * {@code num.doctors} range in a Latin hypercube is sampled as the list
+ * of whole doctor counts it contains, so every count gets an equal share
+ * of the strata; grid values are rounded to whole doctors.
+ */
+public class SweepDesign {
+
+    /** Factor keys accepted in a definition, in column order */
+    private static final String[] KNOWN_FACTORS = {
+            "arrival.rate.per.hour",
+            "num.doctors",
+            "service.mean.minutes",
+            "sim.hours"
+    };
+
+    /** Whether points form a Latin hypercube instead of a grid */
+    private final boolean latinHypercube;
+
+    /** Number of design points */
+    private final long points;
+
+    /** Seed of the Latin hypercube permutations and jitter */
+    private final long seed;
+
+    /** Directory receiving per-point runs and the results table */
+    private final String outputDir;
+
+    /** Factor keys, in column order */
+    private final String[] factors;
+
+    /** Range lower bounds (NaN for value lists) */
+    private final double[] min;
+
+    /** Range upper bounds (NaN for value lists) */
+    private final double[] max;
+
+    /** Explicit factor values, or null for ranges */
+    private final double[][] levels;
+
+    /** Grid levels per factor */
+    private final long[] radix;
+
+    /** Feistel rounds of the Latin hypercube permutations */
+    private static final int FEISTEL_ROUNDS = 4;
+
+    /** Bits in each half of a permutation block */
+    private final int halfBits;
+
+    /** Latin hypercube permutation keys, one per factor */
+    private final long[] key;
+
+    private SweepDesign(
+            boolean latinHypercube,
+            long points,
+            long seed,
+            String outputDir,
+            String[] factors,
+            double[] min,
+            double[] max,
+            double[][] levels,
+            long[] radix
+    ) {
+        this.latinHypercube = latinHypercube;
+        this.points = points;
+        this.seed = seed;
+        this.outputDir = outputDir;
+        this.factors = factors;
+        this.min = min;
+        this.max = max;
+        this.levels = levels;
+        this.radix = radix;
+
+        // Smallest block of 4^h indices covering every point, so cycle
+        // walking needs fewer than four steps on average
+        int h = 1;
+        while (h < 32 && (1L << (2 * h)) < points) {
+            h++;
+        }
+        this.halfBits = h;
+
+        // One independent permutation key per factor
+        this.key = new long[factors.length];
+        for (int f = 0; f < factors.length; f++) {
+            key[f] = L64X128Random.mixLea64(seed ^ (0x9E3779B97F4A7C15L * (f + 1)));
+        }
+    }
+
+    /**
+     * Loads a sweep definition from a properties file.
+     *
+     * @param path path to the sweep definition
+     * @return the loaded design
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static SweepDesign load(String path) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = new FileInputStream(path)) {
+            p.load(in);
+        }
+        return fromProperties(p);
+    }
+
+    /**
+     * Builds a design from definition properties.
+     *
+     * @param p sweep properties (see class documentation)
+     * @return the design
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static SweepDesign fromProperties(Properties p) {
+        String design = p.getProperty("design", "grid").trim().toLowerCase();
+        boolean lhs;
+        switch (design) {
+            case "grid":
+                lhs = false;
+                break;
+            case "lhs":
+                lhs = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sweep design: " + design);
+        }
+
+        for (String key : p.stringPropertyNames()) {
+            if (key.startsWith("factor.") && !List.of(KNOWN_FACTORS).contains(key.substring(7))) {
+                throw new IllegalArgumentException("Unknown sweep factor: " + key.substring(7));
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        for (String f : KNOWN_FACTORS) {
+            if (p.getProperty("factor." + f) != null) {
+                names.add(f);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Sweep defines no factors");
+        }
+
+        int n = names.size();
+        double[] min = new double[n];
+        double[] max = new double[n];
+        double[][] levels = new double[n][];
+        long[] radix = new long[n];
+        long gridPoints = 1;
+
+        for (int f = 0; f < n; f++) {
+            String spec = p.getProperty("factor." + names.get(f)).trim();
+            min[f] = Double.NaN;
+            max[f] = Double.NaN;
+            if (spec.contains(":")) {
+                String[] parts = spec.split(":");
+                min[f] = Double.parseDouble(parts[0].trim());
+                max[f] = Double.parseDouble(parts[1].trim());
+                if (parts.length > 2) {
+                    if (lhs) {
+                        throw new IllegalArgumentException(
+                                "Level counts apply to grid designs only: " + names.get(f));
+                    }
+                    radix[f] = Long.parseLong(parts[2].trim());
+                } else if (!lhs) {
+                    throw new IllegalArgumentException(
+                            "Grid factor needs min:max:levels or a list: " + names.get(f));
+                }
+            } else {
+                String[] parts = spec.split(",");
+                levels[f] = new double[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    levels[f][i] = Double.parseDouble(parts[i].trim());
+                }
+                radix[f] = parts.length;
+            }
+
+            // Rounding a continuous sample would give the end counts half
+            // the weight of the others; stratify the whole counts instead
+            if (lhs && levels[f] == null && names.get(f).equals("num.doctors")) {
+                long lo = Math.max(1, (long) Math.ceil(min[f]));
+                long hi = (long) Math.floor(max[f]);
+                if (hi < lo) {
+                    throw new IllegalArgumentException("num.doctors range contains no whole doctor count");
+                }
+                levels[f] = LongStream.rangeClosed(lo, hi).asDoubleStream().toArray();
+                radix[f] = levels[f].length;
+                min[f] = Double.NaN;
+                max[f] = Double.NaN;
+            }
+            if (!lhs) {
+                if (radix[f] < 1) {
+                    throw new IllegalArgumentException("Factor has no levels: " + names.get(f));
+                }
+                gridPoints = Math.multiplyExact(gridPoints, radix[f]);
+            }
+        }
+
+        long points = lhs ? Long.parseLong(p.getProperty("points", "100").trim()) : gridPoints;
+        if (points < 1) {
+            throw new IllegalArgumentException("Sweep has no points");
+        }
+        if (lhs && points > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Latin hypercube limited to " + Integer.MAX_VALUE + " points");
+        }
+
+        return new SweepDesign(
+                lhs,
+                points,
+                Long.parseLong(p.getProperty("seed", "1").trim()),
+                p.getProperty("output.dir", "runs/sweep").trim(),
+                names.toArray(new String[0]),
+                min,
+                max,
+                levels,
+                radix
+        );
+    }
+
+    /** @return number of design points */
+    public long size() {
+        return points;
+    }
+
+    /** @return directory receiving per-point runs and the results table */
+    public String outputDir() {
+        return outputDir;
+    }
+
+    /** @return factor keys, in column order */
+    public List<String> factors() {
+        return List.of(factors);
+    }
+
+    /**
+     * Returns the largest number of doctors of any design point.
+     *
+     * @param baseDoctors doctors of the base configuration, used when
+     *                    {@code num.doctors} is not a factor
+     * @return maximum doctor count
+     */
+    public int maxDoctors(int baseDoctors) {
+        int f = Arrays.asList(factors).indexOf("num.doctors");
+        if (f < 0) {
+            return baseDoctors;
+        }
+        double hi = levels[f] != null ? Arrays.stream(levels[f]).max().getAsDouble() : max[f];
+        return (int) Math.max(1, Math.round(hi));
+    }
+
+    /**
+     * Computes the value of one factor at one design point.
+     *
+     * @param point  design point index, {@code 0 <= point < size()}
+     * @param factor factor position in {@link #factors()}
+     * @return factor value
+     */
+    public double value(long point, int factor) {
+        if (point < 0 || point >= points) {
+            throw new IndexOutOfBoundsException("Point " + point + " of " + points);
+        }
+        double v = latinHypercube ? lhsValue(point, factor) : gridValue(point, factor);
+        return factors[factor].equals("num.doctors") ? Math.max(1, Math.round(v)) : v;
+    }
+
+    /**
+     * Decodes the grid level of a factor from the point index.
+     */
+    private double gridValue(long point, int factor) {
+        long rest = point;
+        for (int f = factors.length - 1; f > factor; f--) {
+            rest /= radix[f];
+        }
+        int level = (int) (rest % radix[factor]);
+        if (levels[factor] != null) {
+            return levels[factor][level];
+        }
+        return radix[factor] == 1
+                ? min[factor]
+                : min[factor] + (max[factor] - min[factor]) * level / (radix[factor] - 1);
+    }
+
+    /**
+     * Places a point in its permuted stratum of a factor.
+     */
+    private double lhsValue(long point, int factor) {
+        long stratum = permute(point, factor);
+        if (levels[factor] != null) {
+            return levels[factor][(int) (stratum * levels[factor].length / points)];
+        }
+        long bits = L64X128Random.mixLea64(seed ^ (point * 0x9E3779B97F4A7C15L) ^ ((long) factor << 56));
+        double jitter = (bits >>> 11) * 0x1.0p-53;
+        return min[factor] + (max[factor] - min[factor]) * (stratum + jitter) / points;
+    }
+
+    /**
+     * Builds the configuration of one design point.
+     *
+     * <p>Every point keeps the base seed, so points are compared under
+     * common random numbers.
+     *
+     * @param base  base configuration
+     * @param point design point index
+     * @return configuration with the factors of the point applied and its
+     *         own output directory
+     */
+    public Config configFor(Config base, long point) {
+        Config c = base.copy();
+        for (int f = 0; f < factors.length; f++) {
+            double v = value(point, f);
+            switch (factors[f]) {
+                case "arrival.rate.per.hour":
+                    c.arrivalRatePerHour = v;
+                    break;
+                case "num.doctors":
+                    c.numDoctors = (int) v;
+                    break;
+                case "service.mean.minutes":
+                    c.serviceMeanMinutes = v;
+                    break;
+                case "sim.hours":
+                    c.simHours = v;
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled factor " + factors[f]);
+            }
+        }
+        c.outputDir = outputDir + "/" + String.format("point_%06d", point);
+        return c;
+    }
+
+    /**
+     * Maps a point index to its stratum of one factor.
+     *
+     * <p>A balanced Feistel network is a bijection on its block for any
+     * round function; applying it again to values beyond the last point
+     * (cycle walking) restricts it to a bijection on {@code 0 .. points-1}.
+     */
+    private long permute(long point, int factor) {
+        long x = point;
+        do {
+            x = feistel(x, key[factor]);
+        } while (x >= points);
+        return x;
+    }
+
+    /**
+     * Applies the keyed Feistel network to one block value.
+     */
+    private long feistel(long x, long k) {
+        long mask = (1L << halfBits) - 1;
+        long left = x >>> halfBits;
+        long right = x & mask;
+        for (int r = 0; r < FEISTEL_ROUNDS; r++) {
+            long next = left ^ (L64X128Random.mixLea64(right ^ k ^ ((long) r << 56)) & mask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+}
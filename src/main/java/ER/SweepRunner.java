@@ -0,0 +1,208 @@
+package ER;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * SweepRunner executes every point of a {@link SweepDesign} and streams
+ * one row per point to {@code <outputDir>/sweep_results.csv}.
+ *
+ * <p>The runner:
+ * <ul>
+ *   <li>Expands design points one at a time as workers become free, so at
+ *       most a small multiple of the worker count is ever in memory</li>
+ *   <li>Runs points on the configured worker pool
+ *       ({@link Config#batchWorkers}, {@link Config#batchVirtualThreads})</li>
+ *   <li>Writes each row as soon as its run finishes, in completion order;
+ *       the {@code point} column identifies the design point</li>
+ * </ul>
+ *
+ * <p>Columns are the point index, the factor values, and the summary
+ * keys. Summary keys depend only on the configuration, and across design
+ * points only the per-doctor {@code doctor_D<n>_busy_minutes} keys vary,
+ * so the columns hold one such key for every doctor up to
+ * {@link SweepDesign#maxDoctors(int)} and otherwise follow the summary
+ * order. The table therefore has the same columns whichever point
+ * finishes first ({@code NA} where a point has fewer doctors). Each point
+ * also writes its usual outputs to its own {@code point_NNNNNN}
+ * directory.
+ *
+ * <p>With {@link Config#resultsColumnar}, the runner also writes a
+ * {@link ResultsIndex} of every point, in point order, to
+ * {@code <outputDir>/results.idx}. Only the summaries are kept for it,
+ * not the runs.
+ */
+public class SweepRunner {
+
+    /** Runs submitted per worker before waiting for one to finish */
+    private static final int IN_FLIGHT_PER_WORKER = 2;
+
+    /** Base configuration shared by all points */
+    private final Config base;
+
+    /** Design whose points are run */
+    private final SweepDesign design;
+
+    /**
+     * Creates a runner for a design.
+     *
+     * @param base   base configuration (factors of each point override it)
+     * @param design sweep design
+     */
+    public SweepRunner(Config base, SweepDesign design) {
+        this.base = base;
+        this.design = design;
+    }
+
+    /**
+     * Result of one design point.
+     */
+    private static final class PointResult {
+        final long point;
+        final RunResult result;
+
+        PointResult(long point, RunResult result) {
+            this.point = point;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Runs every design point.
+     *
+     * @return path of the results table
+     * @throws IOException if output writing fails
+     */
+    public Path run() throws IOException {
+        int maxInFlight = SimulationEngine.workerCount(base.batchWorkers, design.size()) * IN_FLIGHT_PER_WORKER;
+
+        Path out = Files.createDirectories(Paths.get(design.outputDir())).resolve("sweep_results.csv");
+        ExecutorService pool = SimulationEngine.newWorkerPool(base, design.size(), "sweep-worker-");
+        CompletionService<PointResult> done = new ExecutorCompletionService<>(pool);
+
+        List<PointResult> indexed = base.resultsColumnar ? new ArrayList<>() : null;
+        int doctors = design.maxDoctors(base.numDoctors);
+
+        try (BufferedWriter w = Files.newBufferedWriter(out)) {
+            List<String> keys = null;
+            long next = 0;
+            int inFlight = 0;
+
+            while (next < design.size() || inFlight > 0) {
+
+                // Keep the pool busy without expanding the whole design
+                while (next < design.size() && inFlight < maxInFlight) {
+                    long point = next++;
+                    Config c = design.configFor(base, point);
+                    done.submit(() -> new PointResult(point, new SimulationEngine(c).run()));
+                    inFlight++;
+                }
+
+                PointResult r = done.take().get();
+                inFlight--;
+
+                if (keys == null) {
+                    keys = columns(r.result.summary, doctors);
+                    writeHeader(w, keys);
+                }
+                writeRow(w, r, keys);
+                if (indexed != null) {
+                    indexed.add(r);
+                }
+            }
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Sweep interrupted", ex);
+
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Sweep run failed", cause);
+
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Index every point of the sweep in one binary file
+        if (indexed != null) {
+            indexed.sort(Comparator.comparingLong(r -> r.point));
+            List<RunResult> results = new ArrayList<>(indexed.size());
+            for (PointResult r : indexed) {
+                results.add(r.result);
+            }
+            ResultsIndex.write(out.resolveSibling("results.idx"), results);
+        }
+        return out;
+    }
+
+    /**
+     * Builds the summary columns of the results table from any point's
+     * summary, replacing its per-doctor keys with one key for each of
+     * {@code doctors} doctors.
+     */
+    private static List<String> columns(Map<String, String> summary, int doctors) {
+        List<String> keys = new ArrayList<>();
+        boolean doctorKeys = false;
+        for (String k : summary.keySet()) {
+            if (!k.startsWith("doctor_D") || !k.endsWith("_busy_minutes")) {
+                keys.add(k);
+            } else if (!doctorKeys) {
+                for (int d = 1; d <= doctors; d++) {
+                    keys.add("doctor_D" + d + "_busy_minutes");
+                }
+                doctorKeys = true;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Writes the header row of the results table.
+     */
+    private void writeHeader(BufferedWriter w, List<String> keys) throws IOException {
+        w.write("point");
+        for (String f : design.factors()) {
+            w.write(',');
+            w.write(f);
+        }
+        for (String k : keys) {
+            w.write(',');
+            w.write(k);
+        }
+        w.write('\n');
+    }
+
+    /**
+     * Writes and flushes the row of one finished point.
+     */
+    private void writeRow(BufferedWriter w, PointResult r, List<String> keys) throws IOException {
+        w.write(Long.toString(r.point));
+        for (int f = 0; f < design.factors().size(); f++) {
+            w.write(',');
+            w.write(Double.toString(design.value(r.point, f)));
+        }
+        for (String k : keys) {
+            w.write(',');
+            w.write(r.result.summary.getOrDefault(k, "NA"));
+        }
+        w.write('\n');
+        w.flush();
+    }
+}
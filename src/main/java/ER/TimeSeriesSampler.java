@@ -0,0 +1,164 @@
+package ER;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * TimeSeriesSampler records the state of the Emergency Room at fixed
+ * simulation-time intervals.
+ *
+ * <p>At every interval boundary the sampler captures:
+ * <ul>
+ *   <li>Queue length for each severity level</li>
+ *   <li>Number of busy doctors</li>
+ *   <li>Cumulative throughput (departures so far)</li>
+ * </ul>
+ *
+ * <p>All columns are primitive arrays sized for the whole run when the
+ * sampler is created, so taking a sample never allocates. The sampler is
+ * driven by the engine's event loop: before each event executes, every
+ * boundary up to the event's time is sampled from the (piecewise constant)
+ * system state.
+ */
+public class TimeSeriesSampler {
+
+    /** Sampling interval (minutes) */
+    private final double interval;
+
+    /** Maximum number of samples for the run */
+    private final int capacity;
+
+    /** Sample times (minutes) */
+    private final double[] time;
+
+    /** Queue lengths, row-major: {@code [sample * SEVERITY_LEVELS + severity - 1]} */
+    private final int[] queueBySeverity;
+
+    /** Busy doctor counts */
+    private final int[] busyDoctors;
+
+    /** Cumulative departures */
+    private final int[] throughput;
+
+    /** Number of samples taken so far */
+    private int size = 0;
+
+    /**
+     * Creates a sampler covering {@code [0, endTime]}.
+     *
+     * @param intervalMinutes sampling interval (minutes, must be positive)
+     * @param endTime         simulation end time (minutes)
+     */
+    public TimeSeriesSampler(double intervalMinutes, double endTime) {
+        this.interval = intervalMinutes;
+        this.capacity = (int) Math.floor(endTime / intervalMinutes) + 1;
+
+        time = new double[capacity];
+        queueBySeverity = new int[capacity * Patient.SEVERITY_LEVELS];
+        busyDoctors = new int[capacity];
+        throughput = new int[capacity];
+    }
+
+    /**
+     * Takes every sample due at or before the given time.
+     *
+     * <p>Called with the time of the next event before it executes, so each
+     * sample reflects the state in effect at its boundary.
+     *
+     * @param now    simulation time up to which samples are due
+     * @param engine engine whose state is sampled
+     */
+    public void sampleUpTo(double now, SimulationEngine engine) {
+        while (size < capacity && size * interval <= now) {
+            time[size] = size * interval;
+
+            int row = size * Patient.SEVERITY_LEVELS;
+            for (int sev = 1; sev <= Patient.SEVERITY_LEVELS; sev++) {
+                queueBySeverity[row + sev - 1] = engine.queue.size(sev);
+            }
+            busyDoctors[size] = engine.busyDoctorCount();
+            throughput[size] = engine.stats.getTotalDepartures();
+
+            size++;
+        }
+    }
+
+    /**
+     * Writes the samples taken so far.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(time[i]);
+            for (int k = 0; k < Patient.SEVERITY_LEVELS; k++) {
+                out.writeInt(queueBySeverity[i * Patient.SEVERITY_LEVELS + k]);
+            }
+            out.writeInt(busyDoctors[i]);
+            out.writeInt(throughput[i]);
+        }
+    }
+
+    /**
+     * Replaces the samples with those written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails or the samples do not fit
+     */
+    public void readFrom(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n > capacity) {
+            throw new IOException("Checkpoint time series does not fit the run horizon");
+        }
+        for (int i = 0; i < n; i++) {
+            time[i] = in.readDouble();
+            for (int k = 0; k < Patient.SEVERITY_LEVELS; k++) {
+                queueBySeverity[i * Patient.SEVERITY_LEVELS + k] = in.readInt();
+            }
+            busyDoctors[i] = in.readInt();
+            throughput[i] = in.readInt();
+        }
+        size = n;
+    }
+
+    /** @return number of samples taken */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i sample index
+     * @return sample time (minutes)
+     */
+    public double timeAt(int i) {
+        return time[i];
+    }
+
+    /**
+     * @param i        sample index
+     * @param severity severity level (1–5)
+     * @return queue length for the severity level
+     */
+    public int queueAt(int i, int severity) {
+        return queueBySeverity[i * Patient.SEVERITY_LEVELS + severity - 1];
+    }
+
+    /**
+     * @param i sample index
+     * @return number of busy doctors
+     */
+    public int busyDoctorsAt(int i) {
+        return busyDoctors[i];
+    }
+
+    /**
+     * @param i sample index
+     * @return cumulative departures
+     */
+    public int throughputAt(int i) {
+        return throughput[i];
+    }
+}
@@ -0,0 +1,35 @@
+package ER;
+
+/**
+ * TraceLevel controls how much console and trace output a simulation run
+ * produces.
+ *
+ * <p>Levels are ordered from quietest to most verbose:
+ * <ul>
+ *   <li>{@link #OFF} – no output at all (production sweeps)</li>
+ *   <li>{@link #SUMMARY} – end-of-run summary printed to the console</li>
+ *   <li>{@link #EVENTS} – summary plus every event written to the trace sink</li>
+ * </ul>
+ */
+public enum TraceLevel {
+
+    /** No per-run output */
+    OFF,
+
+    /** End-of-run summary only */
+    SUMMARY,
+
+    /** Summary plus a full per-event trace */
+    EVENTS;
+
+    /**
+     * Parses a trace level name, ignoring case.
+     *
+     * @param name level name (e.g., "off", "summary", "events")
+     * @return the matching trace level
+     * @throws IllegalArgumentException if the name is not a known level
+     */
+    public static TraceLevel parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
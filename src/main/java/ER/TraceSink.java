@@ -0,0 +1,100 @@
+package ER;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * TraceSink receives a record of every event executed by the
+ * {@link SimulationEngine}.
+ *
+ * <p>Events call the sink with primitive values (patient identifier and
+ * severity) and doctor references rather than preformatted strings, so that:
+ * <ul>
+ *   <li>A disabled trace costs a single virtual call per event</li>
+ *   <li>Text sinks format only the records they actually write</li>
+ *   <li>Binary sinks can encode records without any formatting at all</li>
+ * </ul>
+ *
+ * <p>Implementations are used by a single engine thread and need not be
+ * thread-safe.
+ */
+public interface TraceSink extends Closeable {
+
+    /** Record type code for patient arrivals */
+    int ARRIVAL = 1;
+
+    /** Record type code for service completions */
+    int SERVICE_END = 2;
+
+    /** Record type code for patient departures */
+    int DEPARTURE = 3;
+
+    /**
+     * Records a patient arrival.
+     *
+     * @param time      simulation time of the arrival
+     * @param patientId identifier of the arriving patient
+     * @param severity  severity of the arriving patient
+     */
+    void arrival(double time, int patientId, int severity);
+
+    /**
+     * Records the completion of service.
+     *
+     * @param time      simulation time service ended
+     * @param patientId identifier of the patient whose service ended
+     * @param severity  severity of the patient
+     * @param doctor    doctor who served the patient (may be null)
+     */
+    void serviceEnd(double time, int patientId, int severity, Doctor doctor);
+
+    /**
+     * Records a patient departure.
+     *
+     * @param time      simulation time of the departure
+     * @param patientId identifier of the departing patient
+     * @param severity  severity of the departing patient
+     */
+    void departure(double time, int patientId, int severity);
+
+    /**
+     * Flushes buffered records and releases underlying resources.
+     *
+     * @throws IOException if buffered records cannot be written
+     */
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Opens a trace sink of the requested kind.
+     *
+     * <p>Supported kinds:
+     * <ul>
+     *   <li>{@code none} – discard every record</li>
+     *   <li>{@code console} – human-readable lines on standard output</li>
+     *   <li>{@code file} – buffered asynchronous CSV file {@code trace.csv}</li>
+     *   <li>{@code binary} – compact fixed-width records in {@code trace.bin}</li>
+     * </ul>
+     *
+     * @param kind sink kind
+     * @param dir  run output directory for file-based sinks
+     * @return an open trace sink
+     * @throws IOException if the trace file cannot be created
+     * @throws IllegalArgumentException if the kind is not recognised
+     */
+    static TraceSink open(String kind, Path dir) throws IOException {
+        switch (kind.trim().toLowerCase()) {
+            case "none":
+                return NoOpTraceSink.INSTANCE;
+            case "console":
+                return new ConsoleTraceSink();
+            case "file":
+                return new AsyncFileTraceSink(dir.resolve("trace.csv"));
+            case "binary":
+                return new BinaryTraceSink(dir.resolve("trace.bin"));
+            default:
+                throw new IllegalArgumentException("Unknown trace sink: " + kind);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ER;
+
+/**
+ * TransferEvent represents a patient arriving from another site of a
+ * {@link HospitalNetwork}, either transferred after treatment there or
+ * diverted on the way in.
+ *
+ * <p>The patient enters like a walk-in arrival: a new row is added to the
+ * engine's {@link PatientTable}, the arrival is recorded, and the patient
+ * is admitted to a doctor or queued. Unlike an {@link ArrivalEvent}, no
+ * further arrival is scheduled.
+ */
+public class TransferEvent extends Event {
+
+    /** Severity of the arriving patient (1–5) */
+    private final int severity;
+
+    /**
+     * Constructs a transfer arrival.
+     *
+     * @param time     arrival time at this site
+     * @param severity severity of the transferred patient
+     */
+    public TransferEvent(double time, int severity) {
+        super(time);
+        this.severity = severity;
+    }
+
+    /** @return severity of the arriving patient */
+    public int getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Executes the transfer arrival.
+     *
+     * @param engine the simulation engine of the receiving site
+     */
+    @Override
+    public void execute(SimulationEngine engine) {
+        int id = engine.nextPatientId();
+        int p = engine.patients.add(id, severity, time);
+
+        engine.stats.recordArrival(severity);
+        engine.trace.arrival(time, id, severity);
+
+        engine.admit(p, time);
+
+        if (engine.site != null) {
+            engine.site.received();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Triangular distribution on {@code [min, max]} with the given mode,
+ * sampled by inverting its CDF.
+ */
+public class TriangularDistribution implements Distribution {
+
+    /** Lower bound */
+    private final double min;
+
+    /** Upper bound */
+    private final double max;
+
+    /** CDF value at the mode */
+    private final double modeCdf;
+
+    /** {@code (max - min) * (mode - min)} */
+    private final double lowerSpan;
+
+    /** {@code (max - min) * (max - mode)} */
+    private final double upperSpan;
+
+    /** Mean value */
+    private final double mean;
+
+    /**
+     * @param min  lower bound
+     * @param mode most likely value ({@code min <= mode <= max})
+     * @param max  upper bound ({@code max > min})
+     */
+    public TriangularDistribution(double min, double mode, double max) {
+        if (!(min <= mode && mode <= max && min < max)) {
+            throw new IllegalArgumentException("Triangular requires min <= mode <= max and min < max");
+        }
+        this.min = min;
+        this.max = max;
+        this.modeCdf = (mode - min) / (max - min);
+        this.lowerSpan = (max - min) * (mode - min);
+        this.upperSpan = (max - min) * (max - mode);
+        this.mean = (min + mode + max) / 3;
+    }
+
+    @Override
+    public double sample(RandomGenerator rng) {
+        double u = rng.nextDouble();
+        return u < modeCdf
+                ? min + Math.sqrt(u * lowerSpan)
+                : max - Math.sqrt((1 - u) * upperSpan);
+    }
+
+    @Override
+    public double mean() {
+        return mean;
+    }
+}
@@ -0,0 +1,35 @@
+package ER;
+
+/**
+ * WarmupMode selects how the initial empty-system transient is removed
+ * from steady-state estimates.
+ *
+ * <ul>
+ *   <li>{@link #NONE} – every observation counts (the original behaviour)</li>
+ *   <li>{@link #FIXED} – statistics are cleared after a fixed warm-up period</li>
+ *   <li>{@link #MSER5} – the truncation point of the wait series is chosen
+ *       by the MSER-5 rule after the run</li>
+ * </ul>
+ */
+public enum WarmupMode {
+
+    /** No truncation */
+    NONE,
+
+    /** Clear statistics at {@link Config#warmupMinutes} */
+    FIXED,
+
+    /** Marginal Standard Error Rule on batches of five observations */
+    MSER5;
+
+    /**
+     * Parses a warm-up mode name, ignoring case and accepting dashes.
+     *
+     * @param name mode name (e.g., "none", "fixed", "mser5", "mser-5")
+     * @return the matching mode
+     * @throws IllegalArgumentException if the name is not a known mode
+     */
+    public static WarmupMode parse(String name) {
+        return valueOf(name.trim().toUpperCase().replace("-", ""));
+    }
+}
@@ -0,0 +1,65 @@
+package ER;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Weibull distribution with shape {@code k} and scale {@code lambda}.
+ *
+ * <p>Sampled as {@code lambda * E^(1/k)} where {@code E} is a standard
+ * exponential variate.
+ */
+public class WeibullDistribution implements Distribution {
+
+    /** Scale parameter */
+    private final double scale;
+
+    /** Reciprocal of the shape parameter */
+    private final double invShape;
+
+    /** Mean value */
+    private final double mean;
+
+    /**
+     * @param shape shape parameter k (must be positive)
+     * @param scale scale parameter lambda (must be positive)
+     */
+    public WeibullDistribution(double shape, double scale) {
+        if (!(shape > 0) || !(scale > 0)) {
+            throw new IllegalArgumentException("Weibull shape and scale must be positive");
+        }
+        this.scale = scale;
+        this.invShape = 1.0 / shape;
+        this.mean = scale * Math.exp(logGamma(1 + invShape));
+    }
+
+    @Override
+    public double sample(RandomGenerator rng) {
+        return scale * Math.pow(rng.nextExponential(), invShape);
+    }
+
+    @Override
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Lanczos approximation of {@code ln Gamma(x)} for {@code x > 0}.
+     */
+    private static double logGamma(double x) {
+        double[] g = {
+                676.5203681218851, -1259.1392167224028, 771.32342877765313,
+                -176.61502916214059, 12.507343278686905, -0.13857109526572012,
+                9.9843695780195716e-6, 1.5056327351493116e-7
+        };
+        if (x < 0.5) {
+            return Math.log(Math.PI / Math.sin(Math.PI * x)) - logGamma(1 - x);
+        }
+        x -= 1;
+        double a = 0.99999999999980993;
+        double t = x + 7.5;
+        for (int i = 0; i < g.length; i++) {
+            a += g[i] / (x + i + 1);
+        }
+        return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(a);
+    }
+}
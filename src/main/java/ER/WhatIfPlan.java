@@ -0,0 +1,206 @@
+package ER;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * WhatIfPlan is an immutable set of counterfactual branches that continue
+ * a base run from a common branch point.
+ *
+ * <p>The base run is simulated once up to {@code fork.hours}; every branch
+ * then continues from that state with its own parameters (see
+ * {@link SimulationEngine#runBranch(EngineSnapshot)}). Example definition:
+ * <pre>
+ * fork.hours=4
+ * output.dir=runs/whatif
+ * branches=extra_doctor,surge,fast_triage
+ * branch.extra_doctor.num.doctors=4
+ * branch.surge.arrival.rate.per.hour=35
+ * branch.fast_triage.service.mean.minutes=12
+ * </pre>
+ * Supported branch keys are {@code arrival.rate.per.hour},
+ * {@code num.doctors} and {@code service.mean.minutes}. A branch may add
+ * doctors but not remove them. The unchanged base run is always reported
+ * as branch {@code baseline}.
+ */
+public class WhatIfPlan {
+
+    /** Name under which the unchanged base run is reported */
+    public static final String BASELINE = "baseline";
+
+    /** Parameter keys accepted per branch, in column order */
+    private static final String[] KNOWN_KEYS = {
+            "arrival.rate.per.hour",
+            "num.doctors",
+            "service.mean.minutes"
+    };
+
+    /** Simulated hours before the branch point */
+    private final double forkHours;
+
+    /** Directory receiving per-branch runs and the results table */
+    private final String outputDir;
+
+    /** Branch names, in definition order */
+    private final String[] names;
+
+    /** Parameter values per branch, indexed {@code [branch][key]} (NaN = unchanged) */
+    private final double[][] values;
+
+    private WhatIfPlan(double forkHours, String outputDir, String[] names, double[][] values) {
+        this.forkHours = forkHours;
+        this.outputDir = outputDir;
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Loads a what-if plan from a properties file.
+     *
+     * @param path path to the plan definition
+     * @return the loaded plan
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static WhatIfPlan load(String path) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = new FileInputStream(path)) {
+            p.load(in);
+        }
+        return fromProperties(p);
+    }
+
+    /**
+     * Builds a plan from definition properties.
+     *
+     * @param p plan properties (see class documentation)
+     * @return the plan
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    public static WhatIfPlan fromProperties(Properties p) {
+        String fork = p.getProperty("fork.hours");
+        if (fork == null) {
+            throw new IllegalArgumentException("What-if plan needs fork.hours");
+        }
+        double forkHours = Double.parseDouble(fork.trim());
+        if (!(forkHours >= 0)) {
+            throw new IllegalArgumentException("fork.hours must be non-negative");
+        }
+
+        String list = p.getProperty("branches", "").trim();
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("What-if plan defines no branches");
+        }
+        String[] names = Arrays.stream(list.split(",")).map(String::trim).toArray(String[]::new);
+        List<String> index = List.of(names);
+        if (index.contains(BASELINE) || index.stream().distinct().count() != names.length) {
+            throw new IllegalArgumentException("Branch names must be unique and not " + BASELINE);
+        }
+
+        for (String key : p.stringPropertyNames()) {
+            if (!key.startsWith("branch.")) {
+                continue;
+            }
+            String rest = key.substring(7);
+            int dot = rest.indexOf('.');
+            String branch = dot < 0 ? rest : rest.substring(0, dot);
+            if (!index.contains(branch)) {
+                throw new IllegalArgumentException("Unknown branch: " + branch);
+            }
+            if (dot < 0 || !List.of(KNOWN_KEYS).contains(rest.substring(dot + 1))) {
+                throw new IllegalArgumentException("Unknown branch parameter: " + key);
+            }
+        }
+
+        double[][] values = new double[names.length][KNOWN_KEYS.length];
+        for (int b = 0; b < names.length; b++) {
+            for (int k = 0; k < KNOWN_KEYS.length; k++) {
+                String v = p.getProperty("branch." + names[b] + "." + KNOWN_KEYS[k]);
+                values[b][k] = v != null ? Double.parseDouble(v.trim()) : Double.NaN;
+            }
+        }
+
+        return new WhatIfPlan(
+                forkHours,
+                p.getProperty("output.dir", "runs/whatif").trim(),
+                names,
+                values
+        );
+    }
+
+    /** @return simulated hours before the branch point */
+    public double forkHours() {
+        return forkHours;
+    }
+
+    /** @return directory receiving per-branch runs and the results table */
+    public String outputDir() {
+        return outputDir;
+    }
+
+    /** @return number of branches, excluding the baseline */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param branch branch index
+     * @return branch name
+     */
+    public String name(int branch) {
+        return names[branch];
+    }
+
+    /**
+     * Builds the configuration of the unchanged base run.
+     *
+     * @param base base configuration
+     * @return configuration writing to the baseline's own output directory
+     */
+    public Config baselineConfig(Config base) {
+        Config c = base.copy();
+        c.outputDir = outputDir + "/" + BASELINE;
+        return c;
+    }
+
+    /**
+     * Builds the configuration of one branch.
+     *
+     * @param base   base configuration
+     * @param branch branch index
+     * @return configuration with the branch parameters applied and its own
+     *         output directory
+     * @throws IllegalArgumentException if the branch removes doctors
+     */
+    public Config configFor(Config base, int branch) {
+        Config c = base.copy();
+        for (int k = 0; k < KNOWN_KEYS.length; k++) {
+            double v = values[branch][k];
+            if (Double.isNaN(v)) {
+                continue;
+            }
+            switch (KNOWN_KEYS[k]) {
+                case "arrival.rate.per.hour":
+                    c.arrivalRatePerHour = v;
+                    break;
+                case "num.doctors":
+                    c.numDoctors = (int) Math.round(v);
+                    break;
+                case "service.mean.minutes":
+                    c.serviceMeanMinutes = v;
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled branch key " + KNOWN_KEYS[k]);
+            }
+        }
+        if (c.numDoctors < base.numDoctors) {
+            throw new IllegalArgumentException("Branch " + names[branch] + " cannot remove doctors");
+        }
+        c.outputDir = outputDir + "/" + names[branch];
+        return c;
+    }
+}
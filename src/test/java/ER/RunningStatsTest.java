@@ -0,0 +1,47 @@
+package ER;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RunningStats#merge(RunningStats)}.
+ */
+class RunningStatsTest {
+
+    @Test
+    void mergeCombinesMomentsAndSamples() {
+        RunningStats a = new RunningStats(true);
+        RunningStats b = new RunningStats(true);
+        a.add(1);
+        a.add(2);
+        b.add(3);
+        b.add(4);
+
+        a.merge(b);
+        a.add(5);
+
+        assertEquals(5, a.count());
+        assertEquals(3.0, a.mean(), 1e-12);
+        assertEquals(2.5, a.variance(), 1e-12);
+        assertEquals(1.0, a.min());
+        assertEquals(5.0, a.max());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1.0, a.sample(i));
+        }
+    }
+
+    @Test
+    void mergeRejectsDifferentSampleRetention() {
+        RunningStats keeping = new RunningStats(true);
+        RunningStats plain = new RunningStats(false);
+        keeping.add(1);
+        plain.add(2);
+
+        assertThrows(IllegalArgumentException.class, () -> keeping.merge(plain));
+        assertThrows(IllegalArgumentException.class, () -> plain.merge(keeping));
+        assertEquals(1, keeping.count());
+        assertEquals(1, plain.count());
+    }
+}